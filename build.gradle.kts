@@ -2,6 +2,7 @@ plugins {
     `java-library`
     `maven-publish`
     id("com.github.johnrengelman.shadow") version "8.1.1"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "io.paradaux"
@@ -43,6 +44,45 @@ dependencies {
     annotationProcessor("org.projectlombok:lombok:1.18.34")
     testCompileOnly("org.projectlombok:lombok:1.18.34")
     testAnnotationProcessor("org.projectlombok:lombok:1.18.34")
+
+    // Unit tests run without a server, against the API jar only
+    testImplementation("io.papermc.paper:paper-api:1.21.8-R0.1-SNAPSHOT")
+    testImplementation(platform("org.junit:junit-bom:5.10.2"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    // Benchmarks drive the dispatch core without a server, against the API jar only
+    jmh("io.papermc.paper:paper-api:1.21.8-R0.1-SNAPSHOT")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+// Microbenchmarks: ./gradlew jmh
+jmh {
+    jmhVersion.set("1.37")
+}
+
+// Load simulation against fake players: ./gradlew loadTest -PloadTestArgs="--players 2000 --seconds 60"
+val loadTest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[loadTest.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+
+dependencies {
+    "loadTestImplementation"("io.papermc.paper:paper-api:1.21.8-R0.1-SNAPSHOT")
+}
+
+tasks.register<JavaExec>("loadTest") {
+    description = "Drives the command dispatcher with thousands of simulated players."
+    group = "verification"
+    classpath = loadTest.runtimeClasspath
+    mainClass.set("io.paradaux.hibernia.framework.commander.LoadTest")
+    args = providers.gradleProperty("loadTestArgs").map { it.trim().split(Regex("\\s+")) }.getOrElse(emptyList())
+    maxHeapSize = "2g"
 }
 
 /**
@@ -0,0 +1,70 @@
+plugins {
+    `java-library`
+    `maven-publish`
+}
+
+group = rootProject.group
+version = rootProject.version
+
+java {
+    toolchain.languageVersion.set(JavaLanguageVersion.of(21))
+    withSourcesJar()
+}
+
+tasks.withType<Jar>().configureEach {
+    isPreserveFileTimestamps = false
+    isReproducibleFileOrder = true
+}
+
+repositories {
+    mavenCentral()
+}
+
+// Compile-time only: consumers add it with annotationProcessor("io.paradaux:hibernia-framework-processor:<version>").
+// It matches the framework's annotations by name, so it has no dependencies of its own.
+
+dependencies {
+    testImplementation(platform("org.junit:junit-bom:5.10.2"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+publishing {
+    publications {
+        create<MavenPublication>("mavenJava") {
+            from(components["java"])
+
+            groupId = project.group.toString()
+            artifactId = "hibernia-framework-processor"
+            version = project.version.toString()
+
+            pom {
+                name.set("hibernia-framework-processor")
+                description.set("Annotation processor validating hibernia-framework command routes, generating their route tables and indexing framework components.")
+                url.set("https://repo.paradaux.io")
+                licenses {
+                    license {
+                        name.set("AGPL-3.0-or-later")
+                        url.set("https://www.gnu.org/licenses/agpl-3.0.en.html")
+                        distribution.set("repo")
+                    }
+                }
+            }
+        }
+    }
+    repositories {
+        val isSnapshot = version.toString().endsWith("-SNAPSHOT")
+        maven {
+            name = if (isSnapshot) "ReposiliteSnapshots" else "ReposiliteReleases"
+            url = uri(if (isSnapshot) "https://repo.paradaux.io/snapshots" else "https://repo.paradaux.io/releases")
+            credentials {
+                username = System.getenv("REPO_USER")
+                password = System.getenv("REPO_PASS")
+            }
+        }
+    }
+}
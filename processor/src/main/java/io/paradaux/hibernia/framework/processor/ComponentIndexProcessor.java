@@ -0,0 +1,141 @@
+package io.paradaux.hibernia.framework.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Writes {@code META-INF/hibernia/components.idx}, the list of framework-annotated types in the
+ * compilation, so the framework can find them at startup without scanning the plugin jar.
+ *
+ * <p>Each line is {@code <role> <type>}, the type's binary name under the role of its annotation:
+ * {@code component} for {@code @ConfigurationComponent}, {@code command} for {@code @Command}.
+ * Roles rather than annotation names key the index because plugins relocate the framework when
+ * shading it, which rewrites class references but not the text of this resource. Entries left
+ * by an earlier compilation
+ * into the same output are kept while their type still exists and still carries the annotation,
+ * so an incremental build that recompiles only some classes does not lose the rest.</p>
+ */
+@SupportedAnnotationTypes({ComponentIndexProcessor.CONFIGURATION_COMPONENT, RouteProcessor.COMMAND})
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+    static final String CONFIGURATION_COMPONENT = "io.paradaux.hibernia.framework.configurator.annotations.ConfigurationComponent";
+    static final String INDEX = "META-INF/hibernia/components.idx";
+
+    /** Annotation name to the role the index records it under; kept in step with ComponentIndex. */
+    private static final Map<String, String> ROLES = Map.of(
+            CONFIGURATION_COMPONENT, "component",
+            RouteProcessor.COMMAND, "command");
+
+    private final Set<String> entries = new TreeSet<>();
+
+    private Filer filer;
+    private Elements elements;
+    private boolean previousIndex;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment env) {
+        super.init(env);
+        this.filer = env.getFiler();
+        this.elements = env.getElementUtils();
+        readExisting();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : round.getElementsAnnotatedWith(annotation)) {
+                if (element instanceof TypeElement type) {
+                    entries.add(ROLES.get(annotation.getQualifiedName().toString()) + " " + elements.getBinaryName(type));
+                }
+            }
+        }
+
+        if (round.processingOver() && (previousIndex || !entries.isEmpty())) {
+            write();
+        }
+        return false;
+    }
+
+    /** Carry over entries from a previous compilation whose type is still annotated. */
+    private void readExisting() {
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+            try (Reader reader = existing.openReader(true); BufferedReader lines = new BufferedReader(reader)) {
+                previousIndex = true;
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    line = line.trim();
+                    if (line.isEmpty() || line.startsWith("#")) continue;
+                    int space = line.indexOf(' ');
+                    if (space <= 0) continue;
+                    String annotation = annotationFor(line.substring(0, space));
+                    String type = line.substring(space + 1);
+                    if (annotation != null && stillAnnotated(type, annotation)) {
+                        entries.add(ROLES.get(annotation) + " " + type);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // No index from an earlier compilation
+        }
+    }
+
+    /** The annotation behind a key, which indexes written before roles were used name directly. */
+    private static String annotationFor(String key) {
+        if (ROLES.containsKey(key)) return key;
+        for (Map.Entry<String, String> role : ROLES.entrySet()) {
+            if (role.getValue().equals(key)) return role.getKey();
+        }
+        return null;
+    }
+
+    private boolean stillAnnotated(String binaryName, String annotation) {
+        TypeElement type = elements.getTypeElement(binaryName.replace('$', '.'));
+        if (type == null) return false;
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write() {
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+            try (Writer writer = file.openWriter()) {
+                writer.write("# Generated by " + ComponentIndexProcessor.class.getName() + "\n");
+                for (String entry : entries) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Failed to write " + INDEX + ": " + e.getMessage() + "; components will be found by classpath scanning");
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package io.paradaux.hibernia.framework.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+/**
+ * Compile-time companion to the CommandManager.
+ *
+ * <p>Validates every {@code @Route} method the way the CommandManager would at registration:
+ * the route pattern is well-formed, every placeholder is bound to exactly one {@code @Arg} or
+ * {@code @OptionalArg} parameter and vice versa, every parameter carries exactly one of
+ * {@code @Sender}/{@code @Arg}/{@code @OptionalArg}, no two routes of a handler share a path,
+ * and the handler is a {@code @Command} {@code CommandHandler}. Problems are compile errors.</p>
+ *
+ * <p>For each valid handler it then generates {@code <Handler>_HiberniaRoutes}, a
+ * {@code GeneratedRoutes} table listing the routes with a direct-call invoker for each and the
+ * values of their annotations: path, parameters, defaults, ranges, permission, description,
+ * {@code @Async} settings and limits. The CommandManager binds the handler from it without
+ * looking up a method or reading an annotation at startup. Handlers with private routes, or
+ * nested in private classes, are skipped with a note and keep using reflection.</p>
+ */
+@SupportedAnnotationTypes({RouteProcessor.COMMAND, RouteProcessor.ROUTE})
+public class RouteProcessor extends AbstractProcessor {
+
+    private static final String ANNOTATIONS = "io.paradaux.hibernia.framework.commander.annotations.";
+    static final String COMMAND = ANNOTATIONS + "Command";
+    static final String ROUTE = ANNOTATIONS + "Route";
+    private static final String ARG = ANNOTATIONS + "Arg";
+    private static final String OPTIONAL_ARG = ANNOTATIONS + "OptionalArg";
+    private static final String SENDER = ANNOTATIONS + "Sender";
+    private static final String RANGE = ANNOTATIONS + "Range";
+    private static final String PERMISSION = ANNOTATIONS + "Permission";
+    private static final String DESCRIPTION = ANNOTATIONS + "Description";
+    private static final String ASYNC = ANNOTATIONS + "Async";
+    private static final String COOLDOWN = ANNOTATIONS + "Cooldown";
+    private static final String RATE_LIMIT = ANNOTATIONS + "RateLimit";
+    private static final Set<String> COLLECTIONS = Set.of("java.util.Collection", "java.util.List", "java.util.Set");
+    private static final String COMMAND_HANDLER = "io.paradaux.hibernia.framework.commander.spi.CommandHandler";
+    private static final String SPI = "io.paradaux.hibernia.framework.commander.spi.";
+    private static final String BOUND_ROUTE = "io.paradaux.hibernia.framework.commander.BoundRoute";
+
+    static final String SUFFIX = "_HiberniaRoutes";
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("<[A-Za-z0-9_-]+>");
+
+    private Messager messager;
+    private Filer filer;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment env) {
+        super.init(env);
+        this.messager = env.getMessager();
+        this.filer = env.getFiler();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        Map<TypeElement, List<ExecutableElement>> handlers = new LinkedHashMap<>();
+
+        TypeElement command = processingEnv.getElementUtils().getTypeElement(COMMAND);
+        if (command != null) {
+            for (Element element : round.getElementsAnnotatedWith(command)) {
+                if (element instanceof TypeElement type) {
+                    handlers.computeIfAbsent(type, k -> new ArrayList<>());
+                }
+            }
+        }
+
+        TypeElement route = processingEnv.getElementUtils().getTypeElement(ROUTE);
+        if (route != null) {
+            for (Element element : round.getElementsAnnotatedWith(route)) {
+                if (element.getKind() != ElementKind.METHOD) continue;
+                handlers.computeIfAbsent((TypeElement) element.getEnclosingElement(), k -> new ArrayList<>())
+                        .add((ExecutableElement) element);
+            }
+        }
+
+        handlers.forEach(this::processHandler);
+        return false;
+    }
+
+    private void processHandler(TypeElement handler, List<ExecutableElement> routes) {
+        boolean valid = true;
+
+        if (mirror(handler, COMMAND) == null) {
+            for (ExecutableElement method : routes) {
+                error(method, "@Route method in a class without @Command; it will never be registered");
+            }
+            return;
+        }
+
+        TypeElement handlerInterface = processingEnv.getElementUtils().getTypeElement(COMMAND_HANDLER);
+        if (handlerInterface != null && !processingEnv.getTypeUtils().isAssignable(
+                processingEnv.getTypeUtils().erasure(handler.asType()),
+                processingEnv.getTypeUtils().erasure(handlerInterface.asType()))) {
+            error(handler, "@Command class must implement CommandHandler");
+            valid = false;
+        }
+
+        Map<String, ExecutableElement> paths = new HashMap<>();
+        for (ExecutableElement method : routes) {
+            String path = validateRoute(method);
+            if (path == null) {
+                valid = false;
+                continue;
+            }
+            ExecutableElement previous = paths.putIfAbsent(path, method);
+            if (previous != null) {
+                error(method, "Route has the same path as " + previous.getSimpleName() + "()");
+                valid = false;
+            }
+        }
+
+        if (!valid || routes.isEmpty()) return;
+
+        String unreachable = unreachableReason(handler, routes);
+        if (unreachable != null) {
+            messager.printMessage(Diagnostic.Kind.NOTE,
+                    "Not generating a route table for " + handler.getQualifiedName() + ": " + unreachable
+                            + "; its routes are bound by reflection", handler);
+            return;
+        }
+
+        try {
+            generate(handler, routes);
+        } catch (IOException e) {
+            error(handler, "Failed to generate route table: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Validate a route method.
+     *
+     * @return the route's normalised path (placeholders collapsed), or null if it is invalid
+     */
+    private String validateRoute(ExecutableElement method) {
+        String pattern = stringValue(mirror(method, ROUTE), "value").trim();
+        boolean valid = true;
+
+        List<String> placeholders = new ArrayList<>();
+        StringJoiner path = new StringJoiner(" ");
+        for (String token : pattern.isEmpty() ? new String[0] : pattern.split("\\s+")) {
+            if (token.startsWith("<") || token.endsWith(">")) {
+                if (!PLACEHOLDER.matcher(token).matches()) {
+                    error(method, "Malformed placeholder '" + token + "' in route \"" + pattern + "\"");
+                    valid = false;
+                    continue;
+                }
+                String name = token.substring(1, token.length() - 1);
+                if (placeholders.contains(name)) {
+                    error(method, "Placeholder <" + name + "> appears twice in route \"" + pattern + "\"");
+                    valid = false;
+                }
+                placeholders.add(name);
+                path.add("<>");
+            } else if (token.indexOf('<') >= 0 || token.indexOf('>') >= 0) {
+                error(method, "Malformed literal '" + token + "' in route \"" + pattern + "\"");
+                valid = false;
+            } else {
+                path.add(token.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        Set<String> bound = new HashSet<>();
+        for (VariableElement parameter : method.getParameters()) {
+            AnnotationMirror arg = mirror(parameter, ARG);
+            AnnotationMirror optional = mirror(parameter, OPTIONAL_ARG);
+            AnnotationMirror sender = mirror(parameter, SENDER);
+            int count = (arg != null ? 1 : 0) + (optional != null ? 1 : 0) + (sender != null ? 1 : 0);
+            if (count != 1) {
+                error(parameter, "Parameter must have exactly one of @Sender, @Arg or @OptionalArg");
+                valid = false;
+                continue;
+            }
+            if (sender != null) continue;
+
+            if (isCollection(parameter.asType()) && elementType(parameter.asType()) == null) {
+                error(parameter, "Collection parameter must declare a concrete element type, e.g. List<Player>");
+                valid = false;
+            }
+
+            String name = stringValue(arg != null ? arg : optional, "value");
+            if (!bound.add(name)) {
+                error(parameter, "Argument '" + name + "' is bound to more than one parameter");
+                valid = false;
+            }
+            if (arg != null && !placeholders.contains(name)) {
+                error(parameter, "@Arg(\"" + name + "\") has no <" + name + "> placeholder in route \"" + pattern + "\"");
+                valid = false;
+            }
+        }
+
+        for (String placeholder : placeholders) {
+            if (!bound.contains(placeholder)) {
+                error(method, "Placeholder <" + placeholder + "> has no matching @Arg or @OptionalArg parameter");
+                valid = false;
+            }
+        }
+
+        return valid ? path.toString() : null;
+    }
+
+    /** Why the generated class, in the handler's package, could not call the handler's routes. */
+    private static String unreachableReason(TypeElement handler, List<ExecutableElement> routes) {
+        for (Element e = handler; e instanceof TypeElement type; e = e.getEnclosingElement()) {
+            if (type.getModifiers().contains(Modifier.PRIVATE)) {
+                return type.getSimpleName() + " is private";
+            }
+        }
+        for (ExecutableElement method : routes) {
+            if (method.getModifiers().contains(Modifier.PRIVATE)) {
+                return method.getSimpleName() + "() is private";
+            }
+        }
+        return null;
+    }
+
+    private void generate(TypeElement handler, List<ExecutableElement> routes) throws IOException {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(handler);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(handler).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+        String handlerType = processingEnv.getTypeUtils().erasure(handler.asType()).toString();
+
+        StringBuilder src = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("import ").append(BOUND_ROUTE).append(".Param;\n");
+        src.append("import ").append(BOUND_ROUTE).append(".Segment;\n");
+        src.append("import ").append(SPI).append("GeneratedRoute;\n");
+        src.append("import ").append(SPI).append("GeneratedRoute.AsyncSettings;\n");
+        src.append("import ").append(SPI).append("GeneratedRoute.Limit;\n");
+        src.append("import ").append(SPI).append("GeneratedRoutes;\n\n");
+        src.append("import java.util.List;\n\n");
+        src.append("@javax.annotation.processing.Generated(\"").append(RouteProcessor.class.getName()).append("\")\n");
+        src.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        src.append("public final class ").append(simpleName).append(" implements GeneratedRoutes {\n\n");
+        src.append("    private static final List<GeneratedRoute> ROUTES = List.of(");
+
+        for (int r = 0; r < routes.size(); r++) {
+            ExecutableElement method = routes.get(r);
+            List<? extends VariableElement> parameters = method.getParameters();
+
+            StringJoiner types = new StringJoiner(", ", "List.of(", ")");
+            StringJoiner args = new StringJoiner(", ");
+            StringJoiner params = new StringJoiner(",\n                            ", "List.of(\n                            ", ")");
+            for (int i = 0; i < parameters.size(); i++) {
+                VariableElement parameter = parameters.get(i);
+                String type = typeName(parameter.asType());
+                types.add(type + ".class");
+                args.add("(" + type + ") args[" + i + "]");
+                params.add(param(parameter, type));
+            }
+            if (parameters.isEmpty()) params = new StringJoiner("", "List.of(", ")");
+
+            boolean isStatic = method.getModifiers().contains(Modifier.STATIC);
+            String call = (isStatic ? handlerType : "((" + handlerType + ") instance)")
+                    + "." + method.getSimpleName() + "(" + args + ")";
+
+            src.append(r == 0 ? "\n" : ",\n");
+            src.append("            new GeneratedRoute(\"").append(method.getSimpleName()).append("\", ")
+                    .append(types).append(",\n                    (instance, args) -> ");
+            if (method.getReturnType().getKind() == TypeKind.VOID) {
+                src.append("{\n                        ").append(call).append(";\n                        return null;\n                    }");
+            } else {
+                src.append(call);
+            }
+
+            AnnotationMirror permission = mirror(method, PERMISSION);
+            AnnotationMirror description = mirror(method, DESCRIPTION);
+            src.append(",\n                    ").append(segments(stringValue(mirror(method, ROUTE), "value")))
+                    .append(",\n                    ").append(params)
+                    .append(",\n                    ").append(permission != null ? literal(stringValue(permission, "value")) : "null")
+                    .append(", ").append(literal(description != null ? stringValue(description, "value") : ""))
+                    .append(",\n                    ").append(asyncSettings(mirror(method, ASYNC)))
+                    .append(",\n                    ").append(limit(handler, method, COOLDOWN))
+                    .append(",\n                    ").append(limit(handler, method, RATE_LIMIT))
+                    .append(")");
+        }
+
+        src.append(");\n\n");
+        src.append("    @Override\n");
+        src.append("    public List<GeneratedRoute> routes() {\n");
+        src.append("        return ROUTES;\n");
+        src.append("    }\n");
+        src.append("}\n");
+
+        String qualified = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        JavaFileObject file = filer.createSourceFile(qualified, handler);
+        try (Writer writer = file.openWriter()) {
+            writer.write(src.toString());
+        }
+    }
+
+    /** The route's path as it is bound: literals lower-cased, placeholders by name. */
+    private String segments(String pattern) {
+        StringJoiner segments = new StringJoiner(", ", "List.of(", ")");
+        String trimmed = pattern.trim();
+        for (String token : trimmed.isEmpty() ? new String[0] : trimmed.split("\\s+")) {
+            boolean placeholder = token.startsWith("<");
+            String value = placeholder ? token.substring(1, token.length() - 1) : token.toLowerCase(Locale.ROOT);
+            segments.add("new Segment(" + !placeholder + ", " + literal(value) + ")");
+        }
+        return segments.toString();
+    }
+
+    /** A parameter as the dispatcher binds it; validation has already checked its annotations. */
+    private String param(VariableElement parameter, String type) {
+        if (mirror(parameter, SENDER) != null) {
+            return "new Param(true, false, " + type + ".class, null, \"\", null, 0, 0)";
+        }
+
+        AnnotationMirror arg = mirror(parameter, ARG);
+        AnnotationMirror optional = mirror(parameter, OPTIONAL_ARG);
+        Map<String, Object> range = values(mirror(parameter, RANGE));
+        TypeMirror element = elementType(parameter.asType());
+        String defaultValue = arg != null ? "null" : literal(values(optional).get("defaultValue"));
+
+        return "new Param(false, " + (arg == null) + ", " + type + ".class, "
+                + (element != null ? typeName(element) + ".class" : "null") + ", "
+                + literal(stringValue(arg != null ? arg : optional, "value")) + ", " + defaultValue + ", "
+                + (range != null ? literal(range.get("min")) : literal(-Double.MAX_VALUE)) + ", "
+                + (range != null ? literal(range.get("max")) : literal(Double.MAX_VALUE)) + ")";
+    }
+
+    private String asyncSettings(AnnotationMirror async) {
+        Map<String, Object> values = values(async);
+        if (values == null) return "null";
+        return "new AsyncSettings(" + literal(values.get("maxConcurrent")) + ", "
+                + literal(values.get("maxConcurrentPerSender")) + ", " + literal(values.get("queueLimit")) + ", "
+                + literal(values.get("timeoutMs")) + ", " + literal(values.get("rejectMessage")) + ")";
+    }
+
+    /** A {@code @Cooldown} or {@code @RateLimit} on the route, or else on its handler. */
+    private String limit(TypeElement handler, ExecutableElement method, String annotation) {
+        AnnotationMirror mirror = mirror(method, annotation);
+        Map<String, Object> values = values(mirror != null ? mirror : mirror(handler, annotation));
+        if (values == null) return "null";
+        if (annotation.equals(COOLDOWN)) {
+            return "new Limit(1, 0, " + literal(values.get("value")) + ", " + literal(values.get("unit")) + ", "
+                    + literal(values.get("message")) + ")";
+        }
+        return "new Limit(" + literal(values.get("permits")) + ", " + literal(values.get("globalPermits")) + ", "
+                + literal(values.get("period")) + ", " + literal(values.get("unit")) + ", "
+                + literal(values.get("message")) + ")";
+    }
+
+    /** The values of an annotation by element name, defaults included; null for no annotation. */
+    private Map<String, Object> values(AnnotationMirror mirror) {
+        if (mirror == null) return null;
+        Map<String, Object> values = new HashMap<>();
+        processingEnv.getElementUtils().getElementValuesWithDefaults(mirror)
+                .forEach((element, value) -> values.put(element.getSimpleName().toString(), value.getValue()));
+        return values;
+    }
+
+    /** A Java expression for an annotation value: a constant, or a TimeUnit constant. */
+    private String literal(Object value) {
+        if (value instanceof VariableElement constant) {
+            return "java.util.concurrent.TimeUnit." + constant.getSimpleName();
+        }
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    private boolean isCollection(TypeMirror type) {
+        return COLLECTIONS.contains(typeName(type));
+    }
+
+    /**
+     * The element type of a {@code Collection}, {@code List} or {@code Set} parameter, or null
+     * for any other parameter and for one without a concrete element type.
+     */
+    private TypeMirror elementType(TypeMirror type) {
+        if (!isCollection(type) || !(type instanceof DeclaredType declared) || declared.getTypeArguments().size() != 1) {
+            return null;
+        }
+        TypeMirror element = declared.getTypeArguments().get(0);
+        return element instanceof DeclaredType d && d.getTypeArguments().isEmpty() ? element : null;
+    }
+
+    private String typeName(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private static AnnotationMirror mirror(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(annotation)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static String stringValue(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return String.valueOf(entry.getValue().getValue());
+            }
+        }
+        return "";
+    }
+
+    private void error(Element element, String message) {
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,221 @@
+package io.paradaux.hibernia.framework.processor;
+
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLClassLoader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiles sources with a processor against stand-ins for the framework's annotations and SPI,
+ * which the processor matches by name only.
+ */
+final class Compilation {
+
+    private static final Map<String, String> FRAMEWORK = Map.ofEntries(
+            Map.entry("io.paradaux.hibernia.framework.commander.annotations.Command", """
+                    package io.paradaux.hibernia.framework.commander.annotations;
+                    @java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+                    public @interface Command { String[] value(); }
+                    """),
+            Map.entry("io.paradaux.hibernia.framework.commander.annotations.Route", """
+                    package io.paradaux.hibernia.framework.commander.annotations;
+                    public @interface Route { String value(); }
+                    """),
+            Map.entry("io.paradaux.hibernia.framework.commander.annotations.Arg", """
+                    package io.paradaux.hibernia.framework.commander.annotations;
+                    public @interface Arg { String value(); }
+                    """),
+            Map.entry("io.paradaux.hibernia.framework.commander.annotations.OptionalArg", """
+                    package io.paradaux.hibernia.framework.commander.annotations;
+                    public @interface OptionalArg { String value(); String defaultValue() default ""; }
+                    """),
+            Map.entry("io.paradaux.hibernia.framework.commander.annotations.Sender", """
+                    package io.paradaux.hibernia.framework.commander.annotations;
+                    public @interface Sender {}
+                    """),
+            Map.entry("io.paradaux.hibernia.framework.commander.annotations.Range", """
+                    package io.paradaux.hibernia.framework.commander.annotations;
+                    public @interface Range { double min() default -Double.MAX_VALUE; double max() default Double.MAX_VALUE; }
+                    """),
+            Map.entry("io.paradaux.hibernia.framework.commander.annotations.Permission", """
+                    package io.paradaux.hibernia.framework.commander.annotations;
+                    public @interface Permission { String value(); }
+                    """),
+            Map.entry("io.paradaux.hibernia.framework.commander.annotations.Description", """
+                    package io.paradaux.hibernia.framework.commander.annotations;
+                    public @interface Description { String value(); }
+                    """),
+            Map.entry("io.paradaux.hibernia.framework.commander.annotations.Async", """
+                    package io.paradaux.hibernia.framework.commander.annotations;
+                    public @interface Async {
+                        int maxConcurrent() default 0;
+                        int maxConcurrentPerSender() default 0;
+                        int queueLimit() default -1;
+                        long timeoutMs() default 0;
+                        String rejectMessage() default "busy";
+                    }
+                    """),
+            Map.entry("io.paradaux.hibernia.framework.commander.annotations.Cooldown", """
+                    package io.paradaux.hibernia.framework.commander.annotations;
+                    import java.util.concurrent.TimeUnit;
+                    public @interface Cooldown {
+                        long value();
+                        TimeUnit unit() default TimeUnit.SECONDS;
+                        String message() default "wait {remaining}";
+                    }
+                    """),
+            Map.entry("io.paradaux.hibernia.framework.commander.annotations.RateLimit", """
+                    package io.paradaux.hibernia.framework.commander.annotations;
+                    import java.util.concurrent.TimeUnit;
+                    public @interface RateLimit {
+                        int permits();
+                        long period() default 1;
+                        TimeUnit unit() default TimeUnit.SECONDS;
+                        int globalPermits() default 0;
+                        String message() default "slow down";
+                    }
+                    """),
+            Map.entry("io.paradaux.hibernia.framework.commander.spi.CommandHandler", """
+                    package io.paradaux.hibernia.framework.commander.spi;
+                    public interface CommandHandler {}
+                    """),
+            Map.entry("io.paradaux.hibernia.framework.commander.spi.GeneratedRoute", """
+                    package io.paradaux.hibernia.framework.commander.spi;
+                    import io.paradaux.hibernia.framework.commander.RouteInvoker;
+                    import io.paradaux.hibernia.framework.commander.BoundRoute;
+                    import io.paradaux.hibernia.framework.commander.RouteInvoker;
+                    import java.util.List;
+                    import java.util.concurrent.TimeUnit;
+                    public record GeneratedRoute(String method, List<Class<?>> parameterTypes, RouteInvoker invoker,
+                                                 List<BoundRoute.Segment> path, List<BoundRoute.Param> params,
+                                                 String permission, String description, AsyncSettings async,
+                                                 Limit cooldown, Limit rateLimit) {
+                        public record AsyncSettings(int maxConcurrent, int maxConcurrentPerSender, int queueLimit,
+                                                    long timeoutMs, String rejectMessage) {}
+                        public record Limit(int permits, int globalPermits, long period, TimeUnit unit, String message) {}
+                    }
+                    """),
+            Map.entry("io.paradaux.hibernia.framework.commander.spi.GeneratedRoutes", """
+                    package io.paradaux.hibernia.framework.commander.spi;
+                    public interface GeneratedRoutes { java.util.List<GeneratedRoute> routes(); }
+                    """),
+            Map.entry("io.paradaux.hibernia.framework.commander.BoundRoute", """
+                    package io.paradaux.hibernia.framework.commander;
+                    public final class BoundRoute {
+                        public record Segment(boolean literal, String token) {}
+                        public record Param(boolean sender, boolean optional, Class<?> type, Class<?> elementType,
+                                            String name, Object defaultValue, double min, double max) {}
+                    }
+                    """),
+            Map.entry("io.paradaux.hibernia.framework.commander.RouteInvoker", """
+                    package io.paradaux.hibernia.framework.commander;
+                    public interface RouteInvoker { Object invoke(Object instance, Object[] args) throws Throwable; }
+                    """),
+            Map.entry("io.paradaux.hibernia.framework.configurator.annotations.ConfigurationComponent", """
+                    package io.paradaux.hibernia.framework.configurator.annotations;
+                    public @interface ConfigurationComponent { String file() default "config.yml"; }
+                    """));
+
+    private final Path output;
+    private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+    private final boolean success;
+
+    private Compilation(Path output, List<Diagnostic<? extends JavaFileObject>> diagnostics, boolean success) {
+        this.output = output;
+        this.diagnostics = diagnostics;
+        this.success = success;
+    }
+
+    /** Compile the framework stand-ins into {@code output}, to compile against later. */
+    static Compilation framework(Path output) {
+        List<JavaFileObject> sources = new ArrayList<>();
+        FRAMEWORK.forEach((name, source) -> sources.add(source(name, source)));
+        return compile(output, List.of(), sources, List.of());
+    }
+
+    /**
+     * Compile sources into {@code output} with the given processor.
+     *
+     * @param sources fully qualified class name to source
+     */
+    static Compilation compile(Path output, Processor processor, Map<String, String> sources) {
+        List<JavaFileObject> files = new ArrayList<>();
+        sources.forEach((name, source) -> files.add(source(name, source)));
+        return compile(output, List.of(output), files, List.of(processor));
+    }
+
+    private static Compilation compile(Path output, List<Path> classpath, List<JavaFileObject> sources,
+                                       List<Processor> processors) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(collector, Locale.ROOT, StandardCharsets.UTF_8)) {
+            Files.createDirectories(output);
+            files.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(output));
+            files.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, List.of(output));
+            files.setLocationFromPaths(StandardLocation.CLASS_PATH, classpath);
+
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, collector, List.of(), null, sources);
+            task.setProcessors(processors);
+            boolean success = task.call();
+            return new Compilation(output, List.copyOf(collector.getDiagnostics()), success);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static JavaFileObject source(String name, String source) {
+        URI uri = URI.create("string:///" + name.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+    }
+
+    boolean succeeded() {
+        return success;
+    }
+
+    /** Messages of the given kind, in the order they were reported. */
+    List<String> messages(Diagnostic.Kind kind) {
+        List<String> messages = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+            if (diagnostic.getKind() == kind) messages.add(diagnostic.getMessage(Locale.ROOT));
+        }
+        return messages;
+    }
+
+    /** A file written to the output, or null if there is none. */
+    String file(String relative) throws IOException {
+        Path file = output.resolve(relative);
+        return Files.exists(file) ? Files.readString(file) : null;
+    }
+
+    /** A class loader over the output, for running what was compiled. */
+    URLClassLoader classLoader() throws IOException {
+        return new URLClassLoader(new URL[] {output.toUri().toURL()}, Compilation.class.getClassLoader());
+    }
+
+    @Override
+    public String toString() {
+        return diagnostics.toString();
+    }
+}
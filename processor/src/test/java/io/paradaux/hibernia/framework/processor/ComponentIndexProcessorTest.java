@@ -0,0 +1,95 @@
+package io.paradaux.hibernia.framework.processor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComponentIndexProcessorTest {
+
+    private static final String HEADER = "# Generated by " + ComponentIndexProcessor.class.getName() + "\n";
+
+    private static final String SETTINGS = """
+            package example;
+            @io.paradaux.hibernia.framework.configurator.annotations.ConfigurationComponent
+            public class Settings {
+                @io.paradaux.hibernia.framework.configurator.annotations.ConfigurationComponent(file = "shop.yml")
+                public static class Shop {}
+            }
+            """;
+
+    private static final String ECO = """
+            package example;
+            @io.paradaux.hibernia.framework.commander.annotations.Command("eco")
+            public class Eco {}
+            """;
+
+    @TempDir
+    Path output;
+
+    @BeforeEach
+    void compileFramework() {
+        Compilation framework = Compilation.framework(output);
+        assertTrue(framework.succeeded(), framework.toString());
+    }
+
+    @Test
+    void indexesAnnotatedTypesByRoleAndBinaryName() throws Exception {
+        Compilation compilation = compile(Map.of("example.Settings", SETTINGS, "example.Eco", ECO));
+        assertTrue(compilation.succeeded(), compilation.toString());
+
+        assertEquals(HEADER
+                        + "command example.Eco\n"
+                        + "component example.Settings\n"
+                        + "component example.Settings$Shop\n",
+                compilation.file(ComponentIndexProcessor.INDEX));
+    }
+
+    @Test
+    void writesNoIndexWithoutComponents() throws Exception {
+        Compilation compilation = compile(Map.of("example.Plain", "package example; public class Plain {}"));
+        assertTrue(compilation.succeeded(), compilation.toString());
+        assertNull(compilation.file(ComponentIndexProcessor.INDEX));
+    }
+
+    @Test
+    void incrementalCompilationKeepsTypesItDidNotRecompile() throws Exception {
+        assertTrue(compile(Map.of("example.Settings", SETTINGS, "example.Eco", ECO)).succeeded());
+
+        // Eco loses its annotation and Bank is added; Settings is not recompiled
+        Compilation compilation = compile(Map.of("example.Eco", "package example; public class Eco {}",
+                "example.Bank", ECO.replace("Eco", "Bank").replace("\"eco\"", "\"bank\"")));
+        assertTrue(compilation.succeeded(), compilation.toString());
+
+        assertEquals(HEADER
+                        + "command example.Bank\n"
+                        + "component example.Settings\n"
+                        + "component example.Settings$Shop\n",
+                compilation.file(ComponentIndexProcessor.INDEX));
+    }
+
+    @Test
+    void entriesKeyedByAnnotationNameAreCarriedOverByRole() throws Exception {
+        assertTrue(compile(Map.of("example.Settings", SETTINGS)).succeeded());
+        // As written before the index was keyed by role
+        Files.writeString(output.resolve(ComponentIndexProcessor.INDEX), HEADER
+                + ComponentIndexProcessor.CONFIGURATION_COMPONENT + " example.Settings\n");
+
+        Compilation compilation = compile(Map.of("example.Eco", ECO));
+        assertTrue(compilation.succeeded(), compilation.toString());
+
+        assertEquals(HEADER + "command example.Eco\n" + "component example.Settings\n",
+                compilation.file(ComponentIndexProcessor.INDEX));
+    }
+
+    private Compilation compile(Map<String, String> sources) {
+        return Compilation.compile(output, new ComponentIndexProcessor(), sources);
+    }
+}
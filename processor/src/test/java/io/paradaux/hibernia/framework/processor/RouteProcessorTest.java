@@ -0,0 +1,246 @@
+package io.paradaux.hibernia.framework.processor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteProcessorTest {
+
+    private static final String IMPORTS = """
+            package example;
+            import io.paradaux.hibernia.framework.commander.annotations.*;
+            import io.paradaux.hibernia.framework.commander.spi.CommandHandler;
+            """;
+
+    @TempDir
+    Path output;
+
+    @BeforeEach
+    void compileFramework() {
+        Compilation framework = Compilation.framework(output);
+        assertTrue(framework.succeeded(), framework.toString());
+    }
+
+    @Test
+    void generatesARouteTableThatCallsTheHandler() throws Exception {
+        Compilation compilation = compile("""
+                @Command("eco")
+                public class Eco implements CommandHandler {
+                    public final StringBuilder calls = new StringBuilder();
+
+                    @Route("pay <player> <amount>")
+                    public void pay(@Sender Object sender, @Arg("player") String player, @Arg("amount") int amount) {
+                        calls.append(player).append(amount);
+                    }
+
+                    @Route("top")
+                    String top(@Sender Object sender, @OptionalArg("page") Integer page) {
+                        return "page " + page;
+                    }
+                }
+                """);
+        assertTrue(compilation.succeeded(), compilation.toString());
+
+        try (URLClassLoader loader = compilation.classLoader()) {
+            Object handler = loader.loadClass("example.Eco").getConstructor().newInstance();
+            Object table = loader.loadClass("example.Eco" + RouteProcessor.SUFFIX).getConstructor().newInstance();
+            List<?> routes = (List<?>) table.getClass().getMethod("routes").invoke(table);
+            assertEquals(2, routes.size());
+
+            assertEquals("pay", call(routes.get(0), "method"));
+            assertEquals(List.of(Object.class, String.class, int.class), call(routes.get(0), "parameterTypes"));
+            assertNull(invoke(routes.get(0), handler, new Object[] {null, "alice", 5}));
+            assertEquals("alice5", handler.getClass().getField("calls").get(handler).toString());
+
+            assertEquals("page 2", invoke(routes.get(1), handler, new Object[] {null, 2}));
+        }
+    }
+
+    @Test
+    void generatesTheBindingDataOfEachRoute() throws Exception {
+        Compilation compilation = compile("""
+                @Command("eco")
+                @Cooldown(5)
+                public class Eco implements CommandHandler {
+                    @Route("Pay <amount> <players>")
+                    @Permission("eco.pay")
+                    @Description("Pay players")
+                    @Async(maxConcurrent = 2, timeoutMs = 500)
+                    @RateLimit(permits = 3, globalPermits = 10)
+                    public void pay(@Sender Object sender,
+                                    @OptionalArg(value = "amount", defaultValue = "1") @Range(min = 1, max = 100) int amount,
+                                    @Arg("players") java.util.List<String> players) {}
+
+                    @Route("top")
+                    public void top(@Sender Object sender) {}
+                }
+                """);
+        assertTrue(compilation.succeeded(), compilation.toString());
+
+        try (URLClassLoader loader = compilation.classLoader()) {
+            Object table = loader.loadClass("example.Eco" + RouteProcessor.SUFFIX).getConstructor().newInstance();
+            List<?> routes = (List<?>) table.getClass().getMethod("routes").invoke(table);
+            Object pay = routes.get(0);
+
+            assertEquals("[Segment[literal=true, token=pay], Segment[literal=false, token=amount], "
+                    + "Segment[literal=false, token=players]]", call(pay, "path").toString());
+            assertEquals("[Param[sender=true, optional=false, type=class java.lang.Object, elementType=null, name=, "
+                    + "defaultValue=null, min=0.0, max=0.0], "
+                    + "Param[sender=false, optional=true, type=int, elementType=null, name=amount, "
+                    + "defaultValue=1, min=1.0, max=100.0], "
+                    + "Param[sender=false, optional=false, type=interface java.util.List, "
+                    + "elementType=class java.lang.String, name=players, defaultValue=null, "
+                    + "min=-1.7976931348623157E308, max=1.7976931348623157E308]]", call(pay, "params").toString());
+            assertEquals("eco.pay", call(pay, "permission"));
+            assertEquals("Pay players", call(pay, "description"));
+            assertEquals("AsyncSettings[maxConcurrent=2, maxConcurrentPerSender=0, queueLimit=-1, timeoutMs=500, "
+                    + "rejectMessage=busy]", call(pay, "async").toString());
+            // The handler's cooldown applies to routes without their own
+            assertEquals("Limit[permits=1, globalPermits=0, period=5, unit=SECONDS, message=wait {remaining}]",
+                    call(pay, "cooldown").toString());
+            assertEquals("Limit[permits=3, globalPermits=10, period=1, unit=SECONDS, message=slow down]",
+                    call(pay, "rateLimit").toString());
+
+            Object top = routes.get(1);
+            assertNull(call(top, "permission"));
+            assertEquals("", call(top, "description"));
+            assertNull(call(top, "async"));
+            assertNull(call(top, "rateLimit"));
+        }
+    }
+
+    @Test
+    void skipsHandlersItCannotCall() throws Exception {
+        Compilation compilation = compile("""
+                @Command("eco")
+                public class Eco implements CommandHandler {
+                    @Route("top")
+                    private void top(@Sender Object sender) {}
+                }
+                """);
+        assertTrue(compilation.succeeded(), compilation.toString());
+        assertTrue(compilation.messages(Diagnostic.Kind.NOTE).stream().anyMatch(m -> m.contains("top() is private")),
+                compilation.toString());
+        assertNull(compilation.file("example/Eco" + RouteProcessor.SUFFIX + ".java"));
+    }
+
+    @Test
+    void reportsMismatchedPlaceholders() {
+        assertErrors("""
+                @Command("eco")
+                public class Eco implements CommandHandler {
+                    @Route("pay <player>")
+                    public void pay(@Sender Object sender, @Arg("target") String target) {}
+                }
+                """,
+                "@Arg(\"target\") has no <target> placeholder in route \"pay <player>\"",
+                "Placeholder <player> has no matching @Arg or @OptionalArg parameter");
+    }
+
+    @Test
+    void reportsMalformedRoutes() {
+        assertErrors("""
+                @Command("eco")
+                public class Eco implements CommandHandler {
+                    @Route("pay <player <player>")
+                    public void pay(@Sender Object sender) {}
+
+                    @Route("give <a> <a>")
+                    public void give(@Sender Object sender, @Arg("a") String a) {}
+                }
+                """,
+                "Malformed placeholder '<player' in route \"pay <player <player>\"",
+                "Placeholder <player> has no matching @Arg or @OptionalArg parameter",
+                "Placeholder <a> appears twice in route \"give <a> <a>\"");
+    }
+
+    @Test
+    void reportsUnannotatedAndDoublyBoundParameters() {
+        assertErrors("""
+                @Command("eco")
+                public class Eco implements CommandHandler {
+                    @Route("pay <player>")
+                    public void pay(Object sender, @Arg("player") String player, @Arg("player") String again) {}
+                }
+                """,
+                "Parameter must have exactly one of @Sender, @Arg or @OptionalArg",
+                "Argument 'player' is bound to more than one parameter");
+    }
+
+    @Test
+    void reportsCollectionsWithoutAConcreteElementType() {
+        assertErrors("""
+                @Command("eco")
+                public class Eco implements CommandHandler {
+                    @Route("pay <players>")
+                    public void pay(@Sender Object sender, @Arg("players") java.util.List<?> players) {}
+                }
+                """,
+                "Collection parameter must declare a concrete element type, e.g. List<Player>");
+    }
+
+    @Test
+    void reportsRoutesWithTheSamePath() {
+        assertErrors("""
+                @Command("eco")
+                public class Eco implements CommandHandler {
+                    @Route("pay <player>")
+                    public void pay(@Sender Object sender, @Arg("player") String player) {}
+
+                    @Route("PAY <target>")
+                    public void payTarget(@Sender Object sender, @Arg("target") String target) {}
+                }
+                """,
+                "Route has the same path as pay()");
+    }
+
+    @Test
+    void reportsMisplacedHandlers() {
+        assertErrors("""
+                @Command("eco")
+                public class Eco {
+                    @Route("top")
+                    public void top(@Sender Object sender) {}
+                }
+                """,
+                "@Command class must implement CommandHandler");
+        assertErrors("""
+                public class Eco implements CommandHandler {
+                    @Route("top")
+                    public void top(@Sender Object sender) {}
+                }
+                """,
+                "@Route method in a class without @Command; it will never be registered");
+    }
+
+    private Compilation compile(String source) {
+        return Compilation.compile(output, new RouteProcessor(), Map.of("example.Eco", IMPORTS + source));
+    }
+
+    private void assertErrors(String source, String... errors) {
+        Compilation compilation = compile(source);
+        assertFalse(compilation.succeeded(), compilation.toString());
+        assertEquals(List.of(errors), compilation.messages(Diagnostic.Kind.ERROR));
+    }
+
+    private static Object call(Object route, String accessor) throws Exception {
+        return route.getClass().getMethod(accessor).invoke(route);
+    }
+
+    private static Object invoke(Object route, Object handler, Object[] args) throws Exception {
+        // Through the interface: the invoker itself is a hidden lambda class
+        Class<?> type = route.getClass().getMethod("invoker").getReturnType();
+        return type.getMethod("invoke", Object.class, Object[].class).invoke(call(route, "invoker"), handler, args);
+    }
+}
@@ -1 +1,3 @@
-rootProject.name = "hibernia-framework"
\ No newline at end of file
+rootProject.name = "hibernia-framework"
+
+include("processor")
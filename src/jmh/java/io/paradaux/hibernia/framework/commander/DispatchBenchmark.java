@@ -0,0 +1,152 @@
+package io.paradaux.hibernia.framework.commander;
+
+import io.paradaux.hibernia.framework.commander.spi.ParameterResolver;
+import org.bukkit.command.CommandSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the server-agnostic dispatch core against synthetic handlers of 10 to 1,000 routes:
+ * matching and running a command, argument extraction alone, suggestions, and binding a
+ * handler into a route tree (what the COMMANDS lifecycle event does per handler).
+ *
+ * <p>Each invocation moves on to the next route, so large trees are not measured through one
+ * hot path.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    private static final int PLAYERS = 1_000;
+
+    @Param({"10", "100", "1000"})
+    public int routes;
+
+    private Class<?> handlerType;
+    private Object handler;
+    private CommandSender sender;
+    private DefaultRouteDispatcher dispatcher;
+    private RouteTree tree;
+    private String[] inputs;
+    private RouteTree.Match[] matches;
+    private BoundRoute.Param playerParam;
+    private String[] prefixes;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        handlerType = SyntheticHandlers.generate(routes);
+        handler = handlerType.getConstructor().newInstance();
+        sender = FakeSenders.sender("bench");
+        dispatcher = newDispatcher();
+        tree = buildTree(dispatcher);
+
+        inputs = new String[routes];
+        matches = new RouteTree.Match[routes];
+        prefixes = new String[routes];
+        for (int i = 0; i < routes; i++) {
+            String player = PlayerNames.NAMES.get(i % PLAYERS);
+            inputs[i] = SyntheticHandlers.input(i, player);
+            matches[i] = tree.match(inputs[i]);
+            prefixes[i] = player.substring(0, 1 + i % 3);
+        }
+        playerParam = matches[0].route().params().get(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Benchmark
+    public int dispatch() {
+        RouteTree.Match match = tree.match(inputs[next()]);
+        return dispatcher.execute(match.route(), sender, match.arguments());
+    }
+
+    @Benchmark
+    public Object[] extractArguments() throws Exception {
+        RouteTree.Match match = matches[next()];
+        return dispatcher.extractArguments(match.arguments(), match.route(), sender);
+    }
+
+    @Benchmark
+    public List<String> suggest() {
+        return dispatcher.suggest(playerParam, prefixes[next()], sender).join();
+    }
+
+    @Benchmark
+    public RouteTree buildTree() {
+        return buildTree(newDispatcher());
+    }
+
+    private RouteTree buildTree(DefaultRouteDispatcher dispatcher) {
+        RouteTree tree = new RouteTree("bench");
+        dispatcher.bind(handlerType, () -> handler).forEach(tree::insert);
+        return tree;
+    }
+
+    private DefaultRouteDispatcher newDispatcher() {
+        return new DefaultRouteDispatcher(Set.of(new PlayerNames()), Runnable::run, () -> sender, "bench",
+                () -> { throw new IllegalStateException("No messages in benchmarks"); });
+    }
+
+    private int next() {
+        int index = next;
+        next = index + 1 == routes ? 0 : index + 1;
+        return index;
+    }
+
+    /** Player names as a String resolver, suggesting by prefix like the online player index. */
+    static final class PlayerNames implements ParameterResolver<String> {
+        static final List<String> NAMES = names();
+
+        public Class<String> type() {
+            return String.class;
+        }
+
+        public Optional<String> resolve(String token, CommandSender sender) {
+            return Optional.of(token);
+        }
+
+        public List<String> suggestions(String prefix, CommandSender sender) {
+            List<String> matches = new ArrayList<>();
+            for (String name : NAMES) {
+                if (name.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                    matches.add(name);
+                    if (matches.size() == 20) break;
+                }
+            }
+            return matches;
+        }
+
+        private static List<String> names() {
+            String[] stems = {"alex", "blaze", "creeper", "dragon", "ender", "frost", "ghast", "herobrine"};
+            List<String> names = new ArrayList<>(PLAYERS);
+            for (int i = 0; i < PLAYERS; i++) {
+                names.add(stems[i % stems.length] + "_" + i);
+            }
+            return names;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.paradaux.hibernia.framework.commander;
+
+import org.bukkit.command.CommandSender;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Command senders for driving the dispatcher without a server: every permission is granted
+ * and messages are discarded.
+ */
+final class FakeSenders {
+
+    private FakeSenders() {}
+
+    static CommandSender sender(String name) {
+        return (CommandSender) Proxy.newProxyInstance(FakeSenders.class.getClassLoader(),
+                new Class<?>[] {CommandSender.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getName" -> name;
+                    case "hasPermission", "isPermissionSet", "isOp" -> true;
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "FakeSender[" + name + "]";
+                    default -> defaultValue(method.getReturnType());
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0d;
+        if (type == float.class) return 0f;
+        return null;
+    }
+}
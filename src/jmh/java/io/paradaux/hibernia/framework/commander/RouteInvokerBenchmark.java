@@ -0,0 +1,74 @@
+package io.paradaux.hibernia.framework.commander;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the route invokers against a direct call for a typical three-argument route
+ * ({@code /eco pay <player> <amount>} shaped: a reference, a boxed primitive and a BigDecimal).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteInvokerBenchmark {
+
+    public static class Handler {
+        private long sink;
+
+        public void pay(String player, int times, BigDecimal amount) {
+            sink += player.length() + times + amount.signum();
+        }
+    }
+
+    private Handler handler;
+    private Object[] args;
+    private RouteInvoker reflective;
+    private RouteInvoker handle;
+    private RouteInvoker compiled;
+
+    @Setup
+    public void setup() throws Exception {
+        handler = new Handler();
+        args = new Object[] {"Notch", 3, BigDecimal.TEN};
+
+        Method method = Handler.class.getDeclaredMethod("pay", String.class, int.class, BigDecimal.class);
+        reflective = RouteInvokers.reflective(method);
+        handle = RouteInvokers.methodHandle(method);
+        compiled = RouteInvokers.compile(method);
+    }
+
+    @Benchmark
+    public void direct() {
+        handler.pay((String) args[0], (Integer) args[1], (BigDecimal) args[2]);
+    }
+
+    @Benchmark
+    public Object reflective() throws Throwable {
+        return reflective.invoke(handler, args);
+    }
+
+    @Benchmark
+    public Object methodHandle() throws Throwable {
+        return handle.invoke(handler, args);
+    }
+
+    @Benchmark
+    public Object compiled() throws Throwable {
+        return compiled.invoke(handler, args);
+    }
+}
@@ -0,0 +1,64 @@
+package io.paradaux.hibernia.framework.commander;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compiles handler classes with a given number of routes, for benchmarking tree building and
+ * dispatch at sizes no hand-written handler reaches.
+ *
+ * <p>Route {@code i} is {@code /bench group<i/10> route<i> <player> <amount>}, so every ten
+ * routes share a group literal, as sub-commands of a large admin command do.</p>
+ */
+final class SyntheticHandlers {
+
+    static final int GROUP_SIZE = 10;
+
+    private SyntheticHandlers() {}
+
+    static String input(int route, String player) {
+        return "group" + (route / GROUP_SIZE) + " route" + route + " " + player + " " + route;
+    }
+
+    static Class<?> generate(int routes) throws IOException, ClassNotFoundException {
+        String name = "SyntheticHandler" + routes;
+        StringBuilder src = new StringBuilder()
+                .append("package bench;\n\n")
+                .append("import io.paradaux.hibernia.framework.commander.annotations.*;\n")
+                .append("import io.paradaux.hibernia.framework.commander.spi.CommandHandler;\n")
+                .append("import org.bukkit.command.CommandSender;\n\n")
+                .append("@Command(\"bench\")\n")
+                .append("public class ").append(name).append(" implements CommandHandler {\n")
+                .append("    public long sink;\n");
+        for (int i = 0; i < routes; i++) {
+            src.append("\n    @Route(\"group").append(i / GROUP_SIZE).append(" route").append(i).append(" <player> <amount>\")\n")
+                    .append("    public void route").append(i)
+                    .append("(@Sender CommandSender sender, @Arg(\"player\") String player, @Arg(\"amount\") int amount) {\n")
+                    .append("        sink += player.length() + amount;\n")
+                    .append("    }\n");
+        }
+        src.append("}\n");
+
+        Path dir = Files.createTempDirectory("hibernia-bench");
+        Path file = Files.createDirectories(dir.resolve("bench")).resolve(name + ".java");
+        Files.writeString(file, src);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Benchmarks must run on a JDK to compile synthetic handlers");
+        }
+        int status = compiler.run(null, null, null, "-proc:none", "-d", dir.toString(),
+                "-cp", System.getProperty("java.class.path"), file.toString());
+        if (status != 0) {
+            throw new IllegalStateException("Could not compile " + file);
+        }
+
+        URLClassLoader loader = new URLClassLoader(new URL[] {dir.toUri().toURL()}, SyntheticHandlers.class.getClassLoader());
+        return loader.loadClass("bench." + name);
+    }
+}
@@ -0,0 +1,114 @@
+package io.paradaux.hibernia.framework.configurator;
+
+import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares loading a data-style configuration file (a shop list of 1,000 to 10,000 entries)
+ * cold, by parsing the YAML as the loader does on a snapshot miss, with loading it warm from
+ * its {@link SnapshotCache} snapshot, including hashing the file to find the snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigSnapshotBenchmark {
+
+    private static final String FILE = "shops.yml";
+    private static final List<String> PATHS = List.of("settings.currency", "shops");
+
+    @Param({"1000", "10000"})
+    public int entries;
+
+    private Path directory;
+    private SnapshotCache cache;
+    private String yaml;
+    private byte[] yamlBytes;
+    private byte[] key;
+
+    @Setup
+    public void setup() throws IOException, InvalidConfigurationException {
+        yaml = shops(entries);
+        yamlBytes = yaml.getBytes(StandardCharsets.UTF_8);
+        key = SnapshotCache.key(yamlBytes, null, PATHS);
+
+        directory = Files.createTempDirectory("hibernia-snapshots");
+        cache = new SnapshotCache(directory);
+        cache.write(FILE, key, parseYaml(), PATHS);
+        if (cache.read(FILE, key) == null) {
+            throw new IllegalStateException("Snapshot was not written");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /** Cold start: parse the YAML. */
+    @Benchmark
+    public Configuration parseYaml() throws InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(yaml);
+        return config;
+    }
+
+    /** Warm start: hash the file, then map and decode its snapshot into a configuration. */
+    @Benchmark
+    public Configuration loadSnapshot() {
+        return cache.read(FILE, SnapshotCache.key(yamlBytes, null, PATHS));
+    }
+
+    /** The decode alone, without hashing or building the configuration. */
+    @Benchmark
+    public Map<String, Object> decodeSnapshot() {
+        return cache.readValues(FILE, key);
+    }
+
+    private static String shops(int count) {
+        StringBuilder yaml = new StringBuilder("settings:\n  currency: coins\nshops:\n");
+        for (int i = 0; i < count; i++) {
+            yaml.append("  shop-").append(i).append(":\n")
+                    .append("    name: \"Shop ").append(i).append("\"\n")
+                    .append("    owner: 00000000-0000-0000-0000-").append(String.format("%012d", i)).append('\n')
+                    .append("    price: ").append(i * 1.25).append('\n')
+                    .append("    stock: ").append(i % 64).append('\n')
+                    .append("    enabled: ").append(i % 7 != 0).append('\n')
+                    .append("    items:\n")
+                    .append("      - DIAMOND\n")
+                    .append("      - IRON_INGOT\n")
+                    .append("      - item: GOLD_INGOT\n")
+                    .append("        amount: ").append(1 + i % 16).append('\n');
+        }
+        return yaml.toString();
+    }
+}
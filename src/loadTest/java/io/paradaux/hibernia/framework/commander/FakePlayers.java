@@ -0,0 +1,91 @@
+package io.paradaux.hibernia.framework.commander;
+
+import io.paradaux.hibernia.framework.commander.spi.ParameterResolver;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stand-in online players: {@link Player} proxies with a name and UUID that hold every
+ * permission and count the messages sent to them, plus a resolver and prefix index over them
+ * like the framework's own player resolver.
+ */
+final class FakePlayers implements ParameterResolver<Player> {
+
+    private final List<Player> players = new ArrayList<>();
+    private final ConcurrentSkipListMap<String, Player> byName = new ConcurrentSkipListMap<>();
+    private final LongAdder messages = new LongAdder();
+
+    FakePlayers(int count) {
+        String[] stems = {"alex", "blaze", "creeper", "dragon", "ender", "frost", "ghast", "herobrine", "illager", "jockey"};
+        for (int i = 0; i < count; i++) {
+            Player player = create(stems[i % stems.length] + i, new UUID(0x4c6f6164L, i));
+            players.add(player);
+            byName.put(player.getName().toLowerCase(Locale.ROOT), player);
+        }
+    }
+
+    Player get(int index) {
+        return players.get(index);
+    }
+
+    int size() {
+        return players.size();
+    }
+
+    long messagesSent() {
+        return messages.sum();
+    }
+
+    public Class<Player> type() {
+        return Player.class;
+    }
+
+    public Optional<Player> resolve(String token, CommandSender sender) {
+        return Optional.ofNullable(byName.get(token.toLowerCase(Locale.ROOT)));
+    }
+
+    public List<String> suggestions(String prefix, CommandSender sender) {
+        String from = prefix.toLowerCase(Locale.ROOT);
+        List<String> names = new ArrayList<>(16);
+        for (Player player : byName.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+            if (names.size() == 20) break;
+            names.add(player.getName());
+        }
+        return names;
+    }
+
+    private Player create(String name, UUID id) {
+        return (Player) Proxy.newProxyInstance(FakePlayers.class.getClassLoader(), new Class<?>[] {Player.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getName" -> name;
+                    case "getUniqueId" -> id;
+                    case "hasPermission", "isPermissionSet", "isOnline", "isOp" -> true;
+                    case "sendMessage", "sendRichMessage", "sendPlainMessage" -> {
+                        messages.increment();
+                        yield null;
+                    }
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> id.hashCode();
+                    case "toString" -> "FakePlayer[" + name + "]";
+                    default -> defaultValue(method.getReturnType());
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0d;
+        if (type == float.class) return 0f;
+        return null;
+    }
+}
@@ -0,0 +1,62 @@
+package io.paradaux.hibernia.framework.commander;
+
+import io.paradaux.hibernia.framework.commander.annotations.Arg;
+import io.paradaux.hibernia.framework.commander.annotations.Async;
+import io.paradaux.hibernia.framework.commander.annotations.Command;
+import io.paradaux.hibernia.framework.commander.annotations.Range;
+import io.paradaux.hibernia.framework.commander.annotations.RateLimit;
+import io.paradaux.hibernia.framework.commander.annotations.Route;
+import io.paradaux.hibernia.framework.commander.annotations.Sender;
+import io.paradaux.hibernia.framework.commander.spi.CommandHandler;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The routes the load test drives, one per kind of traffic: a cheap main-thread read, a
+ * rate-limited main-thread write, an {@link Async} route blocking on simulated I/O, and a route
+ * returning a stage completed by simulated non-blocking I/O.
+ */
+@Command("load")
+public class LoadHandler implements CommandHandler {
+
+    private final Map<UUID, Long> balances = new ConcurrentHashMap<>();
+    private final long ioMillis;
+    private final Executor io;
+
+    LoadHandler(long ioMillis) {
+        this.ioMillis = ioMillis;
+        this.io = CompletableFuture.delayedExecutor(ioMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Route("balance <player>")
+    public void balance(@Sender Player sender, @Arg("player") Player target) {
+        sender.sendMessage("§aBalance of " + target.getName() + ": " + balances.getOrDefault(target.getUniqueId(), 0L));
+    }
+
+    @Route("pay <player> <amount>")
+    @RateLimit(permits = 5)
+    public void pay(@Sender Player sender, @Arg("player") Player target,
+                    @Arg("amount") @Range(min = 1, max = 1_000_000) int amount) {
+        balances.merge(target.getUniqueId(), (long) amount, Long::sum);
+        sender.sendMessage("§aPaid " + amount + " to " + target.getName());
+    }
+
+    @Route("history <player>")
+    @Async(maxConcurrent = 64, maxConcurrentPerSender = 2, queueLimit = 4096)
+    public CompletionStage<String> history(@Sender Player sender, @Arg("player") Player target) throws InterruptedException {
+        Thread.sleep(ioMillis); // a blocking database read
+        return CompletableFuture.completedFuture("§7" + target.getName() + " has no recent transactions");
+    }
+
+    @Route("seen <player>")
+    public CompletionStage<String> seen(@Sender Player sender, @Arg("player") Player target) {
+        return CompletableFuture.supplyAsync(() -> "§7" + target.getName() + " was last seen today", io);
+    }
+}
@@ -0,0 +1,280 @@
+package io.paradaux.hibernia.framework.commander;
+
+import org.bukkit.entity.Player;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Soak test for the commander: thousands of simulated players send a mix of main-thread
+ * commands, {@link io.paradaux.hibernia.framework.commander.annotations.Async @Async} and
+ * CompletionStage commands and tab completions through a {@link DefaultRouteDispatcher}, with
+ * the main thread simulated by a {@link ServerThread}.
+ *
+ * <p>Traffic is open-loop: commands are issued on a fixed schedule whether or not earlier
+ * ones have finished, and latency is measured from the scheduled time, so a stalled main
+ * thread shows up in the tail instead of slowing the load down.</p>
+ *
+ * <p>Reports throughput, latency percentiles, per-route metrics, the allocation rate and
+ * every tick whose main-thread work exceeded the budget. Exits with status 2 if any did.</p>
+ *
+ * <pre>
+ * ./gradlew loadTest -PloadTestArgs="--players 2000 --seconds 60 --rate 1"
+ * </pre>
+ */
+public final class LoadTest {
+
+    // Traffic mix, in percent
+    private static final int BALANCE = 40;
+    private static final int PAY = 20;
+    private static final int HISTORY = 10;
+    private static final int SEEN = 10;
+
+    private final Options options;
+    private final ServerThread server;
+    private final FakePlayers players;
+    private final DefaultRouteDispatcher dispatcher;
+    private final ExecutorService asyncPool;
+    private final RouteTree tree = new RouteTree("load");
+    private final BoundRoute.Param playerParam;
+
+    private final LatencyHistogram commandLatency = new LatencyHistogram();
+    private final LatencyHistogram completionLatency = new LatencyHistogram();
+    private final LongAdder commands = new LongAdder();
+    private final LongAdder completions = new LongAdder();
+    private final LongAdder unmatched = new LongAdder();
+
+    private volatile boolean generating = true;
+
+    private LoadTest(Options options) {
+        this.options = options;
+        this.server = new ServerThread(TimeUnit.MILLISECONDS.toNanos(options.tickBudgetMs));
+        this.players = new FakePlayers(options.players);
+        this.dispatcher = new DefaultRouteDispatcher(Set.of(players), server, () -> players.get(0), "load",
+                () -> { throw new IllegalStateException("No messages in the load test"); });
+        // A platform pool rather than virtual threads, so its allocations are counted
+        this.asyncPool = Executors.newFixedThreadPool(options.asyncThreads);
+        dispatcher.setAsyncExecutor(asyncPool);
+
+        LoadHandler handler = new LoadHandler(options.ioMillis);
+        List<BoundRoute> routes = dispatcher.bind(LoadHandler.class, () -> handler);
+        routes.forEach(tree::insert);
+        this.playerParam = routes.get(0).params().get(1);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        LoadTest test = new LoadTest(options);
+        boolean clean = test.run();
+        System.exit(clean ? 0 : 2);
+    }
+
+    private boolean run() throws Exception {
+        System.out.printf("Simulating %d players at %.2f commands/s each for %ds after %ds warm-up (%d generator threads)%n",
+                options.players, options.rate, options.seconds, options.warmupSeconds, options.generators);
+
+        server.start();
+        List<Thread> generators = new ArrayList<>();
+        for (int i = 0; i < options.generators; i++) {
+            Thread generator = new Thread(this::generate, "Load generator " + i);
+            generators.add(generator);
+            generator.start();
+        }
+
+        // Leave class loading and JIT compilation out of the results
+        Thread.sleep(TimeUnit.SECONDS.toMillis(options.warmupSeconds));
+        resetStats();
+        long allocatedBefore = allocatedBytes();
+        long gcBefore = gcMillis();
+        long start = System.nanoTime();
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(options.seconds));
+        generating = false;
+        for (Thread generator : generators) generator.join();
+
+        // Let queued and in-flight work finish, including stages still waiting on simulated I/O
+        Thread.sleep(2 * options.ioMillis);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while ((!server.idle() || inFlight()) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        server.stop();
+        asyncPool.shutdown();
+        asyncPool.awaitTermination(10, TimeUnit.SECONDS);
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long allocated = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+        long gc = gcMillis() - gcBefore;
+        return report(seconds, allocated, gc);
+    }
+
+    /**
+     * Issue this generator's share of the traffic on a fixed schedule, each command to the
+     * main thread and each completion on this thread, as the server's network threads do.
+     */
+    private void generate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long interval = (long) (1e9 * options.generators / (options.players * options.rate));
+        long next = System.nanoTime();
+
+        while (generating) {
+            long scheduled = next;
+            next += interval;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            Player sender = players.get(random.nextInt(players.size()));
+            String target = players.get(random.nextInt(players.size())).getName();
+            int kind = random.nextInt(100);
+
+            if (kind < BALANCE) {
+                command(sender, "balance " + target, scheduled);
+            } else if (kind < BALANCE + PAY) {
+                command(sender, "pay " + target + " " + (1 + random.nextInt(1000)), scheduled);
+            } else if (kind < BALANCE + PAY + HISTORY) {
+                command(sender, "history " + target, scheduled);
+            } else if (kind < BALANCE + PAY + HISTORY + SEEN) {
+                command(sender, "seen " + target, scheduled);
+            } else {
+                String prefix = target.substring(0, 1 + random.nextInt(Math.min(4, target.length())));
+                dispatcher.suggest(playerParam, prefix, sender).join();
+                completionLatency.record(System.nanoTime() - scheduled);
+                completions.increment();
+            }
+        }
+    }
+
+    /** Queue a command for the main thread; its latency runs until the main thread is done with it. */
+    private void command(Player sender, String input, long scheduled) {
+        server.execute(() -> {
+            RouteTree.Match match = tree.match(input);
+            if (match == null) {
+                unmatched.increment();
+                return;
+            }
+            dispatcher.execute(match.route(), sender, match.arguments());
+            commandLatency.record(System.nanoTime() - scheduled);
+            commands.increment();
+        });
+    }
+
+    private void resetStats() {
+        commandLatency.reset();
+        completionLatency.reset();
+        commands.reset();
+        completions.reset();
+        unmatched.reset();
+        dispatcher.getRouteMetrics().forEach(RouteMetrics::reset);
+        server.reset();
+    }
+
+    private boolean inFlight() {
+        for (AsyncRouteStats stats : dispatcher.getAsyncRouteStats()) {
+            if (stats.active() > 0 || stats.queued() > 0) return true;
+        }
+        return false;
+    }
+
+    private boolean report(double seconds, long allocated, long gcMillis) {
+        System.out.println();
+        System.out.printf("Ran %.1fs: %d commands (%.0f/s), %d completions (%.0f/s), %d unmatched%n",
+                seconds, commands.sum(), commands.sum() / seconds, completions.sum(), completions.sum() / seconds,
+                unmatched.sum());
+        System.out.println(latency("Command, issue to main thread done", commandLatency.snapshot()));
+        System.out.println(latency("Completion, issue to suggestions", completionLatency.snapshot()));
+
+        System.out.println();
+        System.out.println("Routes (dispatch to completion):");
+        for (RouteMetrics metrics : dispatcher.getRouteMetrics()) {
+            System.out.printf("  %-32s %8d runs %6d failed  %s%n", metrics.route(), metrics.invocations(),
+                    metrics.failures(), latency("", metrics.totalTime()).trim());
+            if (!metrics.failuresByType().isEmpty()) {
+                System.out.println("    failures: " + metrics.failuresByType());
+            }
+        }
+
+        System.out.println();
+        System.out.printf("Messages sent to players: %d%n", players.messagesSent());
+        if (allocated >= 0) {
+            System.out.printf("Allocation: %.1f MB/s across platform threads; GC time %d ms%n",
+                    allocated / seconds / (1 << 20), gcMillis);
+        } else {
+            System.out.printf("Allocation: not measurable on this JVM; GC time %d ms%n", gcMillis);
+        }
+
+        LatencyHistogram.Snapshot ticks = server.tickWork();
+        System.out.println();
+        System.out.printf("Main thread: %d ticks, work p50 %.2f ms, p99 %.2f ms, max %.2f ms (budget %d ms)%n",
+                server.ticks(), ticks.p50Nanos() / 1e6, ticks.p99Nanos() / 1e6, ticks.maxNanos() / 1e6,
+                options.tickBudgetMs);
+        if (server.overruns() == 0) {
+            System.out.println("No tick exceeded the budget.");
+            return true;
+        }
+        System.out.printf("%d ticks exceeded the budget:%n", server.overruns());
+        server.overrunLog().forEach(line -> System.out.println("  " + line));
+        return false;
+    }
+
+    private static String latency(String label, LatencyHistogram.Snapshot s) {
+        return String.format("%-40s p50 %8.3f ms  p90 %8.3f ms  p99 %8.3f ms  max %8.3f ms", label,
+                s.p50Nanos() / 1e6, s.p90Nanos() / 1e6, s.p99Nanos() / 1e6, s.maxNanos() / 1e6);
+    }
+
+    /** Bytes allocated by all platform threads so far, or -1 if the JVM can't tell. */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            return threads.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    private record Options(int players, double rate, int seconds, int warmupSeconds, int generators,
+                           int asyncThreads, long ioMillis, long tickBudgetMs) {
+
+        static Options parse(String[] args) {
+            int players = 2000;
+            double rate = 0.5;
+            int seconds = 30;
+            int warmupSeconds = 10;
+            int generators = 4;
+            int asyncThreads = 32;
+            long ioMillis = 5;
+            long tickBudgetMs = 10;
+
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--players" -> players = Integer.parseInt(value);
+                    case "--rate" -> rate = Double.parseDouble(value);
+                    case "--seconds" -> seconds = Integer.parseInt(value);
+                    case "--warmup-seconds" -> warmupSeconds = Integer.parseInt(value);
+                    case "--generators" -> generators = Integer.parseInt(value);
+                    case "--async-threads" -> asyncThreads = Integer.parseInt(value);
+                    case "--io-ms" -> ioMillis = Long.parseLong(value);
+                    case "--tick-budget-ms" -> tickBudgetMs = Long.parseLong(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            return new Options(players, rate, seconds, warmupSeconds, generators, asyncThreads, ioMillis, tickBudgetMs);
+        }
+    }
+}
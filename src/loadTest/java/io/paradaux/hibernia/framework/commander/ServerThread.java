@@ -0,0 +1,126 @@
+package io.paradaux.hibernia.framework.commander;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A simulated server main thread ticking every 50 ms. Each tick runs everything submitted
+ * since the last one, as the server handles the commands players sent during the tick, and
+ * records how long that took against the tick budget.
+ */
+final class ServerThread implements Executor {
+
+    private static final long TICK_NANOS = 50_000_000L;
+    private static final int LOGGED_OVERRUNS = 20;
+
+    private final long budgetNanos;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final LatencyHistogram tickWork = new LatencyHistogram();
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong overruns = new AtomicLong();
+    private final List<String> overrunLog = new ArrayList<>();
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private volatile long started = System.nanoTime();
+
+    ServerThread(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+        this.thread = new Thread(this::run, "Server thread");
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /** Run the task on the main thread: now if already on it, otherwise next tick. */
+    @Override
+    public void execute(Runnable task) {
+        if (Thread.currentThread() == thread) {
+            task.run();
+        } else {
+            tasks.add(task);
+        }
+    }
+
+    /** Stop ticking once no tasks are left. */
+    void stop() throws InterruptedException {
+        running = false;
+        thread.join();
+    }
+
+    boolean idle() {
+        return tasks.isEmpty();
+    }
+
+    /** Forget the ticks so far, e.g. after warm-up. */
+    void reset() {
+        tickWork.reset();
+        overruns.set(0);
+        synchronized (overrunLog) {
+            overrunLog.clear();
+        }
+        started = System.nanoTime();
+        ticks.set(0);
+    }
+
+    LatencyHistogram.Snapshot tickWork() {
+        return tickWork.snapshot();
+    }
+
+    long ticks() {
+        return ticks.get();
+    }
+
+    long overruns() {
+        return overruns.get();
+    }
+
+    /** The first overruns, with the tick they happened in and how long its work took. */
+    List<String> overrunLog() {
+        synchronized (overrunLog) {
+            return List.copyOf(overrunLog);
+        }
+    }
+
+    private void run() {
+        long nextTick = System.nanoTime();
+        while (running || !tasks.isEmpty()) {
+            long start = System.nanoTime();
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    System.err.println("Main thread task failed: " + t);
+                }
+            }
+            long work = System.nanoTime() - start;
+            tickWork.record(work);
+            long tick = ticks.incrementAndGet();
+
+            if (work > budgetNanos) {
+                overruns.incrementAndGet();
+                synchronized (overrunLog) {
+                    if (overrunLog.size() < LOGGED_OVERRUNS) {
+                        overrunLog.add(String.format("tick %d at %.1fs: %.2f ms", tick,
+                                (start - started) / 1e9, work / 1e6));
+                    }
+                }
+            }
+
+            nextTick += TICK_NANOS;
+            long sleep = nextTick - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(sleep);
+            } else {
+                nextTick = System.nanoTime(); // behind; don't try to catch up
+            }
+        }
+    }
+}
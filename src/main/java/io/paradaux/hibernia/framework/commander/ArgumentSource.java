@@ -0,0 +1,19 @@
+package io.paradaux.hibernia.framework.commander;
+
+/**
+ * The arguments of one command execution, by placeholder name, as parsed by the platform.
+ *
+ * <p>A value is either already converted to the parameter type, as Brigadier does for numeric,
+ * boolean, UUID and enum arguments, or the String the sender typed, which the
+ * {@link RouteDispatcher} resolves.</p>
+ */
+@FunctionalInterface
+public interface ArgumentSource {
+
+    /**
+     * @param name the placeholder name
+     * @return the parsed value or token
+     * @throws IllegalArgumentException if the argument was not given
+     */
+    Object get(String name);
+}
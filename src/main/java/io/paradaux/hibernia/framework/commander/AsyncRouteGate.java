@@ -0,0 +1,168 @@
+package io.paradaux.hibernia.framework.commander;
+
+import io.paradaux.hibernia.framework.commander.annotations.Async;
+import io.paradaux.hibernia.framework.commander.spi.GeneratedRoute.AsyncSettings;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for a single {@link Async} route.
+ *
+ * <p>Tracks running executions with a CAS-guarded counter and parks overflow in a lock-free
+ * queue, which is drained whenever an execution finishes. Per-sender limits are counted in a
+ * map keyed by sender (updated atomically per key), whose entries are removed again once a
+ * sender has nothing in flight.</p>
+ */
+final class AsyncRouteGate {
+
+    private final String route;
+    private final Executor executor;
+    private final int maxConcurrent;
+    private final int maxPerSender;
+    private final int queueLimit;
+    private final String rejectMessage;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Queue<Queued> queue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<Object, AtomicInteger> perSender = new ConcurrentHashMap<>();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    AsyncRouteGate(String route, AsyncSettings async, Executor executor) {
+        this.route = route;
+        this.executor = executor;
+        this.maxConcurrent = async.maxConcurrent();
+        this.maxPerSender = async.maxConcurrentPerSender();
+        this.queueLimit = async.queueLimit();
+        this.rejectMessage = async.rejectMessage();
+    }
+
+    /**
+     * Run the task now, queue it, or reject it.
+     *
+     * <p>The execution keeps its slot until the future returned by the task completes, so
+     * routes returning a {@link java.util.concurrent.CompletionStage} count against the limits
+     * for as long as their work is outstanding, without holding a thread.</p>
+     *
+     * @param senderKey identity of the sender, for per-sender limits
+     * @param task the execution, returning a future that completes when the execution is done
+     * @param onRejected called if the task was queued and the executor then rejects it, on the
+     *        thread that dequeued it; not called when this method returns false
+     * @return false if the task was rejected
+     */
+    boolean submit(Object senderKey, Supplier<CompletableFuture<?>> task, Runnable onRejected) {
+        if (!acquireSender(senderKey)) {
+            rejected.increment();
+            return false;
+        }
+
+        Runnable wrapped = () -> {
+            CompletableFuture<?> done;
+            try {
+                done = task.get();
+            } catch (Throwable t) {
+                done = CompletableFuture.failedFuture(t);
+            }
+            done.whenComplete((result, error) -> {
+                releaseSender(senderKey);
+                completed.increment();
+                active.decrementAndGet();
+                drain();
+            });
+        };
+
+        if (tryAcquire()) {
+            return dispatch(wrapped, senderKey);
+        }
+
+        if (queued.incrementAndGet() > queueLimit && queueLimit >= 0) {
+            queued.decrementAndGet();
+            releaseSender(senderKey);
+            rejected.increment();
+            return false;
+        }
+        queue.add(new Queued(senderKey, wrapped, onRejected));
+        // A slot may have been freed between tryAcquire and add
+        drain();
+        return true;
+    }
+
+    String rejectMessage() {
+        return rejectMessage;
+    }
+
+    AsyncRouteStats stats() {
+        return new AsyncRouteStats(route, active.get(), queued.get(), completed.sum(), rejected.sum());
+    }
+
+    private void drain() {
+        while (!queue.isEmpty() && tryAcquire()) {
+            Queued next = queue.poll();
+            if (next == null) {
+                active.decrementAndGet();
+                return;
+            }
+            queued.decrementAndGet();
+            if (!dispatch(next.task(), next.senderKey())) {
+                // The sender was told it was accepted, so it must hear otherwise
+                next.onRejected().run();
+            }
+        }
+    }
+
+    private boolean dispatch(Runnable task, Object senderKey) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Executor shut down: undo the admission
+            active.decrementAndGet();
+            releaseSender(senderKey);
+            rejected.increment();
+            return false;
+        }
+    }
+
+    private boolean tryAcquire() {
+        if (maxConcurrent <= 0) {
+            active.incrementAndGet();
+            return true;
+        }
+        while (true) {
+            int current = active.get();
+            if (current >= maxConcurrent) return false;
+            if (active.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    private boolean acquireSender(Object senderKey) {
+        if (maxPerSender <= 0) return true;
+        boolean[] admitted = new boolean[1];
+        perSender.compute(senderKey, (k, count) -> {
+            if (count == null) count = new AtomicInteger();
+            if (count.get() < maxPerSender) {
+                count.incrementAndGet();
+                admitted[0] = true;
+            }
+            return count.get() == 0 ? null : count;
+        });
+        return admitted[0];
+    }
+
+    private void releaseSender(Object senderKey) {
+        if (maxPerSender <= 0) return;
+        perSender.computeIfPresent(senderKey, (k, count) -> count.decrementAndGet() <= 0 ? null : count);
+    }
+
+    /** A parked execution, with the sender whose slot it holds and how to tell them it was dropped. */
+    private record Queued(Object senderKey, Runnable task, Runnable onRejected) {}
+}
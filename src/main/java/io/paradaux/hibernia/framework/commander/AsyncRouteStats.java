@@ -0,0 +1,13 @@
+package io.paradaux.hibernia.framework.commander;
+
+/**
+ * Point-in-time view of an {@link io.paradaux.hibernia.framework.commander.annotations.Async @Async}
+ * route's execution queue.
+ *
+ * @param route the route label, e.g. {@code "eco pay <player> <amount>"}
+ * @param active executions currently running
+ * @param queued executions waiting for a free slot
+ * @param completed executions finished since startup
+ * @param rejected executions refused because a limit was reached
+ */
+public record AsyncRouteStats(String route, int active, int queued, long completed, long rejected) {}
@@ -0,0 +1,129 @@
+package io.paradaux.hibernia.framework.commander;
+
+import io.paradaux.hibernia.framework.commander.spi.AsyncParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.BulkParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.ParameterResolver;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * A route method bound by a {@link RouteDispatcher}: its path, parameters and everything
+ * needed to run it, computed once when the handler is bound.
+ */
+public final class BoundRoute {
+    /** The handler; memoized for lazily registered handlers. */
+    final Supplier<?> instance;
+    final String label;
+    final Key key;
+    final RouteInvoker invoker;
+    final List<Segment> path;
+    final List<Param> params;
+    final Slot[] slots;
+    final int asyncSlots;
+    final String permission;
+    final String description;
+    final AsyncRouteGate gate;
+    final long timeoutMs;
+    final RouteLimiter[] limiters;
+    final RouteMetrics metrics;
+
+    /** Looked up on first use, since routes bound from a generated table are bound without reflection. */
+    private volatile Method method;
+
+    BoundRoute(Supplier<?> instance, String label, Key key, Method method, RouteInvoker invoker, List<Segment> path,
+               List<Param> params, Slot[] slots, String permission, String description, AsyncRouteGate gate,
+               long timeoutMs, RouteLimiter[] limiters, RouteMetrics metrics) {
+        this.instance = instance;
+        this.label = label;
+        this.key = key;
+        this.method = method;
+        this.path = path;
+        this.params = params;
+        this.slots = slots;
+        this.asyncSlots = (int) Arrays.stream(slots).filter(s -> s.asyncResolver != null).count();
+        this.permission = permission;
+        this.description = description;
+        this.gate = gate;
+        this.limiters = limiters;
+        this.metrics = metrics;
+        this.timeoutMs = timeoutMs;
+        this.invoker = invoker;
+    }
+
+    /** The root label and route, e.g. {@code "eco pay <player> <amount>"}. */
+    public String label() {
+        return label;
+    }
+
+    public Method method() {
+        Method m = method;
+        if (m == null) {
+            try {
+                m = key.handler().getDeclaredMethod(key.method(), key.parameterTypes().toArray(Class<?>[]::new));
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("Route method " + key + " no longer exists", e);
+            }
+            method = m;
+        }
+        return m;
+    }
+
+    /** The route's literals and placeholders, after the root label. */
+    public List<Segment> path() {
+        return path;
+    }
+
+    /** One entry per method parameter, in declaration order. */
+    public List<Param> params() {
+        return params;
+    }
+
+    /** The permission required to run the route, or null. */
+    public String permission() {
+        return permission;
+    }
+
+    public String description() {
+        return description;
+    }
+
+    public record Segment(boolean literal, String token) {
+        static Segment literal(String s) {
+            return new Segment(true, s.toLowerCase(Locale.ROOT));
+        }
+        static Segment arg(String name) {
+            return new Segment(false, name);
+        }
+    }
+
+    /** A method parameter; {@code elementType} is set for collection parameters. */
+    public record Param(boolean sender, boolean optional, Class<?> type, Class<?> elementType, String name,
+                        Object defaultValue, double min, double max) {
+        static Param sender(Class<?> t) { return new Param(true, false, t, null, "", null, 0, 0); }
+        static Param required(Class<?> t, Class<?> e, String n, double min, double max) { return new Param(false, false, t, e, n, null, min, max); }
+        static Param optional(Class<?> t, Class<?> e, String n, Object def, double min, double max) { return new Param(false, true, t, e, n, def, min, max); }
+    }
+
+    @Override
+    public String toString() {
+        return key.toString();
+    }
+
+    /** Identifies a route method across bindings of its handler, without reflection. */
+    record Key(Class<?> handler, String method, List<Class<?>> parameterTypes) {
+        @Override
+        public String toString() {
+            return handler.getName() + "." + method + parameterTypes.stream()
+                    .map(Class::getSimpleName).collect(Collectors.joining(", ", "(", ")"));
+        }
+    }
+
+    record Slot(Param param, String argName, boolean nativeValue, ParameterResolver<Object> resolver,
+                AsyncParameterResolver<Object> asyncResolver, BulkParameterResolver<Object> bulkResolver,
+                Object defaultValue) {}
+}
@@ -1,61 +1,128 @@
 package io.paradaux.hibernia.framework.commander;
 
+import com.google.common.base.Suppliers;
+import com.google.common.primitives.Primitives;
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 import com.google.inject.Singleton;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.arguments.BoolArgumentType;
+import com.mojang.brigadier.arguments.DoubleArgumentType;
+import com.mojang.brigadier.arguments.FloatArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.LongArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.builder.RequiredArgumentBuilder;
-import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 import io.papermc.paper.command.brigadier.Commands;
+import io.papermc.paper.command.brigadier.argument.ArgumentTypes;
 import io.papermc.paper.plugin.lifecycle.event.LifecycleEventManager;
 import io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents;
+import io.paradaux.hibernia.framework.commander.BoundRoute.Param;
 import io.paradaux.hibernia.framework.commander.annotations.*;
-import io.paradaux.hibernia.framework.commander.resolvers.BigDecimalResolver;
-import io.paradaux.hibernia.framework.commander.resolvers.IntegerResolver;
-import io.paradaux.hibernia.framework.commander.resolvers.OfflinePlayerResolver;
-import io.paradaux.hibernia.framework.commander.resolvers.StringResolver;
+import io.paradaux.hibernia.framework.commander.arguments.BigDecimalArgumentType;
+import io.paradaux.hibernia.framework.commander.arguments.EnumArgumentType;
+import io.paradaux.hibernia.framework.commander.arguments.ListArgumentType;
+import io.paradaux.hibernia.framework.commander.resolvers.*;
+import io.paradaux.hibernia.framework.commander.spi.AsyncParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.BulkParameterResolver;
 import io.paradaux.hibernia.framework.commander.spi.CommandHandler;
 import io.paradaux.hibernia.framework.commander.spi.ParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.Resolution;
+import io.paradaux.hibernia.framework.exceptions.MessageKey;
+import io.paradaux.hibernia.framework.i18n.Message;
+import io.paradaux.hibernia.framework.players.PlayerIdentityCache;
+import io.paradaux.hibernia.framework.players.PlayerNameIndex;
+import io.paradaux.hibernia.framework.scheduling.MainThreadOutbox;
 import lombok.extern.slf4j.Slf4j;
-import org.bukkit.command.CommandSender;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
 import java.math.BigDecimal;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
  * Central manager for registering and dispatching plugin commands.
  *
  * <p>Responsibilities:
- * - Scans provided CommandHandler instances for @Command and @Route annotations,
- *   and builds a Brigadier command tree for Paper.
+ * - Scans provided CommandHandler instances for @Command and @Route annotations (or reads
+ *   the route table generated by {@code hibernia-framework-processor}, if present),
+ *   merges their routes into one trie per root and emits a Brigadier command tree
+ *   with a single node per distinct prefix.
  * - Binds method parameters annotated with @Arg, @OptionalArg and @Sender to
  *   command arguments and injects them at invocation time.
- * - Respects @Permission on classes or methods to gate execution.
- * - Supports asynchronous execution for methods annotated with @Async.</p>
+ * - Respects @Permission on classes or methods to gate execution and tree visibility,
+ *   caching each player's decisions while their tree is built (see {@link #updateCommands}).
+ * - Supports asynchronous execution for methods annotated with @Async.
+ * - Enforces @Cooldown and @RateLimit before arguments are resolved.
+ * - Records per-route counts, failures and latency histograms ({@link #getRouteMetrics()},
+ *   and an optional {@code metrics} command, see {@link #enableMetricsCommand}).
+ * - Builds the tree of handlers registered with {@link #registerLazy} from their class alone,
+ *   creating the instance when one of its routes is first run.</p>
  *
  * <p>Resolvers:
  * Parameter resolution and suggestions are delegated to registered {@link ParameterResolver}
- * implementations. Built-in resolvers for String, Integer, BigDecimal and OfflinePlayer are
- * registered by default; additional resolvers may be provided via dependency injection
- * into the constructor.</p>
+ * implementations. Built-in resolvers for String, the numeric types, Boolean, BigDecimal, UUID,
+ * Player and OfflinePlayer are registered by default; additional resolvers may be provided via
+ * dependency injection into the constructor. Resolvers implementing
+ * {@link AsyncParameterResolver} are resolved concurrently, and the route is invoked once all
+ * of its arguments are ready.</p>
+ *
+ * <p>Collections:
+ * {@code Collection}, {@code List} and {@code Set} parameters take one argument denoting many
+ * values, resolved by the {@link BulkParameterResolver} for the element type (see
+ * {@link #registerBulkResolver}), and the route is invoked once with the whole batch. Player
+ * collections accept names, {@code @a} and {@code #group} selectors, comma-separated; other
+ * element types accept comma-separated values. A collection argument takes the rest of the
+ * input, so it must be the last segment of its route.</p>
+ *
+ * <p>Typed arguments:
+ * Numeric, boolean, BigDecimal, UUID and enum parameters are parsed by native Brigadier
+ * argument types (bounded by {@link Range}), so the client validates them as they are typed
+ * and the value reaches the route without being re-parsed. A resolver injected for one of
+ * these types replaces the native argument with a string argument parsed by that resolver.</p>
+ *
+ * <p>Failures:
+ * Framework exceptions ({@link io.paradaux.hibernia.framework.exceptions.HiberniaException})
+ * are stackless and, like any type carrying a {@link MessageKey} or registered through
+ * {@link #mapException}, are reported to the sender through {@link Message} rather than logged.
+ * Resolvers may return a {@link Resolution} so that rejecting bad input allocates nothing.</p>
+ *
+ * <p>Suggestions:
+ * Tab completions come from the argument's resolver. Resolvers that opt in through
+ * {@link ParameterResolver#suggestionCaching()} are served from a TTL cache keyed by prefix
+ * (and optionally sender), with misses computed off the main thread.</p>
  *
  * <p>Lifecycle:
  * The manager registers commands during the Paper COMMANDS lifecycle event using the plugin
  * lifecycle manager. Registered commands use Brigadier argument builders and suggestion
  * providers driven by resolvers.</p>
  *
+ * <p>Dispatch:
+ * Binding, argument resolution and invocation live in a server-agnostic
+ * {@link DefaultRouteDispatcher}; this class adapts it to Paper, emitting each
+ * {@link RouteTree} as a Brigadier tree whose executors hand the parsed arguments to it.</p>
+ *
  * <p>Threading:
- * Commands annotated with {@link Async} are dispatched asynchronously; sender messages and
- * other Bukkit main-thread operations are scheduled back onto the main thread where necessary.</p>
+ * Commands annotated with {@link Async} are dispatched on the async executor (virtual threads
+ * unless {@link #setAsyncExecutor(Executor)} is used), subject to the route's concurrency and
+ * queue limits; sender messages and other Bukkit main-thread operations are handed back to
+ * the main thread through the {@link MainThreadOutbox}, batched per tick.</p>
+ *
+ * <p>Route methods may return a {@link CompletionStage}; the manager composes on it rather than
+ * blocking, applies the {@link Async#timeoutMs()} of async routes, cancels it if the sending
+ * player quits, and delivers a String/Component result or failure on the main thread.</p>
  *
  * <p>Example usage:
  * <pre>
@@ -74,10 +141,15 @@ public class CommandManager {
 
     private static final String PLACEHOLDER_PREFIX = "<";
     private static final String PLACEHOLDER_SUFFIX = ">";
+    private static final long LIMIT_SWEEP_TICKS = 20L * 60;
 
     private final JavaPlugin plugin;
-    private final Set<CommandHandler> handlers;
-    private final Map<Class<?>, ParameterResolver<?>> resolvers = new ConcurrentHashMap<>();
+    private final MainThreadOutbox outbox;
+    private final DefaultRouteDispatcher dispatcher;
+    private final Map<Class<?>, Supplier<?>> handlers = new LinkedHashMap<>();
+
+    private String metricsLabel;
+    private String metricsPermission;
 
     /**
      * Create a CommandManager.
@@ -85,373 +157,317 @@ public class CommandManager {
      * @param plugin the JavaPlugin instance used for scheduling and lifecycle
      * @param handlers the set of discovered CommandHandler instances to register
      * @param resolverSet additional ParameterResolver implementations to register
+     * @param playerNames the shared online player name index, used by the player resolvers
+     * @param identities the name-to-UUID cache used to resolve players who are not online
+     * @param outbox the queue through which feedback and callbacks reach the main thread
+     * @param messages messages used for the feedback of mapped exceptions, created on first use
      */
     @Inject
-    public CommandManager(JavaPlugin plugin, Set<CommandHandler> handlers, Set<ParameterResolver<?>> resolverSet) {
+    public CommandManager(JavaPlugin plugin, Set<CommandHandler> handlers, Set<ParameterResolver<?>> resolverSet,
+                          PlayerNameIndex playerNames, PlayerIdentityCache identities, MainThreadOutbox outbox,
+                          Provider<Message> messages) {
         this.plugin = plugin;
-        this.handlers = handlers;
-        resolverSet.forEach(r -> resolvers.put(r.type(), r));
-        // Built-ins
-        registerResolver(new StringResolver());
-        registerResolver(new IntegerResolver());
-        registerResolver(new BigDecimalResolver());
-        registerResolver(new OfflinePlayerResolver());
+        this.outbox = outbox;
+        this.dispatcher = new DefaultRouteDispatcher(resolverSet, outbox::run,
+                () -> plugin.getServer().getConsoleSender(), plugin.getName(), messages);
+        handlers.forEach(handler -> this.handlers.put(handler.getClass(), Suppliers.ofInstance(handler)));
+        // Built-ins needing the server
+        dispatcher.registerDefaultResolver(new OfflinePlayerResolver(playerNames, identities));
+        dispatcher.registerDefaultResolver(new PlayerResolver(playerNames));
+        dispatcher.registerBulkResolver(new PlayerSelectorResolver<>(Player.class, playerNames, playerNames::getExact));
+        dispatcher.registerBulkResolver(new PlayerSelectorResolver<>(OfflinePlayer.class, playerNames,
+                name -> knownPlayer(playerNames, identities, name)));
+    }
+
+    /**
+     * Register the resolver for collection parameters of its element type, replacing any
+     * built-in one. Must be called before {@link #registerAll()}.
+     *
+     * @param resolver the bulk resolver
+     */
+    public void registerBulkResolver(BulkParameterResolver<?> resolver) {
+        dispatcher.registerBulkResolver(resolver);
+    }
+
+    /**
+     * A player by name without waiting on a profile lookup, for bulk arguments: online, known to
+     * the server, or already in the identity cache.
+     */
+    private static OfflinePlayer knownPlayer(PlayerNameIndex names, PlayerIdentityCache identities, String name) {
+        OfflinePlayer player = names.getExact(name);
+        if (player == null) player = Bukkit.getOfflinePlayerIfCached(name);
+        if (player == null) {
+            player = identities.getIfCached(name).map(identity -> Bukkit.getOfflinePlayer(identity.id())).orElse(null);
+        }
+        return player;
+    }
+
+    /**
+     * Register the built-in {@code /<label> metrics} command, which lists the routes with the most
+     * total execution time, and {@code /<label> metrics reset}. Not registered unless enabled,
+     * since the label would otherwise collide between plugins. Must be called before
+     * {@link #registerAll()}.
+     *
+     * @param label the root label, e.g. the plugin's name in lower case
+     * @param permission the permission required to run it
+     */
+    public void enableMetricsCommand(String label, String permission) {
+        this.metricsLabel = Objects.requireNonNull(label, "label");
+        this.metricsPermission = Objects.requireNonNull(permission, "permission");
+    }
+
+    /**
+     * Register a handler whose instance, and so its dependencies, is only created when one of
+     * its routes is first run, rather than when the plugin enables. Use for rarely run commands
+     * with expensive dependencies, and don't also bind the handler into the injected set.
+     * Must be called before {@link #registerAll()}.
+     *
+     * <p>The provider is called once, on the thread running that first route (the main thread
+     * unless the route is {@link Async}); if it throws, the route fails and the next use
+     * retries.</p>
+     *
+     * @param type the handler class, read for its routes without being instantiated
+     * @param provider supplies the instance, e.g. {@code injector.getProvider(type)}
+     */
+    public <T extends CommandHandler> void registerLazy(Class<T> type, Provider<? extends T> provider) {
+        if (handlers.containsKey(type)) {
+            log.warn("Handler {} is already registered; ignoring the lazy registration", type.getName());
+            return;
+        }
+        handlers.put(type, Suppliers.memoize(provider::get));
     }
 
     /**
      * Register all commands discovered from injected CommandHandler instances.
      *
      * <p>This method hooks into the Paper lifecycle {@code COMMANDS} event and registers
-     * all built Brigadier root literals returned from classes annotated with {@link Command}.</p>
+     * all built Brigadier root literals returned from classes annotated with {@link Command}.
+     * It also starts the {@link MainThreadOutbox}, through which command feedback is sent.</p>
      */
     public void registerAll() {
         LifecycleEventManager<Plugin> manager = plugin.getLifecycleManager();
+        outbox.start();
+        plugin.getServer().getPluginManager().registerEvents(dispatcher.inFlight(), plugin);
+        plugin.getServer().getPluginManager().registerEvents(dispatcher.permissionCache(), plugin);
+        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, dispatcher::expireLimits,
+                LIMIT_SWEEP_TICKS, LIMIT_SWEEP_TICKS);
+
         manager.registerEventHandler(LifecycleEvents.COMMANDS, event -> {
             final Commands commands = event.registrar();
 
-            Map<String, LiteralArgumentBuilder<CommandSourceStack>> roots = new LinkedHashMap<>();
+            // One trie per root label, shared by every handler registering under it
+            Map<String, RouteTree> roots = new LinkedHashMap<>();
 
-            for (CommandHandler handler : handlers) {
-                Class<?> clazz = handler.getClass();
+            for (Map.Entry<Class<?>, Supplier<?>> handler : handlers.entrySet()) {
+                Class<?> clazz = handler.getKey();
                 Command cmdAnn = clazz.getAnnotation(Command.class);
                 if (cmdAnn == null) continue;
 
-                String classPerm = Optional.ofNullable(clazz.getAnnotation(Permission.class))
-                        .map(Permission::value).orElse(null);
-
-                List<Method> routes = Arrays.stream(clazz.getDeclaredMethods())
-                        .filter(m -> m.isAnnotationPresent(Route.class))
-                        .toList();
+                List<BoundRoute> routes = dispatcher.bind(clazz, handler.getValue());
                 if (routes.isEmpty()) continue;
 
                 for (String root : cmdAnn.value()) {
-                    LiteralArgumentBuilder<CommandSourceStack> rootBuilder =
-                            roots.computeIfAbsent(root, Commands::literal);
-
-                    buildCommandTree(rootBuilder, handler, routes, classPerm);
+                    insert(roots, root, routes);
                 }
             }
 
-            roots.values().forEach(b -> commands.register(b.build()));
-        });
-    }
-
-    private void buildCommandTree(LiteralArgumentBuilder<CommandSourceStack> rootBuilder,
-                                  CommandHandler handler, List<Method> routes, String classPerm) {
-
-        List<RouteBinding> bindings = new ArrayList<>();
-        for (Method method : routes) {
-            bindings.add(bindRoute(handler, method, classPerm));
-        }
-
-        Map<String, List<RouteBinding>> routesByFirstSegment = new HashMap<>();
-        List<RouteBinding> defaultRoutes = new ArrayList<>();
-        for (RouteBinding b : bindings) {
-            if (b.path.isEmpty()) {
-                defaultRoutes.add(b);
-            } else {
-                String first = b.path.get(0).token;
-                routesByFirstSegment.computeIfAbsent(first, k -> new ArrayList<>()).add(b);
+            if (metricsLabel != null) {
+                MetricsCommand metrics = new MetricsCommand(this);
+                insert(roots, metricsLabel, dispatcher.bind(MetricsCommand.class, () -> metrics,
+                        metricsLabel, metricsPermission));
             }
-        }
 
-        if (!defaultRoutes.isEmpty()) {
-            rootBuilder.executes(ctx -> executeBinding(ctx, defaultRoutes.get(0)));
-        }
-
-        for (List<RouteBinding> group : routesByFirstSegment.values()) {
-            for (RouteBinding b : group) {
-                addRoute(rootBuilder, b, 0);
-            }
-        }
+            roots.forEach((label, tree) -> {
+                LiteralArgumentBuilder<CommandSourceStack> rootBuilder = Commands.literal(label);
+                emit(tree.root, rootBuilder);
+                commands.register(rootBuilder.build());
+            });
+        });
     }
 
-    private void addRoute(LiteralArgumentBuilder<CommandSourceStack> parent,
-                          RouteBinding binding, int depth) {
-        if (depth >= binding.path.size()) {
-            parent.executes(ctx -> executeBinding(ctx, binding));
-            return;
-        }
-
-        Segment segment = binding.path.get(depth);
-
-        if (segment.literal) {
-            LiteralArgumentBuilder<CommandSourceStack> literal = Commands.literal(segment.token);
-
-            if (depth == binding.path.size() - 1 && binding.permission != null) {
-                literal.requires(src -> src.getSender().hasPermission(binding.permission));
-            }
-            if (depth == binding.path.size() - 1) {
-                literal.executes(ctx -> executeBinding(ctx, binding));
-            } else {
-                addRoute(literal, binding, depth + 1);
-            }
-            parent.then(literal);
-        } else {
-            Param matchingParam = findParamByName(binding.params, segment.token);
-            if (matchingParam == null || matchingParam.sender) return;
-
-            RequiredArgumentBuilder<CommandSourceStack, ?> argBuilder =
-                    createArgumentBuilder(segment.token, matchingParam);
-
-            // Resolver-driven suggestions (with placeholder fallback)
-            argBuilder.suggests(createArgumentSuggestionProvider(matchingParam));
-
-            if (depth == binding.path.size() - 1 && binding.permission != null) {
-                argBuilder.requires(src -> src.getSender().hasPermission(binding.permission));
-            }
-            if (depth == binding.path.size() - 1) {
-                argBuilder.executes(ctx -> executeBinding(ctx, binding));
-            } else {
-                addRouteToArgument(argBuilder, binding, depth + 1);
+    private static void insert(Map<String, RouteTree> roots, String root, List<BoundRoute> routes) {
+        RouteTree tree = roots.computeIfAbsent(root, RouteTree::new);
+        for (BoundRoute route : routes) {
+            try {
+                tree.insert(route);
+            } catch (IllegalStateException e) {
+                // One conflicting route must not abort registration of every command
+                log.error("Skipping route: {}", e.getMessage());
             }
-            parent.then(argBuilder);
         }
     }
 
-    private void addRouteToArgument(RequiredArgumentBuilder<CommandSourceStack, ?> parent,
-                                    RouteBinding binding, int depth) {
-        if (depth >= binding.path.size()) {
-            parent.executes(ctx -> executeBinding(ctx, binding));
-            return;
-        }
-
-        Segment segment = binding.path.get(depth);
-
-        if (segment.literal) {
-            LiteralArgumentBuilder<CommandSourceStack> literal = Commands.literal(segment.token);
-
-            if (depth == binding.path.size() - 1 && binding.permission != null) {
-                literal.requires(src -> src.getSender().hasPermission(binding.permission));
-            }
-            if (depth == binding.path.size() - 1) {
-                literal.executes(ctx -> executeBinding(ctx, binding));
-            } else {
-                addRoute(literal, binding, depth + 1);
-            }
-            parent.then(literal);
-        } else {
-            Param matchingParam = findParamByName(binding.params, segment.token);
-            if (matchingParam == null || matchingParam.sender) return;
-
-            RequiredArgumentBuilder<CommandSourceStack, ?> argBuilder =
-                    createArgumentBuilder(segment.token, matchingParam);
-
-            argBuilder.suggests(createArgumentSuggestionProvider(matchingParam));
+    /**
+     * Set the executor that runs {@link Async} routes.
+     *
+     * <p>Defaults to a virtual thread per execution. Must be called before the first async
+     * route runs to take effect for it; the previous default executor, if one was created,
+     * keeps running its in-flight tasks.</p>
+     *
+     * @param executor the executor for async routes
+     */
+    public void setAsyncExecutor(Executor executor) {
+        dispatcher.setAsyncExecutor(executor);
+    }
 
-            if (depth == binding.path.size() - 1 && binding.permission != null) {
-                argBuilder.requires(src -> src.getSender().hasPermission(binding.permission));
-            }
-            if (depth == binding.path.size() - 1) {
-                argBuilder.executes(ctx -> executeBinding(ctx, binding));
-            } else {
-                addRouteToArgument(argBuilder, binding, depth + 1);
-            }
-            parent.then(argBuilder);
-        }
+    /**
+     * Snapshot the queue state of every {@link Async} route.
+     *
+     * @return one entry per async route method
+     */
+    public List<AsyncRouteStats> getAsyncRouteStats() {
+        return dispatcher.getAsyncRouteStats();
     }
 
-    private RequiredArgumentBuilder<CommandSourceStack, ?> createArgumentBuilder(String name, Param param) {
-        if (param.type == Integer.class || param.type == int.class) {
-            return Commands.argument(name, IntegerArgumentType.integer());
-        } else if (param.type == BigDecimal.class) {
-            return Commands.argument(name, StringArgumentType.word());
-        } else {
-            // No greedy strings
-            return Commands.argument(name, StringArgumentType.word());
-        }
+    /**
+     * Execution metrics of every registered route, also shown by the
+     * {@link #enableMetricsCommand metrics command}.
+     *
+     * @return one entry per route method
+     */
+    public List<RouteMetrics> getRouteMetrics() {
+        return dispatcher.getRouteMetrics();
     }
 
-    private SuggestionProvider<CommandSourceStack> createArgumentSuggestionProvider(Param param) {
-        return (context, builder) -> {
-            CommandSender sender = context.getSource().getSender();
-            String input = builder.getRemaining();
+    /**
+     * Report an exception type to command senders with a message, instead of logging it as an
+     * error. Overrides the {@link MessageKey} of the type and its subclasses.
+     *
+     * @param type the exception type, typically one thrown by a library your routes call
+     * @param messageKey the {@code messages.properties} key, given {@code {message}}
+     */
+    public void mapException(Class<? extends Throwable> type, String messageKey) {
+        dispatcher.mapException(type, messageKey);
+    }
 
-            @SuppressWarnings("unchecked")
-            ParameterResolver<Object> resolver = (ParameterResolver<Object>) resolvers.get(param.type);
+    /**
+     * Resend a player's command tree after their permissions changed, with their cached
+     * permission decisions dropped first so the tree reflects the change.
+     *
+     * @param player the player
+     */
+    public void updateCommands(Player player) {
+        dispatcher.invalidatePermissions(player.getUniqueId());
+        player.updateCommands();
+    }
 
-            List<String> suggestions = (resolver != null)
-                    ? resolver.suggestions(input, sender)
-                    : List.of();
+    /**
+     * Forget the cached permission decisions for a player. Decisions only serve the building of
+     * a command tree and expire within a tick, and are dropped on quit and world change; call
+     * this before a tree is resent in some way other than {@link #updateCommands}.
+     *
+     * @param player the player's UUID
+     */
+    public void invalidatePermissions(UUID player) {
+        dispatcher.invalidatePermissions(player);
+    }
 
-            if (suggestions.isEmpty()) {
-                builder.suggest(PLACEHOLDER_PREFIX + param.name + PLACEHOLDER_SUFFIX);
-            } else {
-                for (String s : suggestions) builder.suggest(s);
-            }
-            return builder.buildFuture();
-        };
+    /**
+     * Forget all cached permission decisions, for example after a permission plugin reload.
+     */
+    public void invalidatePermissions() {
+        dispatcher.invalidatePermissions();
     }
 
-    private int executeBinding(CommandContext<CommandSourceStack> context, RouteBinding binding) {
-        CommandSender sender = context.getSource().getSender();
+    /**
+     * Stop the default async executor, if this manager created one. Call from {@code onDisable}.
+     */
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
 
-        if (binding.permission != null && !sender.hasPermission(binding.permission)) {
-            sender.sendMessage("§cYou don't have permission.");
-            return 0;
+    /**
+     * Emit a trie node's children and executor into its builder, bottom-up. The node requires
+     * any one of the permissions of the routes beneath it, or nothing if one of them needs none.
+     *
+     * @return the permissions guarding the node, or null if it is unrestricted
+     */
+    private Set<String> emit(RouteTree.Node node, ArgumentBuilder<CommandSourceStack, ?> builder) {
+        Set<String> permissions = new LinkedHashSet<>();
+        boolean unrestricted = false;
+
+        if (node.route != null) {
+            BoundRoute route = node.route;
+            builder.executes(ctx -> dispatcher.execute(route, ctx.getSource().getSender(),
+                    name -> ctx.getArgument(name, Object.class)));
+            if (route.permission == null) unrestricted = true;
+            else permissions.add(route.permission);
         }
 
-        Runnable task = () -> {
-            try {
-                Object[] invokeArgs = extractArguments(context, binding, sender);
-                binding.method.invoke(binding.instance, invokeArgs);
-            } catch (InvocationTargetException ite) {
-                Throwable t = ite.getTargetException();
-                safeMsg(sender, "§cError: " + t.getMessage());
-                plugin.getLogger().warning("Command error: " + t);
-            } catch (Exception e) {
-                safeMsg(sender, "§cInternal error.");
-                plugin.getLogger().warning("Command exception: " + e);
-            }
-        };
-
-        if (binding.async) {
-            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, task);
-        } else {
-            task.run();
+        for (RouteTree.Node child : node.children.values()) {
+            ArgumentBuilder<CommandSourceStack, ?> childBuilder = child.segment.literal()
+                    ? Commands.literal(child.segment.token())
+                    : createArgumentBuilder(child.segment.token(), child.param);
+            // then() builds the child immediately, so it must be complete first
+            Set<String> childPermissions = emit(child, childBuilder);
+            if (childPermissions == null) unrestricted = true;
+            else permissions.addAll(childPermissions);
+            builder.then(childBuilder);
         }
 
-        return 1;
-    }
+        if (unrestricted) return null;
 
-    private Object[] extractArguments(CommandContext<CommandSourceStack> context, RouteBinding binding, CommandSender sender) throws Exception {
-        List<Object> values = new ArrayList<>();
-
-        for (Param param : binding.params) {
-            if (param.sender) {
-                values.add(injectSender(param.type, sender));
-            } else {
-                String argName = null;
-                for (Segment seg : binding.path) {
-                    if (!seg.literal && seg.token.equals(param.name)) {
-                        argName = seg.token;
-                        break;
-                    }
-                }
-
-                if (argName != null) {
-                    try {
-                        Object rawValue = context.getArgument(argName, Object.class);
-
-                        @SuppressWarnings("unchecked")
-                        ParameterResolver<Object> resolver = (ParameterResolver<Object>) resolvers.get(param.type);
-
-                        if (resolver != null) {
-                            String stringValue = rawValue.toString();
-                            values.add(resolver.resolve(stringValue, sender)
-                                    .orElseThrow(() -> new IllegalArgumentException("Invalid " + param.name + ": " + stringValue)));
-                        } else if (param.type == Integer.class || param.type == int.class) {
-                            values.add(rawValue);
-                        } else {
-                            values.add(rawValue.toString());
-                        }
-                    } catch (IllegalArgumentException e) {
-                        if (param.optional) {
-                            values.add(param.defaultValue);
-                        } else {
-                            throw e;
-                        }
-                    }
-                } else if (param.optional) {
-                    values.add(param.defaultValue);
-                } else {
-                    throw new IllegalArgumentException("Missing required argument: " + param.name);
-                }
-            }
-        }
-
-        return values.toArray();
+        String[] anyOf = permissions.toArray(String[]::new);
+        PermissionCache permissionCache = dispatcher.permissionCache();
+        builder.requires(src -> permissionCache.hasAnyPermission(src.getSender(), anyOf));
+        return permissions;
     }
 
-    private Param findParamByName(List<Param> params, String name) {
-        for (Param p : params) {
-            if (!p.sender && p.name.equals(name)) {
-                return p;
-            }
+    private RequiredArgumentBuilder<CommandSourceStack, ?> createArgumentBuilder(String name, Param param) {
+        if (param.elementType() != null) {
+            return Commands.argument(name, ListArgumentType.list())
+                    .suggests(createArgumentSuggestionProvider(param));
         }
-        return null;
-    }
-
-    private void registerResolver(ParameterResolver<?> r) {
-        resolvers.putIfAbsent(r.type(), r);
-    }
 
-    private void safeMsg(CommandSender sender, String msg) {
-        if (plugin.getServer().isPrimaryThread()) {
-            sender.sendMessage(msg);
-        } else {
-            plugin.getServer().getScheduler().runTask(plugin, () -> sender.sendMessage(msg));
+        ArgumentType<?> type = dispatcher.usesNativeType(param.type()) ? nativeArgumentType(param) : null;
+        if (type == null) {
+            // No greedy strings
+            return Commands.argument(name, StringArgumentType.word())
+                    .suggests(createArgumentSuggestionProvider(param));
         }
-    }
 
-    private Object injectSender(Class<?> type, CommandSender sender) {
-        if (type.isInstance(sender)) return type.cast(sender);
-        throw new IllegalArgumentException("Sender must be " + type.getSimpleName());
+        RequiredArgumentBuilder<CommandSourceStack, ?> builder = Commands.argument(name, type);
+        if (!param.type().isEnum() && Primitives.wrap(param.type()) != Boolean.class) {
+            // Enums and booleans suggest their own values
+            builder.suggests(createArgumentSuggestionProvider(param));
+        }
+        return builder;
     }
 
-    private RouteBinding bindRoute(Object instance, Method m, String classPerm) {
-        Route r = m.getAnnotation(Route.class);
-        String raw = r.value().trim();
-        List<String> parts = raw.isEmpty() ? List.of() : List.of(raw.split("\\s+"));
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ArgumentType<?> nativeArgumentType(Param param) {
+        Class<?> type = Primitives.wrap(param.type());
 
-        List<Segment> segments = new ArrayList<>();
-        for (String p : parts) {
-            segments.add(p.startsWith("<") && p.endsWith(">") ?
-                    Segment.arg(p.substring(1, p.length() - 1)) : Segment.literal(p));
+        // Round fractional bounds inwards; the casts saturate, so unbounded stays unbounded
+        if (type == Integer.class) {
+            return IntegerArgumentType.integer((int) Math.ceil(param.min()), (int) Math.floor(param.max()));
         }
-
-        List<Param> params = new ArrayList<>();
-        for (Parameter rp : m.getParameters()) {
-            boolean isSender = rp.isAnnotationPresent(Sender.class);
-            Arg arg = rp.getAnnotation(Arg.class);
-            OptionalArg opt = rp.getAnnotation(OptionalArg.class);
-            if (isSender) params.add(Param.sender(rp.getType()));
-            else if (arg != null) params.add(Param.required(rp.getType(), arg.value()));
-            else if (opt != null) params.add(Param.optional(rp.getType(), opt.value(), opt.defaultValue()));
-            else throw new IllegalStateException("Parameter missing @Sender/@Arg/@OptionalArg on " + m);
+        if (type == Long.class) {
+            return LongArgumentType.longArg((long) Math.ceil(param.min()), (long) Math.floor(param.max()));
         }
-
-        String methodPerm = Optional.ofNullable(m.getAnnotation(Permission.class)).map(Permission::value).orElse(null);
-        String effectivePerm = methodPerm != null ? methodPerm : classPerm;
-
-        String description = Optional.ofNullable(m.getAnnotation(Description.class)).map(Description::value).orElse("");
-
-        return new RouteBinding(instance, m, segments, params, effectivePerm, description);
-    }
-
-    private record Segment(boolean literal, String token) {
-        static Segment literal(String s) {
-            return new Segment(true, s.toLowerCase(Locale.ROOT));
-        }
-        static Segment arg(String name) {
-            return new Segment(false, name);
+        if (type == Float.class) {
+            return FloatArgumentType.floatArg(
+                    (float) Math.max(param.min(), -Float.MAX_VALUE), (float) Math.min(param.max(), Float.MAX_VALUE));
         }
+        if (type == Double.class) return DoubleArgumentType.doubleArg(param.min(), param.max());
+        if (type == Boolean.class) return BoolArgumentType.bool();
+        if (type == BigDecimal.class) return BigDecimalArgumentType.bigDecimal(param.min(), param.max());
+        if (type == UUID.class) return ArgumentTypes.uuid();
+        if (type.isEnum()) return EnumArgumentType.enumArg((Class) type);
+        return null;
     }
 
-    private record Param(boolean sender, boolean optional, Class<?> type, String name, Object defaultValue) {
-        static Param sender(Class<?> t) { return new Param(true, false, t, "", null); }
-        static Param required(Class<?> t, String n) { return new Param(false, false, t, n, null); }
-        static Param optional(Class<?> t, String n, Object def) { return new Param(false, true, t, n, def); }
+    private SuggestionProvider<CommandSourceStack> createArgumentSuggestionProvider(Param param) {
+        return (context, builder) -> dispatcher.suggest(param, builder.getRemaining(), context.getSource().getSender())
+                .thenApply(suggestions -> applySuggestions(builder, param, suggestions));
     }
 
-    private static class RouteBinding {
-        final Object instance;
-        final Method method;
-        final List<Segment> path;
-        final List<Param> params;
-        final String permission;
-        final String description;
-        final boolean async;
-
-        RouteBinding(Object instance, Method method, List<Segment> path, List<Param> params, String permission, String description) {
-            this.instance = instance;
-            this.method = method;
-            this.path = path;
-            this.params = params;
-            this.permission = permission;
-            this.description = description;
-            this.method.setAccessible(true);
-            this.async = method.isAnnotationPresent(Async.class);
+    private Suggestions applySuggestions(SuggestionsBuilder builder, Param param, List<String> suggestions) {
+        if (suggestions.isEmpty()) {
+            builder.suggest(PLACEHOLDER_PREFIX + param.name() + PLACEHOLDER_SUFFIX);
+        } else {
+            for (String s : suggestions) builder.suggest(s);
         }
+        return builder.build();
     }
 }
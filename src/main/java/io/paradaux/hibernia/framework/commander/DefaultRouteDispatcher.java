@@ -0,0 +1,865 @@
+package io.paradaux.hibernia.framework.commander;
+
+import com.google.common.base.Defaults;
+import com.google.common.primitives.Primitives;
+import com.google.inject.Provider;
+import io.paradaux.hibernia.framework.commander.BoundRoute.Key;
+import io.paradaux.hibernia.framework.commander.BoundRoute.Param;
+import io.paradaux.hibernia.framework.commander.BoundRoute.Segment;
+import io.paradaux.hibernia.framework.commander.BoundRoute.Slot;
+import io.paradaux.hibernia.framework.commander.annotations.*;
+import io.paradaux.hibernia.framework.commander.resolvers.*;
+import io.paradaux.hibernia.framework.commander.spi.AsyncParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.BulkParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.GeneratedRoute;
+import io.paradaux.hibernia.framework.commander.spi.GeneratedRoute.AsyncSettings;
+import io.paradaux.hibernia.framework.commander.spi.GeneratedRoute.Limit;
+import io.paradaux.hibernia.framework.commander.spi.GeneratedRoutes;
+import io.paradaux.hibernia.framework.commander.spi.ParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.Resolution;
+import io.paradaux.hibernia.framework.exceptions.InvalidArgumentException;
+import io.paradaux.hibernia.framework.i18n.Message;
+import lombok.extern.slf4j.Slf4j;
+import net.kyori.adventure.text.Component;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * The {@link RouteDispatcher} behind every CommandManager, usable on its own without a server.
+ *
+ * <p>Holds everything route execution needs: the parameter resolvers, permission cache,
+ * limiters, async gates, metrics and suggestion cache. It only reaches the server through
+ * the main-thread executor and default sender it is constructed with; the Bukkit types it
+ * uses are interfaces, which tests and benchmarks can implement.</p>
+ */
+@Slf4j
+public final class DefaultRouteDispatcher implements RouteDispatcher {
+
+    private static final Object DEFERRED_DEFAULT = new Object();
+    private static final CompletableFuture<?> DONE = CompletableFuture.completedFuture(null);
+    private static final String GENERATED_SUFFIX = "_HiberniaRoutes";
+    private static final Set<Class<?>> NATIVE_TYPES = Set.of(
+            Integer.class, Long.class, Float.class, Double.class, Boolean.class, BigDecimal.class, UUID.class);
+
+    private final Executor mainThread;
+    private final Supplier<? extends CommandSender> defaultSender;
+    private final String threadName;
+    private final ExceptionFeedback feedback;
+    private final Map<Class<?>, ParameterResolver<?>> resolvers = new ConcurrentHashMap<>();
+    private final Set<Class<?>> customResolverTypes;
+    private final Map<Class<?>, BulkParameterResolver<?>> bulkResolvers = new ConcurrentHashMap<>();
+    private final Map<Key, AsyncRouteGate> asyncGates = new ConcurrentHashMap<>();
+    private final Map<Key, RouteMetrics> routeMetrics = new ConcurrentHashMap<>();
+    private final InFlightRoutes inFlight = new InFlightRoutes();
+    private final PermissionCache permissionCache = new PermissionCache();
+    private final Map<Key, RouteLimiter[]> routeLimiters = new ConcurrentHashMap<>();
+    private final SuggestionCache suggestionCache = new SuggestionCache(this::executeAsync);
+
+    private volatile Executor asyncExecutor;
+    private ExecutorService ownedExecutor;
+
+    /**
+     * Create a dispatcher with the built-in resolvers for String, the numeric types, Boolean,
+     * BigDecimal and UUID.
+     *
+     * @param resolvers additional resolvers, taking precedence over the built-in ones
+     * @param mainThread runs feedback and non-async continuations on the server thread
+     * @param defaultSender the sender {@link OptionalArg} defaults are resolved against up front
+     * @param threadName prefix for the names of async route threads
+     * @param messages messages used for the feedback of mapped exceptions, created on first use
+     */
+    public DefaultRouteDispatcher(Collection<? extends ParameterResolver<?>> resolvers, Executor mainThread,
+                                  Supplier<? extends CommandSender> defaultSender, String threadName,
+                                  Provider<Message> messages) {
+        this.mainThread = mainThread;
+        this.defaultSender = defaultSender;
+        this.threadName = threadName;
+        this.feedback = new ExceptionFeedback(messages);
+        resolvers.forEach(r -> this.resolvers.put(r.type(), r));
+        this.customResolverTypes = Set.copyOf(this.resolvers.keySet());
+        registerDefaultResolver(new StringResolver());
+        registerDefaultResolver(new IntegerResolver());
+        registerDefaultResolver(new LongResolver());
+        registerDefaultResolver(new FloatResolver());
+        registerDefaultResolver(new DoubleResolver());
+        registerDefaultResolver(new BooleanResolver());
+        registerDefaultResolver(new BigDecimalResolver());
+        registerDefaultResolver(new UUIDResolver());
+    }
+
+    /** Add a resolver unless one was given for its type. */
+    void registerDefaultResolver(ParameterResolver<?> resolver) {
+        resolvers.putIfAbsent(resolver.type(), resolver);
+    }
+
+    /** @see CommandManager#registerBulkResolver(BulkParameterResolver) */
+    public void registerBulkResolver(BulkParameterResolver<?> resolver) {
+        bulkResolvers.put(resolver.type(), resolver);
+    }
+
+    /** @see CommandManager#setAsyncExecutor(Executor) */
+    public void setAsyncExecutor(Executor executor) {
+        this.asyncExecutor = Objects.requireNonNull(executor);
+    }
+
+    public List<AsyncRouteStats> getAsyncRouteStats() {
+        return asyncGates.values().stream().map(AsyncRouteGate::stats).toList();
+    }
+
+    public List<RouteMetrics> getRouteMetrics() {
+        return List.copyOf(routeMetrics.values());
+    }
+
+    /** @see CommandManager#mapException(Class, String) */
+    public void mapException(Class<? extends Throwable> type, String messageKey) {
+        feedback.map(type, messageKey);
+    }
+
+    public void invalidatePermissions(UUID player) {
+        permissionCache.invalidate(player);
+    }
+
+    public void invalidatePermissions() {
+        permissionCache.invalidateAll();
+    }
+
+    /** Stop the default async executor, if this dispatcher created one. */
+    public synchronized void shutdown() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    /** Drop rate limit buckets that have refilled; call periodically. */
+    void expireLimits() {
+        long now = System.nanoTime();
+        for (RouteLimiter[] limiters : routeLimiters.values()) {
+            for (RouteLimiter limiter : limiters) limiter.expire(now);
+        }
+    }
+
+    PermissionCache permissionCache() {
+        return permissionCache;
+    }
+
+    InFlightRoutes inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Whether arguments of this type may be parsed by the platform (Brigadier) directly. A
+     * resolver registered by the plugin for the type takes precedence, since it may accept
+     * other syntax.
+     */
+    boolean usesNativeType(Class<?> type) {
+        Class<?> wrapped = Primitives.wrap(type);
+        return (NATIVE_TYPES.contains(wrapped) || wrapped.isEnum()) && !customResolverTypes.contains(wrapped);
+    }
+
+    @Override
+    public List<BoundRoute> bind(Class<?> handlerType, Supplier<?> handler) {
+        String root = Optional.ofNullable(handlerType.getAnnotation(Command.class))
+                .map(c -> c.value()[0]).orElse(handlerType.getSimpleName());
+        String classPerm = Optional.ofNullable(handlerType.getAnnotation(Permission.class))
+                .map(Permission::value).orElse(null);
+        return bindHandler(handlerType, handler, root, classPerm);
+    }
+
+    /**
+     * Bind a handler under a root label and class permission given by the caller rather than by
+     * its annotations, for built-in handlers whose label the plugin chooses.
+     */
+    List<BoundRoute> bind(Class<?> handlerType, Supplier<?> handler, String root, String classPerm) {
+        return bindHandler(handlerType, handler, root, classPerm);
+    }
+
+    @Override
+    public CompletableFuture<List<String>> suggest(Param param, String input, CommandSender sender) {
+        if (param.elementType() != null) {
+            BulkParameterResolver<?> bulk = bulkResolver(param.elementType());
+            return CompletableFuture.completedFuture(bulk != null ? bulk.suggestions(input, sender) : List.of());
+        }
+
+        @SuppressWarnings("unchecked")
+        ParameterResolver<Object> resolver = (ParameterResolver<Object>) resolvers.get(Primitives.wrap(param.type()));
+        if (resolver == null) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        if (resolver.suggestionCaching().enabled()) {
+            return suggestionCache.suggestions(resolver, input, sender).exceptionally(error -> List.of());
+        }
+        return CompletableFuture.completedFuture(resolver.suggestions(input, sender));
+    }
+
+    @Override
+    public int execute(BoundRoute binding, CommandSender sender, ArgumentSource arguments) {
+        // Never cached: a revoked permission must stop the route at once
+        if (binding.permission != null && !sender.hasPermission(binding.permission)) {
+            sender.sendMessage("§cYou don't have permission.");
+            return 0;
+        }
+
+        if (binding.limiters.length > 0 && !acquireLimits(binding, sender)) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        if (binding.gate != null) {
+            boolean accepted = binding.gate.submit(senderKey(sender), () -> {
+                binding.metrics.recordQueueWait(System.nanoTime() - start);
+                return recordTotal(binding, start, dispatch(arguments, binding, sender));
+            }, () -> onMainThread(() -> sender.sendMessage(binding.gate.rejectMessage())));
+            if (!accepted) {
+                sender.sendMessage(binding.gate.rejectMessage());
+                return 0;
+            }
+        } else {
+            recordTotal(binding, start, dispatch(arguments, binding, sender));
+        }
+
+        return 1;
+    }
+
+    private CompletableFuture<?> recordTotal(BoundRoute binding, long start, CompletableFuture<?> done) {
+        if (done.isDone()) {
+            binding.metrics.recordTotal(System.nanoTime() - start);
+        } else {
+            done.whenComplete((result, error) -> binding.metrics.recordTotal(System.nanoTime() - start));
+        }
+        return done;
+    }
+
+    /**
+     * Take a permit from each of the route's limiters, giving back those already taken if one
+     * rejects the use.
+     */
+    private boolean acquireLimits(BoundRoute binding, CommandSender sender) {
+        RouteLimiter[] limiters = binding.limiters;
+        long now = System.nanoTime();
+        for (int i = 0; i < limiters.length; i++) {
+            long wait = limiters[i].tryAcquire(sender, now);
+            if (wait > 0) {
+                for (int j = 0; j < i; j++) limiters[j].release(sender);
+                sender.sendMessage(limiters[i].message(wait));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Extract arguments and invoke the route. Never throws; failures are reported to the sender.
+     *
+     * @return a future completing once the route, including any stage it returned, is done
+     */
+    private CompletableFuture<?> dispatch(ArgumentSource arguments, BoundRoute binding, CommandSender sender) {
+        if (binding.asyncSlots > 0) {
+            return dispatchAfterResolution(arguments, binding, sender);
+        }
+
+        long resolveStart = System.nanoTime();
+        Object[] invokeArgs;
+        try {
+            invokeArgs = extractArguments(arguments, binding, sender);
+        } catch (Exception e) {
+            onExtractionFailure(binding, sender, e);
+            return DONE;
+        }
+        binding.metrics.recordResolve(System.nanoTime() - resolveStart);
+        return invoke(binding, sender, invokeArgs);
+    }
+
+    /**
+     * Resolve every {@link AsyncParameterResolver} argument concurrently, then invoke the route
+     * on the thread it would normally run on: the async executor for {@link Async} routes,
+     * otherwise the main thread.
+     */
+    private CompletableFuture<?> dispatchAfterResolution(ArgumentSource arguments, BoundRoute binding, CommandSender sender) {
+        long resolveStart = System.nanoTime();
+        CompletableFuture<Object[]> resolved;
+        try {
+            resolved = extractArgumentsAsync(arguments, binding, sender);
+        } catch (Exception e) {
+            onExtractionFailure(binding, sender, e);
+            return DONE;
+        }
+        if (resolved.isDone() && !resolved.isCompletedExceptionally()) {
+            // Every resolver answered from memory; we are already on the route's thread
+            binding.metrics.recordResolve(System.nanoTime() - resolveStart);
+            return invoke(binding, sender, resolved.join());
+        }
+        if (sender instanceof Player player) {
+            inFlight.track(player.getUniqueId(), resolved);
+        }
+
+        Executor continuation = binding.gate != null ? this::executeAsync : this::onMainThread;
+        return resolved
+                .thenComposeAsync(args -> {
+                    binding.metrics.recordResolve(System.nanoTime() - resolveStart);
+                    return invoke(binding, sender, args);
+                }, continuation)
+                .exceptionally(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (!(cause instanceof CancellationException)) {
+                        onMainThread(() -> onExtractionFailure(binding, sender, cause));
+                    }
+                    return null;
+                });
+    }
+
+    private void onExtractionFailure(BoundRoute binding, CommandSender sender, Throwable e) {
+        binding.metrics.recordFailure(e);
+        onMainThread(() -> {
+            if (!feedback.report(sender, e)) {
+                sender.sendMessage("§cInternal error.");
+                log.warn("Command exception: {}", e.toString());
+            }
+        });
+    }
+
+    private CompletableFuture<?> invoke(BoundRoute binding, CommandSender sender, Object[] invokeArgs) {
+        RouteMetrics metrics = binding.metrics;
+        metrics.recordInvocation();
+        long start = System.nanoTime();
+
+        Object result;
+        try {
+            result = binding.invoker.invoke(binding.instance.get(), invokeArgs);
+        } catch (Throwable t) {
+            metrics.recordInvoke(System.nanoTime() - start);
+            metrics.recordFailure(t);
+            onMainThread(() -> complete(sender, null, t));
+            return DONE;
+        }
+
+        if (result instanceof CompletionStage<?> stage) {
+            return awaitStage(follow(stage), binding, sender, start);
+        }
+        metrics.recordInvoke(System.nanoTime() - start);
+        return DONE;
+    }
+
+    /**
+     * A future of our own completed by the stage, so the timeout and cancellation on quit are
+     * applied without completing the handler's future in its place, and stages that don't
+     * support {@link CompletionStage#toCompletableFuture()} work too.
+     *
+     * <p>Once the dispatcher gives up on the route, by timeout or cancellation, a returned
+     * {@link CompletableFuture} is cancelled too, so its work can stop. Other stage
+     * implementations have no way to be cancelled, and run to completion unobserved.</p>
+     */
+    private static CompletableFuture<Object> follow(CompletionStage<?> stage) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        stage.whenComplete((value, error) -> {
+            if (error != null) future.completeExceptionally(error);
+            else future.complete(value);
+        });
+        if (stage instanceof CompletableFuture<?> source) {
+            future.whenComplete((value, error) -> {
+                if (error instanceof CancellationException || error instanceof TimeoutException) {
+                    try {
+                        source.cancel(true);
+                    } catch (UnsupportedOperationException e) {
+                        // A minimal stage, which refuses to be cancelled
+                    }
+                }
+            });
+        }
+        return future;
+    }
+
+    private CompletableFuture<?> awaitStage(CompletableFuture<?> future, BoundRoute binding, CommandSender sender, long start) {
+        if (binding.timeoutMs > 0) {
+            future.orTimeout(binding.timeoutMs, TimeUnit.MILLISECONDS);
+        }
+        if (sender instanceof Player player) {
+            inFlight.track(player.getUniqueId(), future);
+        }
+
+        // One hop back to the main thread, and only if there is something to deliver
+        return future.handle((result, error) -> {
+            binding.metrics.recordInvoke(System.nanoTime() - start);
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (!(cause instanceof CancellationException)) {
+                    binding.metrics.recordFailure(cause);
+                }
+            }
+            if (result != null || error != null) {
+                onMainThread(() -> complete(sender, result, error));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Deliver the outcome of a route to its sender: a String or Component result is sent as
+     * feedback, a failure as an error message. Main thread only.
+     */
+    private void complete(CommandSender sender, Object result, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof CancellationException) {
+                return; // sender disconnected
+            }
+            if (cause instanceof TimeoutException) {
+                sender.sendMessage("§cThat command took too long and was cancelled.");
+                return;
+            }
+            if (feedback.report(sender, cause)) {
+                return; // expected failure, e.g. NotFoundException
+            }
+            sender.sendMessage("§cError: " + cause.getMessage());
+            log.warn("Command error: {}", cause.toString());
+        } else if (result instanceof Component component) {
+            sender.sendMessage(component);
+        } else if (result instanceof String message) {
+            sender.sendMessage(message);
+        }
+    }
+
+    Object[] extractArguments(ArgumentSource arguments, BoundRoute binding, CommandSender sender) throws Exception {
+        Slot[] slots = binding.slots;
+        Object[] values = new Object[slots.length];
+
+        for (int i = 0; i < slots.length; i++) {
+            values[i] = extractValue(arguments, slots[i], sender);
+        }
+
+        return values;
+    }
+
+    CompletableFuture<Object[]> extractArgumentsAsync(ArgumentSource arguments, BoundRoute binding, CommandSender sender) throws Exception {
+        Slot[] slots = binding.slots;
+        Object[] values = new Object[slots.length];
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[binding.asyncSlots];
+        Queue<CompletableFuture<?>> lookups = new ConcurrentLinkedQueue<>();
+        int next = 0;
+
+        for (int i = 0; i < slots.length; i++) {
+            Slot slot = slots[i];
+            if (slot.asyncResolver() == null) {
+                values[i] = extractValue(arguments, slot, sender);
+                continue;
+            }
+
+            int index = i;
+            CompletableFuture<Object> value;
+            if (slot.argName() == null) {
+                value = defaultValueAsync(slot, sender, lookups);
+            } else {
+                String token = arguments.get(slot.argName()).toString();
+                value = lookup(slot, token, sender, lookups).thenCompose(resolved -> {
+                    if (resolved.isPresent()) return CompletableFuture.completedFuture(resolved.get());
+                    if (slot.param().optional()) return defaultValueAsync(slot, sender, lookups);
+                    return CompletableFuture.failedFuture(new InvalidArgumentException(slot.param().name(), token));
+                });
+            }
+            pending[next++] = value.thenAccept(v -> values[index] = v);
+        }
+
+        // allOf happens-before its dependents, so the writes into values are visible there
+        CompletableFuture<Object[]> resolved = CompletableFuture.allOf(pending).thenApply(v -> values);
+        // Cancelling the route, e.g. when the player quits, must reach the lookups themselves
+        resolved.whenComplete((v, error) -> {
+            if (error instanceof CancellationException) {
+                lookups.forEach(lookup -> lookup.cancel(true));
+            }
+        });
+        return resolved;
+    }
+
+    private static CompletableFuture<Optional<Object>> lookup(Slot slot, String token, CommandSender sender,
+                                                             Queue<CompletableFuture<?>> lookups) {
+        CompletableFuture<Optional<Object>> lookup = slot.asyncResolver().resolveAsync(token, sender);
+        if (!lookup.isDone()) lookups.add(lookup);
+        return lookup;
+    }
+
+    /** {@link #defaultValue} for a slot with an asynchronous resolver, without blocking on it. */
+    private static CompletableFuture<Object> defaultValueAsync(Slot slot, CommandSender sender,
+                                                               Queue<CompletableFuture<?>> lookups) {
+        if (slot.defaultValue() != DEFERRED_DEFAULT) {
+            return CompletableFuture.completedFuture(slot.defaultValue());
+        }
+        String raw = (String) slot.param().defaultValue();
+        return lookup(slot, raw, sender, lookups).thenApply(resolved -> resolved.orElseThrow(
+                () -> new InvalidArgumentException(slot.param().name(), raw)));
+    }
+
+    private Object extractValue(ArgumentSource arguments, Slot slot, CommandSender sender) throws Exception {
+        Param param = slot.param();
+
+        if (param.sender()) {
+            return injectSender(param.type(), sender);
+        }
+        if (slot.argName() == null) {
+            return defaultValue(slot, sender);
+        }
+
+        try {
+            Object rawValue = arguments.get(slot.argName());
+
+            if (slot.nativeValue() && !(rawValue instanceof String)) {
+                // Already parsed to the parameter type by Brigadier
+                return rawValue;
+            } else if (slot.bulkResolver() != null) {
+                String token = rawValue.toString();
+                Resolution<List<Object>> result = slot.bulkResolver().resolveAll(token, sender);
+                if (result.isValid()) {
+                    return asCollection(param, result.value());
+                }
+                if (param.optional()) {
+                    return defaultValue(slot, sender);
+                }
+                throw new InvalidArgumentException(param.name(), token, result.messageKey());
+            } else if (slot.resolver() != null) {
+                String token = rawValue.toString();
+                Resolution<Object> result = slot.resolver().tryResolve(token, sender);
+                if (result.isValid()) {
+                    return result.value();
+                }
+                if (param.optional()) {
+                    return defaultValue(slot, sender);
+                }
+                throw new InvalidArgumentException(param.name(), token, result.messageKey());
+            } else if (param.type().isEnum()) {
+                // Native enum argument given as text, e.g. by RouteTree#match
+                String token = rawValue.toString();
+                Object constant = enumConstant(param.type(), token);
+                if (constant != null) return constant;
+                if (param.optional()) return defaultValue(slot, sender);
+                throw new InvalidArgumentException(param.name(), token);
+            } else {
+                return rawValue.toString();
+            }
+        } catch (IllegalArgumentException e) {
+            if (param.optional()) {
+                return defaultValue(slot, sender);
+            }
+            throw e;
+        }
+    }
+
+    private Object defaultValue(Slot slot, CommandSender sender) throws Exception {
+        if (slot.defaultValue() != DEFERRED_DEFAULT) {
+            return slot.defaultValue();
+        }
+        // The default couldn't be resolved up front (e.g. it depends on the sender)
+        String raw = (String) slot.param().defaultValue();
+        if (slot.bulkResolver() != null) {
+            Resolution<List<Object>> values = slot.bulkResolver().resolveAll(raw, sender);
+            if (!values.isValid()) {
+                throw new InvalidArgumentException(slot.param().name(), raw, values.messageKey());
+            }
+            return asCollection(slot.param(), values.value());
+        }
+        Resolution<Object> result = slot.resolver().tryResolve(raw, sender);
+        if (!result.isValid()) {
+            throw new InvalidArgumentException(slot.param().name(), raw, result.messageKey());
+        }
+        return result.value();
+    }
+
+    private static Collection<Object> asCollection(Param param, List<Object> values) {
+        return param.type() == Set.class ? new LinkedHashSet<>(values) : values;
+    }
+
+    /**
+     * Compile the per-route extraction plan: one slot per method parameter, holding the
+     * Brigadier argument name, the resolver and the pre-resolved {@link OptionalArg} default.
+     */
+    private Slot[] compileSlots(Key route, List<Segment> path, List<Param> params) {
+        Slot[] slots = new Slot[params.size()];
+
+        for (int i = 0; i < slots.length; i++) {
+            Param param = params.get(i);
+            if (param.sender()) {
+                slots[i] = new Slot(param, null, false, null, null, null, null);
+                continue;
+            }
+
+            String argName = null;
+            for (Segment seg : path) {
+                if (!seg.literal() && seg.token().equals(param.name())) {
+                    argName = seg.token();
+                    break;
+                }
+            }
+            if (argName == null && !param.optional()) {
+                throw new IllegalStateException("Route has no <" + param.name() + "> placeholder for @Arg on " + route);
+            }
+
+            if (param.elementType() != null) {
+                if (argName != null && !isLast(path, argName)) {
+                    // Sent to the client as a greedy string, the only type accepting , @ and #
+                    throw new IllegalStateException("Collection argument <" + param.name()
+                            + "> must be the last segment of its route on " + route);
+                }
+                BulkParameterResolver<Object> bulk = bulkResolver(param.elementType());
+                if (bulk == null) {
+                    String reason = resolvers.get(param.elementType()) instanceof AsyncParameterResolver<?>
+                            ? "register a BulkParameterResolver, as the element resolver is asynchronous"
+                            : "no resolver";
+                    throw new IllegalStateException("Cannot resolve " + param.elementType().getSimpleName()
+                            + " elements of " + param.name() + " on " + route + ": " + reason);
+                }
+                Object defaultValue = param.optional() ? collectionDefault(param) : null;
+                slots[i] = new Slot(param, argName, false, null, null, bulk, defaultValue);
+                continue;
+            }
+
+            @SuppressWarnings("unchecked")
+            ParameterResolver<Object> resolver = (ParameterResolver<Object>) resolvers.get(Primitives.wrap(param.type()));
+
+            Object defaultValue = param.optional() ? resolveDefault(param, resolver) : null;
+            boolean nativeValue = usesNativeType(param.type());
+            @SuppressWarnings("unchecked")
+            AsyncParameterResolver<Object> asyncResolver = !nativeValue && resolver instanceof AsyncParameterResolver<?> async
+                    ? (AsyncParameterResolver<Object>) async : null;
+
+            slots[i] = new Slot(param, argName, nativeValue, resolver, asyncResolver, null, defaultValue);
+        }
+
+        return slots;
+    }
+
+    private static boolean isLast(List<Segment> path, String argName) {
+        Segment last = path.get(path.size() - 1);
+        return !last.literal() && last.token().equals(argName);
+    }
+
+    private Object resolveDefault(Param param, ParameterResolver<Object> resolver) {
+        String raw = (String) param.defaultValue();
+        if (raw.isEmpty()) {
+            return param.type().isPrimitive() ? Defaults.defaultValue(param.type()) : null;
+        }
+        if (param.type().isEnum()) {
+            Object constant = enumConstant(param.type(), raw);
+            if (constant != null) return constant;
+            throw new IllegalStateException("Unknown " + param.type().getSimpleName() + " default for " + param.name() + ": " + raw);
+        }
+        if (resolver == null) {
+            if (param.type() == String.class) return raw;
+            throw new IllegalStateException("Cannot resolve " + param.type().getSimpleName() + " default for "
+                    + param.name() + ": no resolver");
+        }
+        if (resolver instanceof AsyncParameterResolver<?>) {
+            // Never wait on I/O while binding; resolved without blocking at execution time
+            return DEFERRED_DEFAULT;
+        }
+
+        try {
+            Optional<Object> resolved = resolver.resolve(raw, defaultSender.get());
+            if (resolved.isPresent()) return resolved.get();
+        } catch (Exception ignored) {
+            // retried against the real sender at execution time
+        }
+        return DEFERRED_DEFAULT;
+    }
+
+    private static Object enumConstant(Class<?> type, String name) {
+        for (Object constant : type.getEnumConstants()) {
+            if (((Enum<?>) constant).name().equalsIgnoreCase(name)) return constant;
+        }
+        return null;
+    }
+
+    /** An empty default is an empty collection; others depend on the sender, e.g. {@code @a}. */
+    private static Object collectionDefault(Param param) {
+        return ((String) param.defaultValue()).isEmpty() ? asCollection(param, List.of()) : DEFERRED_DEFAULT;
+    }
+
+    /**
+     * The bulk resolver for an element type: a registered one, or else a comma-separated list of
+     * the type's single-value resolver.
+     */
+    @SuppressWarnings("unchecked")
+    private BulkParameterResolver<Object> bulkResolver(Class<?> elementType) {
+        return (BulkParameterResolver<Object>) bulkResolvers.computeIfAbsent(elementType, type -> {
+            ParameterResolver<?> element = resolvers.get(type);
+            // Bulk resolution is synchronous, so it cannot be built on a resolver that waits
+            return element != null && !(element instanceof AsyncParameterResolver<?>)
+                    ? new DelimitedBulkResolver<>(element) : null;
+        });
+    }
+
+    private void onMainThread(Runnable task) {
+        mainThread.execute(task);
+    }
+
+    private void executeAsync(Runnable task) {
+        Executor executor = asyncExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                if (asyncExecutor == null) {
+                    ThreadFactory factory = Thread.ofVirtual().name(threadName + "-command-", 0).factory();
+                    ownedExecutor = Executors.newThreadPerTaskExecutor(factory);
+                    asyncExecutor = ownedExecutor;
+                }
+                executor = asyncExecutor;
+            }
+        }
+        executor.execute(task);
+    }
+
+    static Object senderKey(CommandSender sender) {
+        return sender instanceof Entity entity ? entity.getUniqueId() : sender.getName();
+    }
+
+    private Object injectSender(Class<?> type, CommandSender sender) {
+        if (type.isInstance(sender)) return type.cast(sender);
+        throw new IllegalArgumentException("Sender must be " + type.getSimpleName());
+    }
+
+    private List<BoundRoute> bindHandler(Class<?> clazz, Supplier<?> handler, String root, String classPerm) {
+        GeneratedRoutes generated = generatedRoutes(clazz);
+        if (generated != null) {
+            // The table holds everything binding needs, so no method is looked up and no annotation read
+            return generated.routes().stream()
+                    .map(route -> bindRoute(handler, clazz, null, route, root, classPerm))
+                    .toList();
+        }
+
+        return Arrays.stream(clazz.getDeclaredMethods())
+                .filter(m -> m.isAnnotationPresent(Route.class))
+                .map(m -> bindRoute(handler, clazz, m, describe(m), root, classPerm))
+                .toList();
+    }
+
+    private static GeneratedRoutes generatedRoutes(Class<?> handlerClass) {
+        try {
+            Class<?> table = Class.forName(handlerClass.getName() + GENERATED_SUFFIX, true, handlerClass.getClassLoader());
+            return (GeneratedRoutes) table.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+            // LinkageError: generated by a processor of another framework version
+            log.warn("Ignoring unusable route table for {}: {}", handlerClass.getName(), e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Describe a route method from its annotations, as the processor would have, for handlers
+     * compiled without it.
+     */
+    private static GeneratedRoute describe(Method m) {
+        String raw = m.getAnnotation(Route.class).value().trim();
+        List<Segment> segments = new ArrayList<>();
+        for (String p : raw.isEmpty() ? new String[0] : raw.split("\\s+")) {
+            segments.add(p.startsWith("<") && p.endsWith(">") ?
+                    Segment.arg(p.substring(1, p.length() - 1)) : Segment.literal(p));
+        }
+
+        List<Param> params = new ArrayList<>();
+        for (Parameter rp : m.getParameters()) {
+            boolean isSender = rp.isAnnotationPresent(Sender.class);
+            Arg arg = rp.getAnnotation(Arg.class);
+            OptionalArg opt = rp.getAnnotation(OptionalArg.class);
+            Range range = rp.getAnnotation(Range.class);
+            double min = range != null ? range.min() : -Double.MAX_VALUE;
+            double max = range != null ? range.max() : Double.MAX_VALUE;
+            Class<?> element = isSender ? null : elementType(rp, m);
+            if (isSender) params.add(Param.sender(rp.getType()));
+            else if (arg != null) params.add(Param.required(rp.getType(), element, arg.value(), min, max));
+            else if (opt != null) params.add(Param.optional(rp.getType(), element, opt.value(), opt.defaultValue(), min, max));
+            else throw new IllegalStateException("Parameter missing @Sender/@Arg/@OptionalArg on " + m);
+        }
+
+        String permission = Optional.ofNullable(m.getAnnotation(Permission.class)).map(Permission::value).orElse(null);
+        String description = Optional.ofNullable(m.getAnnotation(Description.class)).map(Description::value).orElse("");
+
+        Class<?> type = m.getDeclaringClass();
+        Async async = m.getAnnotation(Async.class);
+        Cooldown cooldown = Optional.ofNullable(m.getAnnotation(Cooldown.class)).orElse(type.getAnnotation(Cooldown.class));
+        RateLimit rateLimit = Optional.ofNullable(m.getAnnotation(RateLimit.class)).orElse(type.getAnnotation(RateLimit.class));
+
+        return new GeneratedRoute(m.getName(), List.of(m.getParameterTypes()), RouteInvokers.compile(m), segments,
+                params, permission, description, async != null ? AsyncSettings.of(async) : null,
+                cooldown != null ? Limit.of(cooldown) : null, rateLimit != null ? Limit.of(rateLimit) : null);
+    }
+
+    /**
+     * Bind a described route.
+     *
+     * @param m the route method, if it was already looked up
+     */
+    private BoundRoute bindRoute(Supplier<?> instance, Class<?> handlerType, Method m, GeneratedRoute route,
+                                 String root, String classPerm) {
+        Key key = new Key(handlerType, route.method(), route.parameterTypes());
+        List<Segment> segments = route.path();
+        List<Param> params = route.params();
+
+        String effectivePerm = route.permission() != null ? route.permission() : classPerm;
+
+        Slot[] slots = compileSlots(key, segments, params);
+
+        StringJoiner label = new StringJoiner(" ");
+        if (!root.isEmpty()) label.add(root);
+        for (Segment segment : segments) {
+            label.add(segment.literal() ? segment.token() : "<" + segment.token() + ">");
+        }
+        String name = label.toString();
+
+        AsyncSettings async = route.async();
+        AsyncRouteGate gate = async == null ? null
+                : asyncGates.computeIfAbsent(key, k -> new AsyncRouteGate(name, async, this::executeAsync));
+        RouteMetrics metrics = routeMetrics.computeIfAbsent(key, k -> new RouteMetrics(name));
+
+        RouteLimiter[] limiters = routeLimiters.computeIfAbsent(key, k -> bindLimiters(route));
+
+        return new BoundRoute(instance, name, key, m, route.invoker(), segments, params, slots, effectivePerm,
+                route.description(), gate, async != null ? async.timeoutMs() : 0, limiters, metrics);
+    }
+
+    /**
+     * The element type of a {@code Collection}, {@code List} or {@code Set} parameter, or null
+     * for any other parameter.
+     */
+    private static Class<?> elementType(Parameter rp, Method m) {
+        Class<?> type = rp.getType();
+        if (type != Collection.class && type != List.class && type != Set.class) {
+            return null;
+        }
+        if (rp.getParameterizedType() instanceof ParameterizedType generic) {
+            Type element = generic.getActualTypeArguments()[0];
+            if (element instanceof Class<?> elementClass) {
+                return Primitives.wrap(elementClass);
+            }
+        }
+        throw new IllegalStateException("Collection parameter " + rp.getName() + " on " + m
+                + " must declare a concrete element type, e.g. List<Player>");
+    }
+
+    private static RouteLimiter[] bindLimiters(GeneratedRoute route) {
+        List<RouteLimiter> limiters = new ArrayList<>(3);
+        for (Limit limit : new Limit[] {route.cooldown(), route.rateLimit()}) {
+            if (limit == null || limit.period() <= 0) continue;
+            if (limit.permits() > 0) limiters.add(RouteLimiter.perPlayer(limit));
+            if (limit.globalPermits() > 0) limiters.add(RouteLimiter.global(limit));
+        }
+        return limiters.toArray(RouteLimiter[]::new);
+    }
+}
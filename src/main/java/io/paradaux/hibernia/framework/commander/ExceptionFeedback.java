@@ -0,0 +1,98 @@
+package io.paradaux.hibernia.framework.commander;
+
+import com.google.inject.Provider;
+import io.paradaux.hibernia.framework.exceptions.HiberniaException;
+import io.paradaux.hibernia.framework.exceptions.MessageKey;
+import io.paradaux.hibernia.framework.i18n.Message;
+import lombok.extern.slf4j.Slf4j;
+import org.bukkit.command.CommandSender;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps exceptions from routes and argument resolution to {@link Message} keys, for failures
+ * that are the sender's doing rather than a bug.
+ *
+ * <p>A type is mapped by {@link MessageKey} on it or a superclass, or explicitly through
+ * {@link #map}; the nearest mapping in the class hierarchy wins. Lookups are cached per type.
+ * {@link Message} is only created the first time a mapped failure is reported, so plugins that
+ * never use it don't need a {@code messages.properties}; without it, or if the key is not
+ * defined, the exception message is sent as is.</p>
+ */
+@Slf4j
+final class ExceptionFeedback {
+
+    private static final String UNMAPPED = "";
+
+    private final Provider<Message> messageProvider;
+    private final Map<Class<?>, String> explicit = new ConcurrentHashMap<>();
+    private final Map<Class<?>, String> resolved = new ConcurrentHashMap<>();
+
+    private volatile Message messages;
+    private volatile boolean messagesUnavailable;
+
+    ExceptionFeedback(Provider<Message> messageProvider) {
+        this.messageProvider = messageProvider;
+    }
+
+    void map(Class<? extends Throwable> type, String messageKey) {
+        explicit.put(type, messageKey);
+        resolved.clear();
+    }
+
+    /**
+     * Send the sender the feedback for an expected failure. Main thread only.
+     *
+     * @return false if the failure is not mapped, i.e. unexpected
+     */
+    boolean report(CommandSender sender, Throwable error) {
+        String key = error instanceof HiberniaException framework && framework.messageKey() != null
+                ? framework.messageKey()
+                : keyFor(error.getClass());
+        if (key == null) return false;
+
+        Message message = messages();
+        if (message != null && message.has(key)) {
+            Object[] placeholders = error instanceof HiberniaException framework
+                    ? framework.placeholders()
+                    : new Object[] {"message", String.valueOf(error.getMessage())};
+            message.send(sender, key, placeholders);
+        } else {
+            sender.sendMessage("§c" + error.getMessage());
+        }
+        return true;
+    }
+
+    private String keyFor(Class<?> type) {
+        String key = resolved.get(type);
+        if (key == null) {
+            key = UNMAPPED;
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                String mapped = explicit.get(c);
+                if (mapped == null) {
+                    MessageKey annotation = c.getDeclaredAnnotation(MessageKey.class);
+                    mapped = annotation != null ? annotation.value() : null;
+                }
+                if (mapped != null) {
+                    key = mapped;
+                    break;
+                }
+            }
+            resolved.put(type, key);
+        }
+        return key == UNMAPPED ? null : key;
+    }
+
+    private Message messages() {
+        if (messages == null && !messagesUnavailable) {
+            try {
+                messages = messageProvider.get();
+            } catch (RuntimeException e) {
+                messagesUnavailable = true;
+                log.warn("Messages unavailable, sending command errors unformatted: {}", e.getMessage());
+            }
+        }
+        return messages;
+    }
+}
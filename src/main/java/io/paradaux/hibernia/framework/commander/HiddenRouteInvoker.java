@@ -0,0 +1,30 @@
+package io.paradaux.hibernia.framework.commander;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Template for per-route hidden classes created by {@link RouteInvokers#compile(java.lang.reflect.Method)}.
+ *
+ * <p>This class is never instantiated directly. Its bytes are re-defined as a hidden class for every
+ * route with the route's {@link MethodHandle} as class data, which makes {@link #HANDLE} a true
+ * constant per route and lets the JIT inline the handler method into the call site.</p>
+ */
+final class HiddenRouteInvoker implements RouteInvoker {
+
+    private static final MethodHandle HANDLE;
+
+    static {
+        try {
+            HANDLE = MethodHandles.classData(MethodHandles.lookup(), ConstantDescs.DEFAULT_NAME, MethodHandle.class);
+        } catch (IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Override
+    public Object invoke(Object instance, Object[] args) throws Throwable {
+        return (Object) HANDLE.invokeExact(instance, args);
+    }
+}
@@ -0,0 +1,50 @@
+package io.paradaux.hibernia.framework.commander;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the pending futures of routes, per player, so they can be cancelled when the player
+ * disconnects. Only futures owned by the dispatcher are tracked, never one returned by a route
+ * method; the dispatcher passes the cancellation on to a returned CompletableFuture itself.
+ */
+final class InFlightRoutes implements Listener {
+
+    private final Map<UUID, Set<CompletableFuture<?>>> pending = new ConcurrentHashMap<>();
+
+    void track(UUID player, CompletableFuture<?> future) {
+        if (future.isDone()) return;
+
+        pending.compute(player, (k, futures) -> {
+            if (futures == null) futures = ConcurrentHashMap.newKeySet();
+            futures.add(future);
+            return futures;
+        });
+        future.whenComplete((result, error) ->
+                pending.computeIfPresent(player, (k, futures) -> {
+                    futures.remove(future);
+                    return futures.isEmpty() ? null : futures;
+                }));
+    }
+
+    /** Cancel everything pending for a player. */
+    void cancel(UUID player) {
+        Set<CompletableFuture<?>> futures = pending.remove(player);
+        if (futures != null) {
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        cancel(event.getPlayer().getUniqueId());
+    }
+}
@@ -0,0 +1,89 @@
+package io.paradaux.hibernia.framework.commander;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent latency histogram with power-of-two nanosecond buckets.
+ *
+ * <p>Recording is a leading-zero count and two striped-counter increments, with no allocation
+ * once the counters' cells exist. Percentiles are therefore approximate: they report the upper
+ * bound of the bucket the percentile falls in, i.e. within a factor of two of the true value.</p>
+ */
+public final class LatencyHistogram {
+
+    // Bucket i holds values in [2^(i-1), 2^i); the last bucket is open-ended (2^40ns is ~18 minutes)
+    private static final int BUCKETS = 41;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+        buckets[bucket].increment();
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * Summarise the values recorded so far. Concurrent recordings may or may not be included.
+     *
+     * @return the summary
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        long maxNanos = max.get();
+        return new Snapshot(count, sum.sum(), maxNanos,
+                percentile(counts, count, 0.50, maxNanos),
+                percentile(counts, count, 0.90, maxNanos),
+                percentile(counts, count, 0.99, maxNanos));
+    }
+
+    void reset() {
+        for (LongAdder bucket : buckets) bucket.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    private static long percentile(long[] counts, long total, double quantile, long maxNanos) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(maxNanos, i == 0 ? 0 : (1L << i) - 1);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * Summary of a {@link LatencyHistogram}; all times in nanoseconds.
+     *
+     * @param count values recorded
+     * @param sumNanos sum of all values
+     * @param maxNanos largest value
+     * @param p50Nanos median, to within a factor of two
+     * @param p90Nanos 90th percentile, to within a factor of two
+     * @param p99Nanos 99th percentile, to within a factor of two
+     */
+    public record Snapshot(long count, long sumNanos, long maxNanos, long p50Nanos, long p90Nanos, long p99Nanos) {
+        public double meanNanos() {
+            return count == 0 ? 0 : (double) sumNanos / count;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.paradaux.hibernia.framework.commander;
+
+import io.paradaux.hibernia.framework.commander.annotations.Description;
+import io.paradaux.hibernia.framework.commander.annotations.Route;
+import io.paradaux.hibernia.framework.commander.annotations.Sender;
+import io.paradaux.hibernia.framework.commander.spi.CommandHandler;
+import org.bukkit.command.CommandSender;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Built-in {@code metrics} command, registered by a CommandManager under the label and
+ * permission given to {@link CommandManager#enableMetricsCommand}. Lists the routes with the
+ * most total execution time.
+ */
+final class MetricsCommand implements CommandHandler {
+
+    private static final int SHOWN = 10;
+
+    private final CommandManager manager;
+
+    MetricsCommand(CommandManager manager) {
+        this.manager = manager;
+    }
+
+    @Route("metrics")
+    @Description("Show command execution metrics")
+    public void metrics(@Sender CommandSender sender) {
+        List<RouteMetrics> routes = manager.getRouteMetrics().stream()
+                .filter(m -> m.invocations() > 0 || m.failures() > 0)
+                .sorted(Comparator.comparingLong((RouteMetrics m) -> m.totalTime().sumNanos()).reversed())
+                .limit(SHOWN)
+                .toList();
+
+        if (routes.isEmpty()) {
+            sender.sendMessage("§7No commands have run yet.");
+            return;
+        }
+
+        sender.sendMessage("§6Command metrics §7(p50 / p99 total, busiest first)");
+        for (RouteMetrics m : routes) {
+            var total = m.totalTime();
+            StringBuilder line = new StringBuilder()
+                    .append("§e/").append(m.route())
+                    .append(" §7x").append(m.invocations())
+                    .append(" §f").append(millis(total.p50Nanos())).append(" §7/ §f").append(millis(total.p99Nanos()));
+
+            var resolve = m.resolveTime();
+            if (resolve.p99Nanos() > 0) {
+                line.append(" §7resolve p99 ").append(millis(resolve.p99Nanos()));
+            }
+            var queued = m.queueWait();
+            if (queued.count() > 0) {
+                line.append(" §7queue p99 ").append(millis(queued.p99Nanos()));
+            }
+            if (m.failures() > 0) {
+                line.append(" §c").append(m.failures()).append(" failed");
+                for (Map.Entry<String, Long> failure : m.failuresByType().entrySet()) {
+                    line.append(" §7").append(failure.getKey()).append("=").append(failure.getValue());
+                }
+            }
+            sender.sendMessage(line.toString());
+        }
+    }
+
+    @Route("metrics reset")
+    @Description("Reset command execution metrics")
+    public void reset(@Sender CommandSender sender) {
+        manager.getRouteMetrics().forEach(RouteMetrics::reset);
+        sender.sendMessage("§aCommand metrics reset.");
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2fms", nanos / 1_000_000.0);
+    }
+}
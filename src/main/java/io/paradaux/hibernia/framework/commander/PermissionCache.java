@@ -0,0 +1,86 @@
+package io.paradaux.hibernia.framework.commander;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memo of a player's permission decisions while their command tree is built. Only the tree's
+ * {@code requires} predicates use it: a build evaluates one per guarded node, often for the
+ * same few permissions. It does not gate execution; executing a route checks the permission
+ * directly, so a revoked permission takes effect at once.
+ *
+ * <p>Decisions live for about a tick, which covers one tree build, so the tree resent after a
+ * permission change is built from fresh decisions. They are also dropped when a player quits or
+ * changes world (permissions may be per-world), and can be invalidated explicitly through the
+ * CommandManager. Non-player senders are never cached.</p>
+ */
+final class PermissionCache implements Listener {
+
+    // One tick
+    private static final long TTL_MILLIS = 50;
+
+    private final Map<UUID, Decisions> players = new ConcurrentHashMap<>();
+
+    boolean hasPermission(CommandSender sender, String permission) {
+        if (!(sender instanceof Player player)) {
+            return sender.hasPermission(permission);
+        }
+
+        long now = System.currentTimeMillis();
+        Decisions decisions = players.get(player.getUniqueId());
+        if (decisions == null || decisions.expiresAt < now) {
+            decisions = new Decisions(now + TTL_MILLIS);
+            players.put(player.getUniqueId(), decisions);
+        }
+
+        Boolean cached = decisions.byPermission.get(permission);
+        if (cached != null) return cached;
+
+        boolean allowed = player.hasPermission(permission);
+        decisions.byPermission.put(permission, allowed);
+        return allowed;
+    }
+
+    boolean hasAnyPermission(CommandSender sender, String[] permissions) {
+        for (String permission : permissions) {
+            if (hasPermission(sender, permission)) return true;
+        }
+        return false;
+    }
+
+    void invalidate(UUID player) {
+        players.remove(player);
+    }
+
+    void invalidateAll() {
+        players.clear();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        invalidate(event.getPlayer().getUniqueId());
+    }
+
+    private static final class Decisions {
+        final long expiresAt;
+        final Map<String, Boolean> byPermission = new ConcurrentHashMap<>();
+
+        Decisions(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.paradaux.hibernia.framework.commander;
+
+import org.bukkit.command.CommandSender;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * The server-agnostic core of the commander: binds handler classes to routes and runs them.
+ *
+ * <p>Nothing here needs a running server. The {@link CommandManager} adapts it to Paper,
+ * emitting a Brigadier tree from a {@link RouteTree} and passing Brigadier's parsed arguments
+ * to {@link #execute}; benchmarks and tests match input against a {@link RouteTree} instead.</p>
+ */
+public interface RouteDispatcher {
+
+    /**
+     * Bind a handler's routes, from its generated route table if the annotation processor
+     * produced one, otherwise by scanning the class.
+     *
+     * @param handlerType the handler class, read without instantiating it
+     * @param handler supplies the instance the routes are invoked on
+     * @return the bound routes, empty if the class has none
+     */
+    List<BoundRoute> bind(Class<?> handlerType, Supplier<?> handler);
+
+    /**
+     * Run a route for a sender: check its permission and limits, resolve its arguments and
+     * invoke it, on the thread its annotations call for. Failures are reported to the sender.
+     *
+     * @return 1 if the route was run or queued, 0 if it was rejected
+     */
+    int execute(BoundRoute route, CommandSender sender, ArgumentSource arguments);
+
+    /**
+     * Tab-completion suggestions for one of a route's arguments.
+     *
+     * @param param the argument's parameter
+     * @param input what the sender has typed of the argument so far
+     */
+    CompletableFuture<List<String>> suggest(BoundRoute.Param param, String input, CommandSender sender);
+}
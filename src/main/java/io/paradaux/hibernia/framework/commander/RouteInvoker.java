@@ -0,0 +1,26 @@
+package io.paradaux.hibernia.framework.commander;
+
+/**
+ * Calls a bound route method on its handler instance.
+ *
+ * <p>An invoker is built once per route when the command tree is bound (see
+ * {@link RouteInvokers#compile(java.lang.reflect.Method)}) and reused for every execution,
+ * so dispatch does not pay for reflective access checks or argument boxing beyond the
+ * argument array itself.</p>
+ *
+ * <p>Exceptions thrown by the route method propagate unchanged; they are never wrapped in
+ * {@link java.lang.reflect.InvocationTargetException}.</p>
+ */
+@FunctionalInterface
+public interface RouteInvoker {
+
+    /**
+     * Invoke the route method.
+     *
+     * @param instance the handler instance owning the method
+     * @param args the method arguments, in declaration order
+     * @return the method's return value, or {@code null} for {@code void} methods
+     * @throws Throwable anything thrown by the route method itself
+     */
+    Object invoke(Object instance, Object[] args) throws Throwable;
+}
@@ -0,0 +1,120 @@
+package io.paradaux.hibernia.framework.commander;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Factory for {@link RouteInvoker}s.
+ *
+ * <p>{@link #compile(Method)} adapts the route method into a single {@link MethodHandle} of
+ * shape {@code (Object, Object[])Object}, with the receiver cast, argument spreading and
+ * unboxing folded into the handle, and then defines a hidden class holding that handle in a
+ * {@code static final} field (see {@link HiddenRouteInvoker}). A handle stored in an ordinary
+ * field can't be inlined by the JIT, so without the hidden class a handle call is no cheaper
+ * than {@link Method#invoke}.</p>
+ *
+ * <p>If the hidden class cannot be defined the plain handle is used, and if the handle cannot
+ * be created either (for example because the handler lives in a module that does not open its
+ * package) {@link #reflective(Method)} is used.</p>
+ */
+public final class RouteInvokers {
+
+    private static final MethodType INVOKER_TYPE =
+            MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final byte[] TEMPLATE = loadTemplate();
+
+    private RouteInvokers() {}
+
+    /**
+     * Build the fastest available invoker for the given method.
+     *
+     * @param method the route method
+     * @return a hidden-class or method-handle backed invoker, or a reflective one if neither can be built
+     */
+    public static RouteInvoker compile(Method method) {
+        MethodHandle handle;
+        try {
+            handle = adapt(method);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return reflective(method);
+        }
+
+        if (TEMPLATE != null) {
+            try {
+                Class<?> hidden = LOOKUP.defineHiddenClassWithClassData(TEMPLATE, handle, true).lookupClass();
+                return (RouteInvoker) LOOKUP.findConstructor(hidden, MethodType.methodType(void.class)).invoke();
+            } catch (Throwable ignored) {
+                // fall through to the plain handle
+            }
+        }
+        return new MethodHandleInvoker(handle);
+    }
+
+    /**
+     * Build an invoker backed by a spread, type-erased {@link MethodHandle} held in an instance field.
+     *
+     * @param method the route method
+     * @return the invoker
+     * @throws IllegalAccessException if the method cannot be looked up privately
+     */
+    public static RouteInvoker methodHandle(Method method) throws IllegalAccessException {
+        return new MethodHandleInvoker(adapt(method));
+    }
+
+    private static MethodHandle adapt(Method method) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), LOOKUP);
+        MethodHandle target = lookup.unreflect(method);
+
+        if (Modifier.isStatic(method.getModifiers())) {
+            // Keep the (instance, args) shape; the receiver is simply ignored
+            target = MethodHandles.dropArguments(target, 0, Object.class);
+        }
+
+        return target
+                .asSpreader(Object[].class, method.getParameterCount())
+                .asType(INVOKER_TYPE);
+    }
+
+    private static byte[] loadTemplate() {
+        String resource = HiddenRouteInvoker.class.getSimpleName() + ".class";
+        try (InputStream in = HiddenRouteInvoker.class.getResourceAsStream(resource)) {
+            return in == null ? null : in.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Build an invoker that goes through {@link Method#invoke(Object, Object...)}.
+     *
+     * <p>Kept as a fallback; exceptions from the route method are unwrapped from
+     * {@link InvocationTargetException} so both invokers behave the same to callers.</p>
+     *
+     * @param method the route method
+     * @return the invoker
+     */
+    public static RouteInvoker reflective(Method method) {
+        method.setAccessible(true);
+        return (instance, args) -> {
+            try {
+                return method.invoke(instance, args);
+            } catch (InvocationTargetException ite) {
+                throw ite.getTargetException();
+            }
+        };
+    }
+
+    private record MethodHandleInvoker(MethodHandle handle) implements RouteInvoker {
+        @Override
+        public Object invoke(Object instance, Object[] args) throws Throwable {
+            return (Object) handle.invokeExact(instance, args);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.paradaux.hibernia.framework.commander;
+
+import io.paradaux.hibernia.framework.commander.annotations.Cooldown;
+import io.paradaux.hibernia.framework.commander.annotations.RateLimit;
+import io.paradaux.hibernia.framework.commander.spi.GeneratedRoute.Limit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One {@link Cooldown} or {@link RateLimit} bucket set for a route: either one bucket per player
+ * or a single global bucket.
+ *
+ * <p>Buckets use the generic cell rate algorithm: the whole state of a bucket is its theoretical
+ * arrival time, held in an {@link AtomicLong} and advanced by one emission interval per permit
+ * with a CAS, so acquiring never locks. A bucket whose arrival time has passed is full and is
+ * indistinguishable from a new one, which is what lets {@link #expire(long)} drop it.</p>
+ */
+final class RouteLimiter {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long intervalNanos;
+    private final long windowNanos;
+    private final String message;
+    private final Map<UUID, AtomicLong> players;
+    private final AtomicLong global;
+
+    private RouteLimiter(int permits, long windowNanos, String message, boolean perPlayer) {
+        this.intervalNanos = windowNanos / permits;
+        this.windowNanos = windowNanos;
+        this.message = message;
+        this.players = perPlayer ? new ConcurrentHashMap<>() : null;
+        this.global = perPlayer ? null : new AtomicLong(EMPTY);
+    }
+
+    /** The limit's per-player buckets; a cooldown is a limit of one permit per player. */
+    static RouteLimiter perPlayer(Limit limit) {
+        return new RouteLimiter(limit.permits(), limit.unit().toNanos(limit.period()), limit.message(), true);
+    }
+
+    static RouteLimiter global(Limit limit) {
+        return new RouteLimiter(limit.globalPermits(), limit.unit().toNanos(limit.period()), limit.message(), false);
+    }
+
+    /**
+     * Take a permit for the sender.
+     *
+     * @return 0 if a permit was taken, otherwise the nanoseconds until one is available
+     */
+    long tryAcquire(CommandSender sender, long now) {
+        AtomicLong bucket = bucket(sender);
+        if (bucket == null) return 0;
+
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + intervalNanos;
+            long wait = next - windowNanos - now;
+            if (wait > 0) return wait;
+            if (bucket.compareAndSet(arrival, next)) return 0;
+        }
+    }
+
+    /** Give back a permit taken by {@link #tryAcquire}, when a later limiter rejected the use. */
+    void release(CommandSender sender) {
+        AtomicLong bucket = bucket(sender);
+        if (bucket != null) {
+            bucket.addAndGet(-intervalNanos);
+        }
+    }
+
+    /**
+     * Drop per-player buckets that have refilled. A use racing with removal may land on the
+     * dropped bucket, which at most grants that player one extra use.
+     */
+    void expire(long now) {
+        if (players != null) {
+            players.values().removeIf(bucket -> bucket.get() <= now);
+        }
+    }
+
+    String message(long waitNanos) {
+        return message.replace("{remaining}", formatRemaining(waitNanos));
+    }
+
+    private AtomicLong bucket(CommandSender sender) {
+        if (global != null) return global;
+        if (!(sender instanceof Player player)) return null;
+
+        UUID id = player.getUniqueId();
+        AtomicLong bucket = players.get(id);
+        return bucket != null ? bucket : players.computeIfAbsent(id, k -> new AtomicLong(EMPTY));
+    }
+
+    private static String formatRemaining(long nanos) {
+        long seconds = Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+        if (seconds < 60) return seconds + "s";
+        long minutes = seconds / 60;
+        if (minutes < 60) return minutes + "m " + (seconds % 60) + "s";
+        return (minutes / 60) + "h " + (minutes % 60) + "m";
+    }
+}
@@ -0,0 +1,104 @@
+package io.paradaux.hibernia.framework.commander;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution metrics for one command route, recorded by the CommandManager since startup or the
+ * last {@link #reset()}.
+ *
+ * <p>Times are split into argument resolution, the route method itself (until any
+ * CompletionStage it returned completes), the whole execution from dispatch to completion,
+ * and, for {@link io.paradaux.hibernia.framework.commander.annotations.Async @Async} routes,
+ * the time spent queued for a free slot.</p>
+ */
+public final class RouteMetrics {
+
+    private final String route;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final Map<Class<?>, LongAdder> failuresByType = new ConcurrentHashMap<>();
+    private final LatencyHistogram resolveTime = new LatencyHistogram();
+    private final LatencyHistogram invokeTime = new LatencyHistogram();
+    private final LatencyHistogram totalTime = new LatencyHistogram();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+
+    RouteMetrics(String route) {
+        this.route = route;
+    }
+
+    /** The route label, e.g. {@code "eco pay <player> <amount>"}. */
+    public String route() {
+        return route;
+    }
+
+    /** Times the route method was called. */
+    public long invocations() {
+        return invocations.sum();
+    }
+
+    /** Executions that failed, in argument resolution or in the route. */
+    public long failures() {
+        return failures.sum();
+    }
+
+    /** Failures keyed by the simple name of the exception type. */
+    public Map<String, Long> failuresByType() {
+        Map<String, Long> counts = new TreeMap<>();
+        failuresByType.forEach((type, count) -> counts.merge(type.getSimpleName(), count.sum(), Long::sum));
+        return counts;
+    }
+
+    public LatencyHistogram.Snapshot resolveTime() {
+        return resolveTime.snapshot();
+    }
+
+    public LatencyHistogram.Snapshot invokeTime() {
+        return invokeTime.snapshot();
+    }
+
+    public LatencyHistogram.Snapshot totalTime() {
+        return totalTime.snapshot();
+    }
+
+    public LatencyHistogram.Snapshot queueWait() {
+        return queueWait.snapshot();
+    }
+
+    public void reset() {
+        invocations.reset();
+        failures.reset();
+        failuresByType.clear();
+        resolveTime.reset();
+        invokeTime.reset();
+        totalTime.reset();
+        queueWait.reset();
+    }
+
+    void recordResolve(long nanos) {
+        resolveTime.record(nanos);
+    }
+
+    void recordInvocation() {
+        invocations.increment();
+    }
+
+    void recordInvoke(long nanos) {
+        invokeTime.record(nanos);
+    }
+
+    void recordTotal(long nanos) {
+        totalTime.record(nanos);
+    }
+
+    void recordQueueWait(long nanos) {
+        queueWait.record(nanos);
+    }
+
+    void recordFailure(Throwable error) {
+        failures.increment();
+        failuresByType.computeIfAbsent(error.getClass(), k -> new LongAdder()).increment();
+    }
+}
@@ -0,0 +1,166 @@
+package io.paradaux.hibernia.framework.commander;
+
+import com.google.common.primitives.Primitives;
+import io.paradaux.hibernia.framework.commander.BoundRoute.Param;
+import io.paradaux.hibernia.framework.commander.BoundRoute.Segment;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The routes under one root label, merged into a trie with a single node per distinct prefix.
+ *
+ * <p>The CommandManager emits a Brigadier tree from it. {@link #match(String)} walks it
+ * directly, for driving a {@link RouteDispatcher} without Brigadier: arguments are split on
+ * whitespace and passed on as strings, and literals are tried before arguments.</p>
+ */
+@Slf4j
+public final class RouteTree {
+
+    final Node root;
+
+    public RouteTree(String label) {
+        this.root = new Node(Segment.literal(label), null);
+    }
+
+    public String label() {
+        return root.segment.token();
+    }
+
+    /**
+     * Add a route's path to the trie, reusing every node an earlier route already created for the
+     * same prefix. Argument nodes are shared only if they parse the same type; a literal and an
+     * argument under the same prefix are separate siblings, as in Brigadier.
+     *
+     * @throws IllegalStateException if the route declares a shared argument differently; the
+     *         trie is left unchanged
+     */
+    public void insert(BoundRoute route) {
+        Param[] params = new Param[route.path.size()];
+        for (int i = 0; i < params.length; i++) {
+            Segment segment = route.path.get(i);
+            if (segment.literal()) continue;
+            Param param = findParamByName(route, segment.token());
+            if (param == null) {
+                log.warn("Skipping route {}: no @Arg or @OptionalArg named '{}'", route, segment.token());
+                return;
+            }
+            params[i] = param;
+        }
+
+        // Check the whole path against existing nodes first, so a rejected route leaves no nodes behind
+        Node node = root;
+        for (int i = 0; i < params.length && node != null; i++) {
+            Segment segment = route.path.get(i);
+            node = node.children.get(key(segment));
+            if (node != null && params[i] != null && !sameArgument(node.param, params[i])) {
+                throw new IllegalStateException("Route " + route + " declares <" + segment.token()
+                        + "> differently from another route under the same prefix");
+            }
+        }
+
+        node = root;
+        for (int i = 0; i < params.length; i++) {
+            Segment segment = route.path.get(i);
+            Param param = params[i];
+            node = node.children.computeIfAbsent(key(segment), k -> new Node(segment, param));
+        }
+
+        if (node.route != null) {
+            log.warn("Route {} has the same path as {}; ignoring it", route, node.route);
+            return;
+        }
+        node.route = route;
+    }
+
+    /**
+     * Find the route for the input following the root label.
+     *
+     * @param input e.g. {@code "pay Notch 10"} for {@code /eco pay Notch 10}
+     * @return the route and its arguments, or null if no route matches
+     */
+    public Match match(String input) {
+        String trimmed = input.trim();
+        String[] tokens = trimmed.isEmpty() ? new String[0] : trimmed.split("\\s+");
+        Map<String, Object> values = new HashMap<>();
+        BoundRoute route = match(root, tokens, 0, values);
+        if (route == null) return null;
+
+        return new Match(route, name -> {
+            Object value = values.get(name);
+            if (value == null) throw new IllegalArgumentException("No such argument '" + name + "'");
+            return value;
+        });
+    }
+
+    private static BoundRoute match(Node node, String[] tokens, int index, Map<String, Object> values) {
+        if (index == tokens.length) return node.route;
+
+        String token = tokens[index];
+        Node literal = node.children.get(token.toLowerCase(Locale.ROOT));
+        if (literal != null && literal.segment.literal()) {
+            BoundRoute route = match(literal, tokens, index + 1, values);
+            if (route != null) return route;
+        }
+
+        for (Node child : node.children.values()) {
+            if (child.segment.literal()) continue;
+            String name = child.segment.token();
+            if (child.param.elementType() != null) {
+                // A collection is always last, and takes the rest of the input
+                if (child.route != null) {
+                    values.put(name, String.join(" ", Arrays.copyOfRange(tokens, index, tokens.length)));
+                    return child.route;
+                }
+                continue;
+            }
+            values.put(name, token);
+            BoundRoute route = match(child, tokens, index + 1, values);
+            if (route != null) return route;
+            values.remove(name);
+        }
+        return null;
+    }
+
+    /** Literals and arguments are keyed apart, so a literal and an argument can be siblings. */
+    private static String key(Segment segment) {
+        return segment.literal() ? segment.token() : "<" + segment.token() + ">";
+    }
+
+    private static Param findParamByName(BoundRoute route, String name) {
+        for (Param p : route.params) {
+            if (!p.sender() && p.name().equals(name)) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    private static boolean sameArgument(Param a, Param b) {
+        return Primitives.wrap(a.type()) == Primitives.wrap(b.type()) && a.elementType() == b.elementType()
+                && a.min() == b.min() && a.max() == b.max();
+    }
+
+    /**
+     * @param route the matched route
+     * @param arguments its arguments, as typed
+     */
+    public record Match(BoundRoute route, ArgumentSource arguments) {}
+
+    /** A node of the trie; {@code param} is set for argument nodes. */
+    static final class Node {
+        final Segment segment;
+        final Param param;
+        final Map<String, Node> children = new LinkedHashMap<>();
+        BoundRoute route;
+
+        Node(Segment segment, Param param) {
+            this.segment = segment;
+            this.param = param;
+        }
+    }
+}
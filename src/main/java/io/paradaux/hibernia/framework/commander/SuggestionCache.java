@@ -0,0 +1,88 @@
+package io.paradaux.hibernia.framework.commander;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.paradaux.hibernia.framework.commander.spi.ParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.SuggestionCaching;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tab-completion cache for resolvers that opt in via {@link ParameterResolver#suggestionCaching()}.
+ *
+ * <p>Each resolver gets its own size-bounded cache with that resolver's TTL. Entries are futures,
+ * so concurrent misses for the same key share one computation, which runs on the supplied
+ * executor rather than the thread asking for suggestions. For filterable resolvers a miss on
+ * {@code "abc"} is first answered from a completed entry for {@code "ab"}, {@code "a"} or
+ * {@code ""} if one is cached; such filtered answers are not cached themselves, so nothing is
+ * served for longer than the TTL after the resolver was asked.</p>
+ */
+final class SuggestionCache {
+
+    private static final int MAX_ENTRIES_PER_RESOLVER = 1024;
+
+    private final Executor executor;
+    private final Map<ParameterResolver<?>, Cache<Key, CompletableFuture<List<String>>>> caches = new ConcurrentHashMap<>();
+
+    SuggestionCache(Executor executor) {
+        this.executor = executor;
+    }
+
+    CompletableFuture<List<String>> suggestions(ParameterResolver<?> resolver, String input, CommandSender sender) {
+        SuggestionCaching caching = resolver.suggestionCaching();
+        Cache<Key, CompletableFuture<List<String>>> cache = caches.computeIfAbsent(resolver, r ->
+                CacheBuilder.newBuilder()
+                        .maximumSize(MAX_ENTRIES_PER_RESOLVER)
+                        .expireAfterWrite(caching.ttlMillis(), TimeUnit.MILLISECONDS)
+                        .build());
+
+        String prefix = input.toLowerCase(Locale.ROOT);
+        Object senderKey = caching.perSender() ? DefaultRouteDispatcher.senderKey(sender) : null;
+        Key key = new Key(prefix, senderKey);
+
+        CompletableFuture<List<String>> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (caching.filterable()) {
+            for (int len = prefix.length() - 1; len >= 0; len--) {
+                CompletableFuture<List<String>> shorter = cache.getIfPresent(new Key(prefix.substring(0, len), senderKey));
+                if (shorter != null && shorter.isDone() && !shorter.isCompletedExceptionally()) {
+                    // Not cached itself, so it can never outlive the entry it was filtered from
+                    return CompletableFuture.completedFuture(filter(shorter.join(), prefix));
+                }
+            }
+        }
+
+        try {
+            CompletableFuture<List<String>> computed = cache.get(key, () ->
+                    CompletableFuture.supplyAsync(() -> List.copyOf(resolver.suggestions(input, sender)), executor));
+            computed.whenComplete((list, error) -> {
+                if (error != null) cache.invalidate(key);
+            });
+            return computed;
+        } catch (ExecutionException e) {
+            return CompletableFuture.failedFuture(e.getCause());
+        }
+    }
+
+    private static List<String> filter(List<String> candidates, String prefix) {
+        List<String> out = new ArrayList<>();
+        for (String candidate : candidates) {
+            if (candidate.regionMatches(true, 0, prefix, 0, prefix.length())) out.add(candidate);
+        }
+        return out;
+    }
+
+    private record Key(String prefix, Object sender) {}
+}
@@ -8,8 +8,18 @@ import java.lang.annotation.Target;
 /**
  * Marks a command route method to be executed asynchronously.
  *
- * <p>When present the CommandManager will schedule the method to run off the main server
- * thread using the plugin scheduler.</p>
+ * <p>When present the CommandManager will run the method off the main server thread on its
+ * async executor (virtual threads by default, see
+ * {@link io.paradaux.hibernia.framework.commander.CommandManager#setAsyncExecutor(java.util.concurrent.Executor)}).</p>
+ *
+ * <p>Concurrency can be limited per route and per sender. Executions beyond
+ * {@link #maxConcurrent()} wait in a per-route queue of at most {@link #queueLimit()} entries;
+ * anything beyond that, or beyond {@link #maxConcurrentPerSender()}, is rejected and the sender
+ * is sent {@link #rejectMessage()}.</p>
+ *
+ * <p>Route methods may return a {@link java.util.concurrent.CompletionStage}. The execution then
+ * lasts until the stage completes (no thread is held while it is pending), is failed after
+ * {@link #timeoutMs()}, and is cancelled if the sending player disconnects first.</p>
  *
  * <p>Note: the annotated method must be thread-safe and avoid Bukkit API calls that require
  * the main thread unless explicitly wrapped back onto it.</p>
@@ -17,5 +27,18 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ElementType.METHOD})
 public @interface Async {
-    // Optional: timeout/cancel policy could go here later
+    /** Maximum executions of this route running at once; 0 for no limit */
+    int maxConcurrent() default 0;
+
+    /** Maximum executions of this route running or queued for a single sender; 0 for no limit */
+    int maxConcurrentPerSender() default 0;
+
+    /** Maximum executions waiting for a free slot; -1 for no limit, 0 to reject instead of queueing */
+    int queueLimit() default -1;
+
+    /** Time after which a returned CompletionStage is failed with a timeout; 0 for no timeout */
+    long timeoutMs() default 0;
+
+    /** Message sent to the sender when an execution is rejected */
+    String rejectMessage() default "§cThat command is busy, please try again shortly.";
 }
@@ -0,0 +1,27 @@
+package io.paradaux.hibernia.framework.commander.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes a player wait between uses of a command route.
+ *
+ * <p>Can be applied at class level (each route in the class gets its own cooldown) or method
+ * level (overrides the class-level cooldown for that route). The cooldown is checked before any
+ * argument is resolved; a player still cooling down is sent {@link #message()}, with
+ * {@code {remaining}} replaced by the time left. Console and other non-player senders are not
+ * subject to cooldowns.</p>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Cooldown {
+    /** Time a player must wait between uses */
+    long value();
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    String message() default "§cYou must wait {remaining} before using that again.";
+}
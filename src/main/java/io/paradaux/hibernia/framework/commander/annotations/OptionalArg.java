@@ -9,8 +9,9 @@ import java.lang.annotation.Target;
  * Marks a method parameter as an optional command argument with a default value.
  *
  * <p>If the argument is omitted by the caller, the {@code defaultValue} will be used.
- * The CommandManager will attempt to resolve the string default to the target parameter
- * type using registered {@code ParameterResolver}s.</p>
+ * The CommandManager resolves the string default to the target parameter type once, when
+ * the route is bound, using the registered {@code ParameterResolver}s. Defaults that can only
+ * be resolved against the actual sender are resolved at execution time instead.</p>
  *
  * <p>Example:
  * <pre>
@@ -33,7 +34,8 @@ public @interface OptionalArg {
 
     /**
      * A string form of the default value to use when the argument is not provided.
-     * The framework will attempt to resolve this value to the parameter type.
+     * The framework will attempt to resolve this value to the parameter type. An empty
+     * default yields {@code null}, or zero/{@code false} for primitive parameters.
      *
      * @return the default value as string
      */
@@ -0,0 +1,31 @@
+package io.paradaux.hibernia.framework.commander.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Bounds a numeric command argument.
+ *
+ * <p>The bounds are applied to the Brigadier argument type, so out-of-range input is rejected
+ * while parsing (and flagged by the client) before the route is invoked. Applies to
+ * {@code int}, {@code long}, {@code float}, {@code double} and {@code BigDecimal} parameters,
+ * including their boxed forms.</p>
+ *
+ * <p>Example:
+ * <pre>
+ * @Route("pay &lt;player&gt; &lt;amount&gt;")
+ * public void pay(@Arg("player") OfflinePlayer player, @Arg("amount") @Range(min = 0.01) BigDecimal amount) { ... }
+ * </pre>
+ * </p>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.PARAMETER)
+public @interface Range {
+    /** Inclusive lower bound */
+    double min() default -Double.MAX_VALUE;
+
+    /** Inclusive upper bound */
+    double max() default Double.MAX_VALUE;
+}
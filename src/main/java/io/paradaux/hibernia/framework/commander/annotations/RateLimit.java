@@ -0,0 +1,36 @@
+package io.paradaux.hibernia.framework.commander.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how often a command route may be used.
+ *
+ * <p>Each player may use the route {@link #permits()} times per {@link #period()}, in a burst or
+ * spread out; permits are regained continuously rather than all at once at the end of the
+ * period. If {@link #globalPermits()} is set the route is additionally limited across all
+ * senders, console included.</p>
+ *
+ * <p>Can be applied at class level (each route in the class is limited separately) or method
+ * level (overrides the class-level limit for that route). Limits are checked before any
+ * argument is resolved or async work is queued; a rejected sender is sent {@link #message()},
+ * with {@code {remaining}} replaced by the time until the next permit.</p>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface RateLimit {
+    /** Uses allowed per player per period; 0 for no per-player limit */
+    int permits();
+
+    long period() default 1;
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /** Uses allowed across all senders per period; 0 for no global limit */
+    int globalPermits() default 0;
+
+    String message() default "§cYou're doing that too often, try again in {remaining}.";
+}
@@ -0,0 +1,75 @@
+package io.paradaux.hibernia.framework.commander.arguments;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.arguments.DoubleArgumentType;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import io.papermc.paper.command.brigadier.argument.CustomArgumentType;
+
+import java.math.BigDecimal;
+
+/**
+ * Brigadier argument type producing an exact {@link BigDecimal}.
+ *
+ * <p>The client is sent a bounded {@code double} argument so it can validate input as it is
+ * typed, while the server reads the token straight into a {@code BigDecimal} so no precision
+ * is lost to a floating point round trip.</p>
+ */
+public final class BigDecimalArgumentType implements CustomArgumentType<BigDecimal, Double> {
+
+    private final double min;
+    private final double max;
+    private final BigDecimal minimum;
+    private final BigDecimal maximum;
+
+    private BigDecimalArgumentType(double min, double max) {
+        this.min = min;
+        this.max = max;
+        this.minimum = min == -Double.MAX_VALUE ? null : BigDecimal.valueOf(min);
+        this.maximum = max == Double.MAX_VALUE ? null : BigDecimal.valueOf(max);
+    }
+
+    public static BigDecimalArgumentType bigDecimal() {
+        return new BigDecimalArgumentType(-Double.MAX_VALUE, Double.MAX_VALUE);
+    }
+
+    public static BigDecimalArgumentType bigDecimal(double min, double max) {
+        return new BigDecimalArgumentType(min, max);
+    }
+
+    @Override
+    public BigDecimal parse(StringReader reader) throws CommandSyntaxException {
+        int start = reader.getCursor();
+        while (reader.canRead() && StringReader.isAllowedNumber(reader.peek())) {
+            reader.skip();
+        }
+
+        String number = reader.getString().substring(start, reader.getCursor());
+        if (number.isEmpty()) {
+            throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.readerExpectedDouble().createWithContext(reader);
+        }
+
+        BigDecimal value;
+        try {
+            value = new BigDecimal(number);
+        } catch (NumberFormatException e) {
+            reader.setCursor(start);
+            throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.readerInvalidDouble().createWithContext(reader, number);
+        }
+
+        if (minimum != null && value.compareTo(minimum) < 0) {
+            reader.setCursor(start);
+            throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.doubleTooLow().createWithContext(reader, value, minimum);
+        }
+        if (maximum != null && value.compareTo(maximum) > 0) {
+            reader.setCursor(start);
+            throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.doubleTooHigh().createWithContext(reader, value, maximum);
+        }
+        return value;
+    }
+
+    @Override
+    public ArgumentType<Double> getNativeType() {
+        return DoubleArgumentType.doubleArg(min, max);
+    }
+}
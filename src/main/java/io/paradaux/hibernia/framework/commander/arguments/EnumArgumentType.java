@@ -0,0 +1,65 @@
+package io.paradaux.hibernia.framework.commander.arguments;
+
+import com.mojang.brigadier.LiteralMessage;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import io.papermc.paper.command.brigadier.argument.CustomArgumentType;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Brigadier argument type for enum constants, matched case-insensitively.
+ *
+ * <p>Constants are indexed once by lower-cased name; parsing is a single map lookup and
+ * suggestions list the matching constant names.</p>
+ *
+ * @param <E> the enum type
+ */
+public final class EnumArgumentType<E extends Enum<E>> implements CustomArgumentType.Converted<E, String> {
+
+    private static final DynamicCommandExceptionType UNKNOWN_CONSTANT =
+            new DynamicCommandExceptionType(value -> new LiteralMessage("Unknown value: " + value));
+
+    private final Map<String, E> constants = new LinkedHashMap<>();
+
+    private EnumArgumentType(Class<E> type) {
+        for (E constant : type.getEnumConstants()) {
+            constants.put(constant.name().toLowerCase(Locale.ROOT), constant);
+        }
+    }
+
+    public static <E extends Enum<E>> EnumArgumentType<E> enumArg(Class<E> type) {
+        return new EnumArgumentType<>(type);
+    }
+
+    @Override
+    public E convert(String nativeType) throws CommandSyntaxException {
+        E constant = constants.get(nativeType.toLowerCase(Locale.ROOT));
+        if (constant == null) {
+            throw UNKNOWN_CONSTANT.create(nativeType);
+        }
+        return constant;
+    }
+
+    @Override
+    public ArgumentType<String> getNativeType() {
+        return StringArgumentType.word();
+    }
+
+    @Override
+    public <S> CompletableFuture<Suggestions> listSuggestions(CommandContext<S> context, SuggestionsBuilder builder) {
+        String prefix = builder.getRemainingLowerCase();
+        for (String name : constants.keySet()) {
+            if (name.startsWith(prefix)) builder.suggest(name);
+        }
+        return builder.buildFuture();
+    }
+}
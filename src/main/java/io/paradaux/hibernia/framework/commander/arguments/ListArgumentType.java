@@ -0,0 +1,45 @@
+package io.paradaux.hibernia.framework.commander.arguments;
+
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import io.papermc.paper.command.brigadier.argument.CustomArgumentType;
+
+/**
+ * Brigadier argument type for list and selector tokens such as {@code alice,bob}, {@code @a}
+ * or {@code #staff}, which a plain word argument would reject.
+ *
+ * <p>The argument takes the rest of the input, so entries may also be separated by spaces, and
+ * the client is sent a greedy string argument: a word argument would reject {@code ,},
+ * {@code @} and {@code #}. Collection parameters must therefore be the last argument of their
+ * route, which binding enforces.</p>
+ */
+public final class ListArgumentType implements CustomArgumentType<String, String> {
+
+    private static final ListArgumentType INSTANCE = new ListArgumentType();
+
+    private ListArgumentType() {
+    }
+
+    public static ListArgumentType list() {
+        return INSTANCE;
+    }
+
+    @Override
+    public String parse(StringReader reader) throws CommandSyntaxException {
+        int start = reader.getCursor();
+        reader.setCursor(reader.getTotalLength());
+
+        String token = reader.getString().substring(start, reader.getCursor()).trim();
+        if (token.isEmpty()) {
+            throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.readerExpectedSymbol().createWithContext(reader, "value");
+        }
+        return token;
+    }
+
+    @Override
+    public ArgumentType<String> getNativeType() {
+        return StringArgumentType.greedyString();
+    }
+}
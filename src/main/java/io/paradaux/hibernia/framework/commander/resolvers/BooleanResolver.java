@@ -0,0 +1,24 @@
+package io.paradaux.hibernia.framework.commander.resolvers;
+
+import io.paradaux.hibernia.framework.commander.spi.ParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.Resolution;
+import org.bukkit.command.CommandSender;
+
+import java.util.Optional;
+
+public class BooleanResolver implements ParameterResolver<Boolean> {
+    public Class<Boolean> type() {
+        return Boolean.class;
+    }
+
+    public Optional<Boolean> resolve(String token, CommandSender sender) {
+        return tryResolve(token, sender).toOptional();
+    }
+
+    @Override
+    public Resolution<Boolean> tryResolve(String token, CommandSender sender) {
+        if ("true".equalsIgnoreCase(token)) return Resolution.of(Boolean.TRUE);
+        if ("false".equalsIgnoreCase(token)) return Resolution.of(Boolean.FALSE);
+        return Resolution.invalid();
+    }
+}
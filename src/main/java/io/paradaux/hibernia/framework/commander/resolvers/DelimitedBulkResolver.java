@@ -0,0 +1,53 @@
+package io.paradaux.hibernia.framework.commander.resolvers;
+
+import io.paradaux.hibernia.framework.commander.spi.BulkParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.ParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.Resolution;
+import org.bukkit.command.CommandSender;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fallback {@link BulkParameterResolver}: a comma (or space) separated list, each entry
+ * resolved with the element type's {@link ParameterResolver}. Fails if any entry does.
+ */
+public class DelimitedBulkResolver<T> implements BulkParameterResolver<T> {
+    private final ParameterResolver<T> element;
+
+    public DelimitedBulkResolver(ParameterResolver<T> element) {
+        this.element = element;
+    }
+
+    @Override
+    public Class<T> type() {
+        return element.type();
+    }
+
+    @Override
+    public Resolution<List<T>> resolveAll(String token, CommandSender sender) throws Exception {
+        Set<T> values = new LinkedHashSet<>();
+        for (String entry : token.split("[,\\s]+")) {
+            if (entry.isEmpty()) continue;
+            Resolution<T> value = element.tryResolve(entry, sender);
+            if (!value.isValid()) {
+                return Resolution.invalid(value.messageKey());
+            }
+            values.add(value.value());
+        }
+        return values.isEmpty() ? Resolution.invalid() : Resolution.of(new ArrayList<>(values));
+    }
+
+    @Override
+    public List<String> suggestions(String prefix, CommandSender sender) {
+        int split = prefix.lastIndexOf(',') + 1;
+        String head = prefix.substring(0, split);
+        List<String> suggestions = new ArrayList<>();
+        for (String suggestion : element.suggestions(prefix.substring(split), sender)) {
+            suggestions.add(head + suggestion);
+        }
+        return suggestions;
+    }
+}
@@ -0,0 +1,25 @@
+package io.paradaux.hibernia.framework.commander.resolvers;
+
+import com.google.common.primitives.Doubles;
+import io.paradaux.hibernia.framework.commander.spi.ParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.Resolution;
+import org.bukkit.command.CommandSender;
+
+import java.util.Optional;
+
+public class FloatResolver implements ParameterResolver<Float> {
+    public Class<Float> type() {
+        return Float.class;
+    }
+
+    public Optional<Float> resolve(String token, CommandSender sender) {
+        return tryResolve(token, sender).toOptional();
+    }
+
+    @Override
+    public Resolution<Float> tryResolve(String token, CommandSender sender) {
+        // tryParse rejects bad input without throwing
+        Double value = Doubles.tryParse(token);
+        return value != null ? Resolution.of(value.floatValue()) : Resolution.invalid();
+    }
+}
@@ -1,6 +1,8 @@
 package io.paradaux.hibernia.framework.commander.resolvers;
 
+import com.google.common.primitives.Ints;
 import io.paradaux.hibernia.framework.commander.spi.ParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.Resolution;
 import org.bukkit.command.CommandSender;
 
 import java.util.Optional;
@@ -11,10 +13,13 @@ public class IntegerResolver implements ParameterResolver<Integer> {
     }
 
     public Optional<Integer> resolve(String token, CommandSender sender) {
-        try {
-            return Optional.of(Integer.parseInt(token));
-        } catch (NumberFormatException e) {
-            return Optional.empty();
-        }
+        return tryResolve(token, sender).toOptional();
+    }
+
+    @Override
+    public Resolution<Integer> tryResolve(String token, CommandSender sender) {
+        // tryParse rejects bad input without throwing, but unlike Integer.parseInt it takes no '+'
+        Integer value = Ints.tryParse(token.startsWith("+") && !token.startsWith("+-") ? token.substring(1) : token);
+        return value != null ? Resolution.of(value) : Resolution.invalid();
     }
 }
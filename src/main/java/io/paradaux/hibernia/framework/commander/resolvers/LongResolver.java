@@ -0,0 +1,25 @@
+package io.paradaux.hibernia.framework.commander.resolvers;
+
+import com.google.common.primitives.Longs;
+import io.paradaux.hibernia.framework.commander.spi.ParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.Resolution;
+import org.bukkit.command.CommandSender;
+
+import java.util.Optional;
+
+public class LongResolver implements ParameterResolver<Long> {
+    public Class<Long> type() {
+        return Long.class;
+    }
+
+    public Optional<Long> resolve(String token, CommandSender sender) {
+        return tryResolve(token, sender).toOptional();
+    }
+
+    @Override
+    public Resolution<Long> tryResolve(String token, CommandSender sender) {
+        // tryParse rejects bad input without throwing, but unlike Long.parseLong it takes no '+'
+        Long value = Longs.tryParse(token.startsWith("+") && !token.startsWith("+-") ? token.substring(1) : token);
+        return value != null ? Resolution.of(value) : Resolution.invalid();
+    }
+}
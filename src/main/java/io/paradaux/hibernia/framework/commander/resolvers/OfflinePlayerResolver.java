@@ -1,25 +1,51 @@
 package io.paradaux.hibernia.framework.commander.resolvers;
 
-import io.paradaux.hibernia.framework.commander.spi.ParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.AsyncParameterResolver;
+import io.paradaux.hibernia.framework.players.PlayerIdentity;
+import io.paradaux.hibernia.framework.players.PlayerIdentityCache;
+import io.paradaux.hibernia.framework.players.PlayerNameIndex;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Player;
 
 import java.util.List;
-import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Resolves players by name whether or not they are online: the online index first, then the
+ * server's user cache, then the {@link PlayerIdentityCache}. Only the last step can wait, and
+ * only for names nobody on this server has used before.
+ */
+public class OfflinePlayerResolver implements AsyncParameterResolver<OfflinePlayer> {
+    private final PlayerNameIndex names;
+    private final PlayerIdentityCache identities;
+
+    public OfflinePlayerResolver(PlayerNameIndex names, PlayerIdentityCache identities) {
+        this.names = names;
+        this.identities = identities;
+    }
 
-public class OfflinePlayerResolver implements ParameterResolver<OfflinePlayer> {
     public Class<OfflinePlayer> type() {
         return OfflinePlayer.class;
     }
 
-    public Optional<OfflinePlayer> resolve(String token, CommandSender sender) {
-        return Optional.ofNullable(Bukkit.getOfflinePlayerIfCached(token));
+    public CompletableFuture<Optional<OfflinePlayer>> resolveAsync(String token, CommandSender sender) {
+        OfflinePlayer online = names.getExact(token);
+        if (online != null) {
+            return CompletableFuture.completedFuture(Optional.of(online));
+        }
+
+        OfflinePlayer known = Bukkit.getOfflinePlayerIfCached(token);
+        if (known != null) {
+            return CompletableFuture.completedFuture(Optional.of(known));
+        }
+
+        return identities.lookup(token)
+                .thenApply(identity -> identity.map(PlayerIdentity::id).map(Bukkit::getOfflinePlayer));
     }
 
     public List<String> suggestions(String prefix, CommandSender sender) {
-        return Bukkit.getOnlinePlayers().stream().map(Player::getName).filter(n -> n.toLowerCase(Locale.ROOT).startsWith(prefix.toLowerCase(Locale.ROOT))).limit(20).toList();
+        return names.complete(prefix, 20);
     }
 }
@@ -0,0 +1,36 @@
+package io.paradaux.hibernia.framework.commander.resolvers;
+
+import io.paradaux.hibernia.framework.commander.spi.ParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.Resolution;
+import io.paradaux.hibernia.framework.players.PlayerNameIndex;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.Optional;
+
+public class PlayerResolver implements ParameterResolver<Player> {
+    private final PlayerNameIndex names;
+
+    public PlayerResolver(PlayerNameIndex names) {
+        this.names = names;
+    }
+
+    public Class<Player> type() {
+        return Player.class;
+    }
+
+    public Optional<Player> resolve(String token, CommandSender sender) {
+        return Optional.ofNullable(names.getExact(token));
+    }
+
+    @Override
+    public Resolution<Player> tryResolve(String token, CommandSender sender) {
+        Player player = names.getExact(token);
+        return player != null ? Resolution.of(player) : Resolution.invalid("errors.player-not-online");
+    }
+
+    public List<String> suggestions(String prefix, CommandSender sender) {
+        return names.complete(prefix, 20);
+    }
+}
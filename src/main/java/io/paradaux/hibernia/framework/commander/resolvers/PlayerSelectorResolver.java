@@ -0,0 +1,83 @@
+package io.paradaux.hibernia.framework.commander.resolvers;
+
+import io.paradaux.hibernia.framework.commander.spi.BulkParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.Resolution;
+import io.paradaux.hibernia.framework.players.PlayerNameIndex;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bulk resolver for player collections. Entries are separated by commas (or spaces, for the
+ * last argument of a route) and may be:
+ * - a player name,
+ * - {@code @a}, every online player,
+ * - {@code #group}, every online player with the {@code group.<group>} permission, as
+ *   granted by LuckPerms and similar plugins.
+ *
+ * <p>Names are looked up with the given function; selectors only match online players.</p>
+ */
+public class PlayerSelectorResolver<T extends OfflinePlayer> implements BulkParameterResolver<T> {
+    private static final int SUGGESTIONS = 20;
+
+    private final Class<T> type;
+    private final PlayerNameIndex names;
+    private final Function<String, T> byName;
+
+    public PlayerSelectorResolver(Class<T> type, PlayerNameIndex names, Function<String, T> byName) {
+        this.type = type;
+        this.names = names;
+        this.byName = byName;
+    }
+
+    @Override
+    public Class<T> type() {
+        return type;
+    }
+
+    @Override
+    public Resolution<List<T>> resolveAll(String token, CommandSender sender) {
+        Set<T> players = new LinkedHashSet<>();
+        for (String entry : token.split("[,\\s]+")) {
+            if (entry.isEmpty()) continue;
+
+            if (entry.equalsIgnoreCase("@a")) {
+                for (Player player : Bukkit.getOnlinePlayers()) players.add(type.cast(player));
+            } else if (entry.startsWith("#") && entry.length() > 1) {
+                String permission = "group." + entry.substring(1).toLowerCase(Locale.ROOT);
+                for (Player player : Bukkit.getOnlinePlayers()) {
+                    if (player.hasPermission(permission)) players.add(type.cast(player));
+                }
+            } else {
+                T player = byName.apply(entry);
+                if (player == null) {
+                    return Resolution.invalid("errors.player-not-found");
+                }
+                players.add(player);
+            }
+        }
+        return players.isEmpty() ? Resolution.invalid("errors.no-players-matched") : Resolution.of(new ArrayList<>(players));
+    }
+
+    @Override
+    public List<String> suggestions(String prefix, CommandSender sender) {
+        int split = prefix.lastIndexOf(',') + 1;
+        String head = prefix.substring(0, split);
+        String last = prefix.substring(split);
+
+        List<String> suggestions = new ArrayList<>();
+        if ("@a".startsWith(last)) suggestions.add(head + "@a");
+        for (String name : names.complete(last, SUGGESTIONS)) {
+            suggestions.add(head + name);
+        }
+        return suggestions;
+    }
+}
@@ -0,0 +1,21 @@
+package io.paradaux.hibernia.framework.commander.resolvers;
+
+import io.paradaux.hibernia.framework.commander.spi.ParameterResolver;
+import org.bukkit.command.CommandSender;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public class UUIDResolver implements ParameterResolver<UUID> {
+    public Class<UUID> type() {
+        return UUID.class;
+    }
+
+    public Optional<UUID> resolve(String token, CommandSender sender) {
+        try {
+            return Optional.of(UUID.fromString(token));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.paradaux.hibernia.framework.commander.spi;
+
+import org.bukkit.command.CommandSender;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link ParameterResolver} backed by I/O, such as a database lookup.
+ *
+ * <p>The CommandManager starts the lookups for every asynchronous argument of a route at once
+ * and invokes the route only when all of them have completed, so resolution never blocks the
+ * thread the command was dispatched on. {@link #resolveAsync} must therefore not block either;
+ * run the lookup on your own executor and return its future. {@code @OptionalArg} defaults
+ * are resolved the same way, when the route runs. The returned future is cancelled if the
+ * sender quits first, so return one that is not shared with other callers.</p>
+ *
+ * <p>Collection parameters of the resolved type need their own
+ * {@link BulkParameterResolver}; they are rejected when the route is bound otherwise.</p>
+ *
+ * @param <T> the resolved type
+ */
+public interface AsyncParameterResolver<T> extends ParameterResolver<T> {
+
+    CompletableFuture<Optional<T>> resolveAsync(String token, CommandSender sender);
+
+    /**
+     * Synchronous resolution never waits: it answers only if {@link #resolveAsync} completes at
+     * once, e.g. from a cache, and otherwise throws.
+     *
+     * @throws IllegalStateException if the value is not available without waiting
+     */
+    @Override
+    default Optional<T> resolve(String token, CommandSender sender) throws Exception {
+        CompletableFuture<Optional<T>> future = resolveAsync(token, sender);
+        if (!future.isDone()) {
+            future.cancel(true);
+            throw new IllegalStateException(type().getSimpleName() + " '" + token + "' cannot be resolved without waiting");
+        }
+        return future.join();
+    }
+}
@@ -0,0 +1,35 @@
+package io.paradaux.hibernia.framework.commander.spi;
+
+import org.bukkit.command.CommandSender;
+
+import java.util.List;
+
+/**
+ * Resolves one command argument to many values, for {@code Collection}, {@code List} and
+ * {@code Set} route parameters.
+ *
+ * <p>The token is everything the sender typed for the argument: a comma-separated list,
+ * a selector such as {@code @a}, or a mix of both. The route is invoked once with the whole
+ * batch. Element types without a bulk resolver fall back to a comma-separated list resolved
+ * element by element with the type's {@link ParameterResolver}.</p>
+ *
+ * <p>Register implementations with
+ * {@code CommandManager#registerBulkResolver(BulkParameterResolver)} before
+ * {@code registerAll()}.</p>
+ *
+ * @param <T> the element type
+ */
+public interface BulkParameterResolver<T> {
+    /** The element type. */
+    Class<T> type();
+
+    /**
+     * @return the values the token denotes, without duplicates, or a failure
+     */
+    Resolution<List<T>> resolveAll(String token, CommandSender sender) throws Exception;
+
+    /**
+     * Suggestions for the argument as typed so far, including any earlier list entries.
+     */
+    default List<String> suggestions(String prefix, CommandSender sender) { return List.of(); }
+}
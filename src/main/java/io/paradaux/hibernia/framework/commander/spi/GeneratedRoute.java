@@ -0,0 +1,56 @@
+package io.paradaux.hibernia.framework.commander.spi;
+
+import io.paradaux.hibernia.framework.commander.BoundRoute;
+import io.paradaux.hibernia.framework.commander.RouteInvoker;
+import io.paradaux.hibernia.framework.commander.annotations.Async;
+import io.paradaux.hibernia.framework.commander.annotations.Cooldown;
+import io.paradaux.hibernia.framework.commander.annotations.RateLimit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One entry of a {@link GeneratedRoutes} table: everything binding the route needs, read from
+ * its annotations at compile time. Handlers without a table are described the same way by
+ * reflection when they are bound.
+ *
+ * @param method the route method's name
+ * @param parameterTypes the route method's parameter types, identifying the overload
+ * @param invoker a direct call to the route method
+ * @param path the route's literals, lower-cased, and placeholders, from {@code @Route}
+ * @param params one entry per method parameter, in declaration order; an optional
+ *        parameter's default value is the raw {@code @OptionalArg} default
+ * @param permission the route's {@code @Permission}, or null to use the handler's
+ * @param description the route's {@code @Description}, or empty
+ * @param async the route's {@code @Async} settings, or null if it runs on the main thread
+ * @param cooldown the route's {@code @Cooldown}, or its handler's, or null
+ * @param rateLimit the route's {@code @RateLimit}, or its handler's, or null
+ */
+public record GeneratedRoute(String method, List<Class<?>> parameterTypes, RouteInvoker invoker,
+                             List<BoundRoute.Segment> path, List<BoundRoute.Param> params, String permission,
+                             String description, AsyncSettings async, Limit cooldown, Limit rateLimit) {
+
+    /** The values of an {@link Async} annotation. */
+    public record AsyncSettings(int maxConcurrent, int maxConcurrentPerSender, int queueLimit, long timeoutMs,
+                                String rejectMessage) {
+        public static AsyncSettings of(Async async) {
+            return new AsyncSettings(async.maxConcurrent(), async.maxConcurrentPerSender(), async.queueLimit(),
+                    async.timeoutMs(), async.rejectMessage());
+        }
+    }
+
+    /**
+     * A limit of {@code permits} uses per player and {@code globalPermits} uses in total per
+     * {@code period}; zero permits means no limit of that kind. A {@link Cooldown} is one use
+     * per player per cooldown.
+     */
+    public record Limit(int permits, int globalPermits, long period, TimeUnit unit, String message) {
+        public static Limit of(Cooldown cooldown) {
+            return new Limit(1, 0, cooldown.value(), cooldown.unit(), cooldown.message());
+        }
+
+        public static Limit of(RateLimit limit) {
+            return new Limit(limit.permits(), limit.globalPermits(), limit.period(), limit.unit(), limit.message());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.paradaux.hibernia.framework.commander.spi;
+
+import java.util.List;
+
+/**
+ * Route table generated at compile time by the {@code hibernia-framework-processor} annotation
+ * processor, as {@code <Handler>_HiberniaRoutes} next to each {@link CommandHandler}.
+ *
+ * <p>When present, the CommandManager takes the handler's routes from it instead of scanning
+ * the class, and invokes them through the generated direct calls. Not intended to be
+ * implemented by hand.</p>
+ */
+public interface GeneratedRoutes {
+    /**
+     * The handler's {@code @Route} methods, in declaration order.
+     *
+     * @return one entry per route method
+     */
+    List<GeneratedRoute> routes();
+}
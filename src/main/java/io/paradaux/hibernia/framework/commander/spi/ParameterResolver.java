@@ -8,6 +8,16 @@ import java.util.Optional;
 public interface ParameterResolver<T> {
     Class<T> type();
     Optional<T> resolve(String token, CommandSender sender) throws Exception;
+
+    /**
+     * Resolve a token, reporting failure through the result rather than an empty Optional.
+     * The CommandManager calls this; override it to avoid allocating on failure or to give a
+     * specific failure message.
+     */
+    default Resolution<T> tryResolve(String token, CommandSender sender) throws Exception {
+        return Resolution.from(resolve(token, sender));
+    }
+
     default List<String> suggestions(String prefix, CommandSender sender) { return List.of(); }
+    default SuggestionCaching suggestionCaching() { return SuggestionCaching.NONE; }
 }
-
@@ -0,0 +1,71 @@
+package io.paradaux.hibernia.framework.commander.spi;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Outcome of resolving a command argument: a value, or a failure the CommandManager reports to
+ * the sender.
+ *
+ * <p>Failures are shared constants or carry only a message key, so rejecting bad input, by far
+ * the most common failure, needs neither an {@link Optional} nor an exception.</p>
+ *
+ * @param <T> the resolved type
+ */
+public final class Resolution<T> {
+
+    private static final Resolution<?> INVALID = new Resolution<>(null, null);
+
+    private final T value;
+    private final String messageKey;
+
+    private Resolution(T value, String messageKey) {
+        this.value = value;
+        this.messageKey = messageKey;
+    }
+
+    /**
+     * @param value the resolved value, not null
+     */
+    public static <T> Resolution<T> of(T value) {
+        if (value == null) throw new NullPointerException("value");
+        return new Resolution<>(value, null);
+    }
+
+    /** The input is not a valid value; reported as {@code errors.invalid-argument}. */
+    @SuppressWarnings("unchecked")
+    public static <T> Resolution<T> invalid() {
+        return (Resolution<T>) INVALID;
+    }
+
+    /**
+     * The input is not a valid value, for a reason worth its own message.
+     *
+     * @param messageKey {@code messages.properties} key, given {@code {argument}} and {@code {input}}
+     */
+    public static <T> Resolution<T> invalid(String messageKey) {
+        return new Resolution<>(null, messageKey);
+    }
+
+    public static <T> Resolution<T> from(Optional<T> value) {
+        return value.isPresent() ? new Resolution<>(value.get(), null) : invalid();
+    }
+
+    public boolean isValid() {
+        return value != null;
+    }
+
+    public T value() {
+        if (value == null) throw new NoSuchElementException("Unresolved argument");
+        return value;
+    }
+
+    /** The failure's message key, or null for the default. */
+    public String messageKey() {
+        return messageKey;
+    }
+
+    public Optional<T> toOptional() {
+        return Optional.ofNullable(value);
+    }
+}
@@ -0,0 +1,44 @@
+package io.paradaux.hibernia.framework.commander.spi;
+
+/**
+ * How the CommandManager may cache a resolver's tab-completion suggestions.
+ *
+ * <p>Returned from {@link ParameterResolver#suggestionCaching()}. With caching enabled,
+ * suggestions are computed off the main thread on a miss and served from memory for
+ * {@code ttlMillis}; cache keys are the lower-cased prefix, plus the sender when
+ * {@code perSender} is set.</p>
+ *
+ * <p>Example, for a warp list that is the same for everyone and returns every match:
+ * <pre>
+ * public SuggestionCaching suggestionCaching() {
+ *     return SuggestionCaching.ttl(5_000).prefixFilterable();
+ * }
+ * </pre>
+ * </p>
+ *
+ * @param ttlMillis how long computed suggestions stay valid; 0 disables caching
+ * @param perSender whether suggestions depend on the sender (e.g. their own homes)
+ * @param filterable whether suggestions for a prefix are exactly every candidate starting with it,
+ *                   so a longer prefix can be answered by filtering a cached shorter one
+ */
+public record SuggestionCaching(long ttlMillis, boolean perSender, boolean filterable) {
+
+    /** No caching; the resolver is asked on every keystroke. */
+    public static final SuggestionCaching NONE = new SuggestionCaching(0, false, false);
+
+    public static SuggestionCaching ttl(long ttlMillis) {
+        return new SuggestionCaching(ttlMillis, false, false);
+    }
+
+    public SuggestionCaching keyedBySender() {
+        return new SuggestionCaching(ttlMillis, true, filterable);
+    }
+
+    public SuggestionCaching prefixFilterable() {
+        return new SuggestionCaching(ttlMillis, perSender, true);
+    }
+
+    public boolean enabled() {
+        return ttlMillis > 0;
+    }
+}
@@ -0,0 +1,212 @@
+package io.paradaux.hibernia.framework.configurator;
+
+import io.paradaux.hibernia.framework.configurator.annotations.ConfigurationValue;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * How to bind configuration into one class: for each {@link ConfigurationValue} the path, a
+ * reader chosen for the target type, the default already parsed, and a setter adapted from the
+ * field's {@link VarHandle}.
+ *
+ * <p>Plans are built once per class by {@link #of(Class)} and cached in a {@link ClassValue},
+ * so the reflection, accessibility checks and type dispatch happen on first use only and a
+ * reload is a loop over the bindings. Fields are collected from the class and its superclasses,
+ * superclass first. A record is bound through its canonical constructor instead, from
+ * {@link ConfigurationValue}s on its components.</p>
+ *
+ * <p>Annotations that cannot be bound are skipped and described in {@link #warnings}, for the
+ * {@link ConfigurationProcessor} to report through the plugin's logger.</p>
+ */
+final class BindingPlan {
+
+    private static final ClassValue<BindingPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected BindingPlan computeValue(Class<?> type) {
+            return type.isRecord() ? forRecord(type) : forFields(type);
+        }
+    };
+
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType FACTORY = MethodType.methodType(Object.class, Object[].class);
+
+    final List<Binding> bindings;
+
+    /** For records: the canonical constructor taking the components as an Object[], else null. */
+    final MethodHandle constructor;
+
+    /** For records: the value passed for each component without a {@link ConfigurationValue}. */
+    final Object[] unbound;
+
+    /** Why annotated fields or components were skipped, or their defaults ignored. */
+    final List<String> warnings;
+
+    private BindingPlan(List<Binding> bindings, MethodHandle constructor, Object[] unbound, List<String> warnings) {
+        this.bindings = bindings;
+        this.constructor = constructor;
+        this.unbound = unbound;
+        this.warnings = List.copyOf(warnings);
+    }
+
+    static BindingPlan of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    private static BindingPlan forFields(Class<?> type) {
+        Deque<Class<?>> hierarchy = new ArrayDeque<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.push(c);
+        }
+
+        List<Binding> bindings = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
+        for (Class<?> declaring : hierarchy) {
+            MethodHandles.Lookup lookup;
+            try {
+                lookup = MethodHandles.privateLookupIn(declaring, MethodHandles.lookup());
+            } catch (IllegalAccessException e) {
+                warnings.add("Cannot access fields of " + declaring.getName() + " - skipping its configuration values");
+                continue;
+            }
+
+            for (Field field : declaring.getDeclaredFields()) {
+                ConfigurationValue annotation = field.getAnnotation(ConfigurationValue.class);
+                if (annotation == null) continue;
+
+                if (Modifier.isStatic(field.getModifiers())) {
+                    warnings.add("Cannot inject config into static field: " + name(field));
+                    continue;
+                }
+                if (Modifier.isFinal(field.getModifiers())) {
+                    warnings.add("Cannot inject config into final field: " + name(field));
+                    continue;
+                }
+
+                MethodHandle setter;
+                try {
+                    VarHandle handle = lookup.unreflectVarHandle(field);
+                    setter = handle.toMethodHandle(VarHandle.AccessMode.SET).asType(SETTER);
+                } catch (IllegalAccessException e) {
+                    warnings.add("Cannot access field: " + name(field) + " - skipping");
+                    continue;
+                }
+                bindings.add(Binding.of(name(field), annotation, field.getType(), setter, -1, warnings));
+            }
+        }
+        return new BindingPlan(List.copyOf(bindings), null, null, warnings);
+    }
+
+    private static BindingPlan forRecord(Class<?> type) {
+        RecordComponent[] components = type.getRecordComponents();
+        Class<?>[] types = new Class<?>[components.length];
+        Object[] unbound = new Object[components.length];
+        List<Binding> bindings = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
+
+        for (int i = 0; i < components.length; i++) {
+            RecordComponent component = components[i];
+            types[i] = component.getType();
+            unbound[i] = types[i].isPrimitive() ? Array.get(Array.newInstance(types[i], 1), 0) : null;
+
+            ConfigurationValue annotation = component.getAnnotation(ConfigurationValue.class);
+            if (annotation != null) {
+                bindings.add(Binding.of(type.getName() + "." + component.getName(), annotation, types[i], null, i, warnings));
+            }
+        }
+
+        MethodHandle constructor;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            constructor = lookup.findConstructor(type, MethodType.methodType(void.class, types))
+                    .asSpreader(Object[].class, types.length)
+                    .asType(FACTORY);
+        } catch (ReflectiveOperationException e) {
+            warnings.add("Cannot access the canonical constructor of record " + type.getName());
+            constructor = null;
+        }
+        return new BindingPlan(List.copyOf(bindings), constructor, unbound, warnings);
+    }
+
+    private static String name(Field field) {
+        return field.getDeclaringClass().getName() + "." + field.getName();
+    }
+
+    /** Reads a value of the target type from a path that is known to be present. */
+    @FunctionalInterface
+    interface Reader {
+        Object read(ConfigurationSection config, String path);
+    }
+
+    /**
+     * One configuration value.
+     *
+     * @param name the field or record component, for messages
+     * @param path the configuration path
+     * @param reader reads the value at the path as the target type
+     * @param hasDefault whether the annotation gave a default
+     * @param defaultValue the parsed default, or null if it has none or the type has no default
+     * @param setter sets the field on an instance, or null for a record component
+     * @param component the record component index, or -1 for a field
+     */
+    record Binding(String name, String path, Reader reader, boolean hasDefault, Object defaultValue,
+                   MethodHandle setter, int component) {
+
+        static Binding of(String name, ConfigurationValue annotation, Class<?> type, MethodHandle setter, int component,
+                          List<String> warnings) {
+            String path = annotation.path();
+            String rawDefault = annotation.defaultValue();
+
+            boolean hasDefault = !rawDefault.isEmpty();
+            Object defaultValue = null;
+            if (hasDefault) {
+                try {
+                    defaultValue = parseDefault(type, rawDefault);
+                } catch (IllegalArgumentException e) {
+                    warnings.add("Invalid default '" + rawDefault + "' for " + name + ": " + e.getMessage());
+                    hasDefault = false;
+                }
+            }
+            return new Binding(name, path, reader(type), hasDefault, defaultValue, setter, component);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static Reader reader(Class<?> type) {
+            if (type == String.class) return ConfigurationSection::getString;
+            if (type == int.class || type == Integer.class) return ConfigurationSection::getInt;
+            if (type == boolean.class || type == Boolean.class) return ConfigurationSection::getBoolean;
+            if (type == double.class || type == Double.class) return ConfigurationSection::getDouble;
+            if (type == long.class || type == Long.class) return ConfigurationSection::getLong;
+            if (type == List.class) return ConfigurationSection::getStringList;
+            if (type.isEnum()) return (config, path) -> Enum.valueOf((Class<Enum>) type, config.getString(path));
+
+            // For complex types, use the object directly
+            return ConfigurationSection::get;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static Object parseDefault(Class<?> type, String value) {
+            if (type == String.class) return value;
+            if (type == int.class || type == Integer.class) return Integer.parseInt(value);
+            if (type == boolean.class || type == Boolean.class) return Boolean.parseBoolean(value);
+            if (type == double.class || type == Double.class) return Double.parseDouble(value);
+            if (type == long.class || type == Long.class) return Long.parseLong(value);
+            if (type == List.class) return List.of();
+            if (type.isEnum()) return Enum.valueOf((Class<Enum>) type, value);
+
+            // Complex types have no textual default; a missing path leaves the field as it is
+            return null;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.paradaux.hibernia.framework.configurator;
+
+import io.paradaux.hibernia.framework.configurator.annotations.OnConfigChange;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * The {@link OnConfigChange} methods known to a {@link ConfigurationLoader}, and which of them
+ * a set of changed paths in a file concerns.
+ */
+@Slf4j
+final class ConfigChangeListeners {
+
+    private static final MethodType NO_ARGS = MethodType.methodType(void.class, Object.class);
+    private static final MethodType WITH_PATHS = MethodType.methodType(void.class, Object.class, Set.class);
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Register the {@link OnConfigChange} methods of a type, declared or inherited.
+     *
+     * @param type the type to scan
+     * @param target supplies the instance to call them on, looked up at each notification
+     * @return the number of methods registered
+     */
+    int register(Class<?> type, Supplier<?> target) {
+        int registered = 0;
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                OnConfigChange annotation = method.getAnnotation(OnConfigChange.class);
+                if (annotation == null) continue;
+
+                Class<?>[] parameters = method.getParameterTypes();
+                boolean takesPaths = parameters.length == 1 && parameters[0] == Set.class;
+                if (Modifier.isStatic(method.getModifiers()) || (parameters.length != 0 && !takesPaths)) {
+                    log.warn("@OnConfigChange method {}.{} must be an instance method taking nothing or a Set<String> - skipping",
+                            c.getName(), method.getName());
+                    continue;
+                }
+
+                try {
+                    MethodHandle handle = MethodHandles.privateLookupIn(c, MethodHandles.lookup()).unreflect(method);
+                    listeners.add(new Listener(c.getName() + "." + method.getName(), target,
+                            handle.asType(takesPaths ? WITH_PATHS : NO_ARGS), takesPaths,
+                            annotation.file(), annotation.value()));
+                    registered++;
+                } catch (IllegalAccessException e) {
+                    log.warn("Cannot access @OnConfigChange method {}.{} - skipping", c.getName(), method.getName());
+                }
+            }
+        }
+        return registered;
+    }
+
+    /** The paths registered listeners name for a file, which a reload compares besides the bound ones. */
+    Set<String> declaredPaths(String file) {
+        Set<String> paths = new LinkedHashSet<>();
+        for (Listener listener : listeners) {
+            if (listener.file().equals(file)) paths.addAll(List.of(listener.paths()));
+        }
+        return paths;
+    }
+
+    /** The paths the {@link OnConfigChange} methods of a type name for a file, registered or not. */
+    static Set<String> declaredPaths(Class<?> type, String file) {
+        Set<String> paths = new LinkedHashSet<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                OnConfigChange annotation = method.getAnnotation(OnConfigChange.class);
+                if (annotation != null && annotation.file().equals(file)) paths.addAll(List.of(annotation.value()));
+            }
+        }
+        return paths;
+    }
+
+    /** Call every listener interested in one of the changed paths of a file. */
+    void notify(String file, Set<String> changed) {
+        for (Listener listener : listeners) {
+            if (!listener.file().equals(file)) continue;
+
+            Set<String> relevant = listener.relevant(changed);
+            if (relevant.isEmpty()) continue;
+
+            Object target = listener.target().get();
+            if (target == null) continue;
+
+            try {
+                if (listener.takesPaths()) {
+                    listener.handle().invokeExact(target, (Set<?>) relevant);
+                } else {
+                    listener.handle().invokeExact(target);
+                }
+            } catch (Throwable t) {
+                log.error("@OnConfigChange listener {} failed", listener.name(), t);
+            }
+        }
+    }
+
+    private record Listener(String name, Supplier<?> target, MethodHandle handle, boolean takesPaths,
+                            String file, String[] paths) {
+
+        Set<String> relevant(Set<String> changed) {
+            if (paths.length == 0) return changed;
+
+            Set<String> relevant = new LinkedHashSet<>();
+            for (String path : changed) {
+                for (String prefix : paths) {
+                    if (path.equals(prefix) || path.startsWith(prefix + ".")) {
+                        relevant.add(path);
+                        break;
+                    }
+                }
+            }
+            return relevant;
+        }
+    }
+}
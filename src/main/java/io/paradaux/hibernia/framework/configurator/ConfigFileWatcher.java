@@ -0,0 +1,119 @@
+package io.paradaux.hibernia.framework.configurator;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches configuration files under a data folder, including files in its subdirectories such
+ * as {@code shops/items.yml}, and reports which of them were written.
+ *
+ * <p>A WatchService only sees the entries of the directories registered with it, so the
+ * directory of each watched file is registered. Editors and file copies often write in several
+ * steps, so writes are reported only once none has been seen for the debounce period. If
+ * events were lost, every watched file is reported.</p>
+ */
+final class ConfigFileWatcher implements Closeable {
+
+    private final Path folder;
+    private final WatchService service;
+    private final long debounceMillis;
+    private final Consumer<Set<String>> onWritten;
+    private final Set<String> files = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Start watching; files are added with {@link #watch}.
+     *
+     * @param onWritten called on the watcher thread with the watched files written to, by
+     *        their name relative to the folder
+     */
+    ConfigFileWatcher(Path folder, Duration debounce, String threadName, Consumer<Set<String>> onWritten) throws IOException {
+        this.folder = folder;
+        this.service = FileSystems.getDefault().newWatchService();
+        this.debounceMillis = debounce.toMillis();
+        this.onWritten = onWritten;
+        try {
+            folder.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            service.close();
+            throw e;
+        }
+        Thread.ofPlatform().daemon().name(threadName).start(this::run);
+    }
+
+    /**
+     * Watch a file, by its name relative to the folder. Its directory must exist; a file in a
+     * directory created later is seen once it is watched again.
+     *
+     * @throws IOException if its directory cannot be watched
+     */
+    void watch(String file) throws IOException {
+        files.add(file);
+        Path directory = folder.resolve(file).getParent();
+        if (directory.equals(folder) || !Files.isDirectory(directory)) return;
+        try {
+            // Registering a directory again returns its existing key
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (ClosedWatchServiceException e) {
+            // Closed concurrently
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Closing wakes the watcher thread, which then exits
+        service.close();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Set<String> written = new HashSet<>();
+                boolean overflow = collect(service.take(), written);
+                WatchKey next;
+                while ((next = service.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    overflow |= collect(next, written);
+                }
+
+                if (overflow) {
+                    written = new HashSet<>(files);
+                } else {
+                    written.retainAll(files);
+                }
+                if (!written.isEmpty()) onWritten.accept(written);
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Watching stopped
+        }
+    }
+
+    /** Add the names of the files written to, and report whether events were lost. */
+    private boolean collect(WatchKey key, Set<String> written) {
+        boolean overflow = false;
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+            } else if (event.context() instanceof Path path) {
+                // Named as in @ConfigurationComponent(file = ...), with forward slashes
+                written.add(folder.relativize(directory.resolve(path)).toString().replace(File.separatorChar, '/'));
+            }
+        }
+        key.reset();
+        return overflow;
+    }
+}
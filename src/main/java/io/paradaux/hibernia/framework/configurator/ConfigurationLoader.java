@@ -3,20 +3,90 @@ package io.paradaux.hibernia.framework.configurator;
 import com.google.inject.Singleton;
 
 import io.paradaux.hibernia.framework.configurator.annotations.ConfigurationComponent;
+import io.paradaux.hibernia.framework.utils.ComponentIndex;
+import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.reflections.Reflections;
 
-import java.lang.reflect.Constructor;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Creates and holds the plugin's {@link ConfigurationComponent}s.
+ *
+ * <p>Each component binds from its own {@link ConfigurationComponent#file() file}, config.yml
+ * by default. At startup the files the eager components need are parsed in parallel, one file
+ * per task; a {@link ConfigurationComponent#lazy() lazy} component's file is only parsed, and
+ * the component only created, when it is first looked up. The bound values of each file are
+ * also kept as a binary snapshot in the data folder, which is loaded instead of the YAML while
+ * the file is unchanged; see {@link #setSnapshotCacheEnabled}.</p>
+ *
+ * <p>Components are published as an immutable snapshot through a single volatile field, so
+ * {@link #getComponent} is safe from any thread. A reload never modifies a published
+ * component: it parses the files off the main thread, compares every bound path with the
+ * current configuration, creates new instances of the components whose paths changed, and
+ * swaps in the new snapshot in one write. A reader therefore sees either the old component or
+ * the new one, never a mix; code that wants to follow reloads should look the component up
+ * again rather than keep a reference.</p>
+ *
+ * <p>After a reload that changed something,
+ * {@link io.paradaux.hibernia.framework.configurator.annotations.OnConfigChange @OnConfigChange}
+ * methods on the components and on {@link #registerListener registered listeners} are called on
+ * the main thread with the changed paths they listen to: the bound paths, and any path a
+ * listener names. {@link #enableHotReload} reloads a file whenever it is written.</p>
+ *
+ * <p>Reloads only update this loader's snapshot. {@code plugin.getConfig()}, and so the
+ * {@link ConfigurationProcessor} methods that read it, keep the values read at startup; use
+ * {@link #getConfiguration} for the current contents of a file.</p>
+ */
 @Singleton
 public class ConfigurationLoader {
 
+    private static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(500);
+    private static final String SNAPSHOT_DIRECTORY = ".snapshots";
+
     private final JavaPlugin plugin;
     private final ConfigurationProcessor processor;
-    private final Map<Class<?>, Object> components = new HashMap<>();
+    private final ConfigChangeListeners listeners = new ConfigChangeListeners();
+    private final ThreadPoolExecutor reloader;
+    private final ThreadPoolExecutor parser;
+
+    /** Every component found by a scan, loaded or not, and the file it binds from. */
+    private final Map<Class<?>, String> files = new ConcurrentHashMap<>();
+
+    /** Lazy components that failed to load, not retried until the next reload. */
+    private final Set<Class<?>> failed = ConcurrentHashMap.newKeySet();
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of());
+    private volatile SnapshotCache snapshots;
+    private volatile ConfigFileWatcher watcher;
 
     public ConfigurationLoader(JavaPlugin plugin) {
         this.plugin = plugin;
@@ -24,42 +94,394 @@ public class ConfigurationLoader {
 
         // Ensure config.yml exists
         plugin.saveDefaultConfig();
+        this.snapshots = new SnapshotCache(plugin.getDataFolder().toPath().resolve(SNAPSHOT_DIRECTORY));
+
+        // One reload at a time, on a thread that only exists while there is work
+        this.reloader = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                Thread.ofPlatform().daemon().name(plugin.getName() + "-config-reload").factory());
+        this.reloader.allowCoreThreadTimeOut(true);
+
+        // Parsing is CPU bound; never share the common pool with the plugins running on it
+        int parsers = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        this.parser = new ThreadPoolExecutor(parsers, parsers, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                Thread.ofPlatform().daemon().name(plugin.getName() + "-config-parser-", 0).factory());
+        this.parser.allowCoreThreadTimeOut(true);
     }
 
     /**
-     * Scan package for components and load their configurations
+     * Scan package for components and load the configurations of those that are not lazy.
+     *
+     * <p>Components are looked up in the index written by the hibernia-framework-processor;
+     * only when the plugin's own jar has no index, because it was compiled without the
+     * processor, or its index lists no components, is the package scanned with Reflections.</p>
      */
     public void scanPackage(String packageName) {
-        Reflections reflections = new Reflections(packageName);
-        Set<Class<?>> componentClasses = reflections.getTypesAnnotatedWith(ConfigurationComponent.class);
+        long start = System.nanoTime();
+        Optional<Set<Class<?>>> indexed = ComponentIndex.load(plugin.getClass())
+                .flatMap(i -> i.getTypesAnnotatedWith(ConfigurationComponent.class, packageName));
+        Set<Class<?>> componentClasses = indexed
+                .orElseGet(() -> new Reflections(packageName).getTypesAnnotatedWith(ConfigurationComponent.class));
+        plugin.getLogger().info(String.format("Found %d configuration component(s) in %s by %s in %.1fms",
+                componentClasses.size(), packageName, indexed.isPresent() ? "index" : "classpath scan",
+                (System.nanoTime() - start) / 1e6));
 
+        Set<Class<?>> eager = new LinkedHashSet<>();
         for (Class<?> componentClass : componentClasses) {
-            try {
-                // Create instance using default constructor
-                Constructor<?> constructor = componentClass.getDeclaredConstructor();
-                constructor.setAccessible(true);
-                Object instance = constructor.newInstance();
-
-                // Process config annotations
-                processor.process(instance);
-
-                // Store component
-                components.put(componentClass, instance);
-            } catch (Exception e) {
-                plugin.getLogger().severe("Failed to instantiate component: " + componentClass.getName());
+            ConfigurationComponent annotation = componentClass.getAnnotation(ConfigurationComponent.class);
+            files.put(componentClass, annotation.file());
+            if (!annotation.lazy()) eager.add(componentClass);
+        }
+
+        synchronized (this) {
+            Snapshot current = snapshot;
+            Set<String> needed = new HashSet<>();
+            for (Class<?> componentClass : eager) {
+                if (!current.components().containsKey(componentClass)) needed.add(files.get(componentClass));
             }
+            needed.removeIf(file -> holdsBoundPaths(current.configs().get(file), file));
+
+            Map<String, Configuration> configs = new HashMap<>(current.configs());
+            configs.putAll(parseAll(needed));
+
+            Map<Class<?>, Object> components = new HashMap<>(current.components());
+            for (Class<?> componentClass : eager) {
+                Configuration config = configs.get(files.get(componentClass));
+                if (config == null || components.containsKey(componentClass)) continue;
+                Object instance = create(componentClass, config);
+                if (instance != null) components.put(componentClass, instance);
+            }
+
+            snapshot = new Snapshot(Map.copyOf(components), Map.copyOf(configs));
+            watchFiles();
         }
+        plugin.getLogger().info(String.format("Loaded %d configuration component(s) in %.1fms",
+                eager.size(), (System.nanoTime() - start) / 1e6));
     }
 
     /**
-     * Get a component by class
+     * Whether to keep binary snapshots of the bound values of each file (on by default). A file
+     * whose content, bundled defaults and bound paths are unchanged since its snapshot was
+     * written is then loaded from the snapshot instead of being parsed as YAML.
+     *
+     * @param enabled whether to read and write snapshots
+     */
+    public void setSnapshotCacheEnabled(boolean enabled) {
+        this.snapshots = enabled
+                ? new SnapshotCache(plugin.getDataFolder().toPath().resolve(SNAPSHOT_DIRECTORY))
+                : null;
+    }
+
+    /**
+     * Get a component by class, loading it first if it is lazy and not yet loaded. A lazy
+     * component that fails to load is reported once and returns null until the next reload.
      */
     @SuppressWarnings("unchecked")
     public <T> T getComponent(Class<T> componentClass) {
-        return (T) components.get(componentClass);
+        Object component = snapshot.components().get(componentClass);
+        if (component == null && files.containsKey(componentClass) && !failed.contains(componentClass)) {
+            component = loadLazily(componentClass);
+        }
+        return (T) component;
     }
 
+    /**
+     * The current contents of a loaded file, as of the last reload. A file loaded from its
+     * snapshot holds only the bound paths and those listeners name.
+     *
+     * @param file the file, e.g. {@code config.yml}
+     * @return the configuration, or null if no loaded component binds from the file
+     */
+    public Configuration getConfiguration(String file) {
+        return snapshot.configs().get(file);
+    }
+
+    /**
+     * The loaded components, as an immutable snapshot. Lazy components appear once looked up.
+     */
     public Map<Class<?>, Object> getComponents() {
-        return components;
+        return snapshot.components();
+    }
+
+    /**
+     * Call the {@link io.paradaux.hibernia.framework.configurator.annotations.OnConfigChange}
+     * methods of an object after reloads. Components are registered automatically. Register
+     * before {@link #scanPackage} so that the paths the object names are compared from the first
+     * reload on.
+     *
+     * @param listener the object
+     */
+    public void registerListener(Object listener) {
+        if (listeners.register(listener.getClass(), () -> listener) == 0) {
+            plugin.getLogger().warning(listener.getClass().getName() + " has no @OnConfigChange methods");
+        }
+    }
+
+    /**
+     * Re-read every loaded file off the main thread and publish the components whose values
+     * changed.
+     *
+     * @return the changed paths by file, once the new snapshot is published; empty if nothing
+     *         changed. A file that cannot be parsed is reported and left as it was.
+     */
+    public CompletableFuture<Map<String, Set<String>>> reload() {
+        return CompletableFuture.supplyAsync(() -> reloadNow(snapshot.configs().keySet()), reloader);
+    }
+
+    /**
+     * Reload whenever a loaded file changes, once it has been quiet for half a second.
+     */
+    public void enableHotReload() {
+        enableHotReload(DEFAULT_DEBOUNCE);
+    }
+
+    /**
+     * Reload whenever a loaded file changes, including files in subdirectories of the data
+     * folder. Editors and file copies often write in several steps, so a reload waits until no
+     * further change has been seen for the debounce period.
+     *
+     * @param debounce the quiet period before reloading
+     */
+    public synchronized void enableHotReload(Duration debounce) {
+        if (watcher != null) return;
+
+        Path folder = plugin.getDataFolder().toPath();
+        try {
+            watcher = new ConfigFileWatcher(folder, debounce, plugin.getName() + "-config-watcher", written -> {
+                written.retainAll(snapshot.configs().keySet());
+                if (!written.isEmpty()) reloader.execute(() -> reloadNow(written));
+            });
+            watchFiles();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not watch " + folder + " for configuration changes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stop watching the configuration files. Call from the plugin's onDisable.
+     */
+    public synchronized void disableHotReload() {
+        if (watcher == null) return;
+        try {
+            watcher.close();
+        } catch (IOException ignored) {
+            // Nothing left to release
+        }
+        watcher = null;
+    }
+
+    /** Watch the file of every known component, so a directory created by loading one is watched too. */
+    private synchronized void watchFiles() {
+        ConfigFileWatcher current = watcher;
+        if (current == null) return;
+        for (String file : new HashSet<>(files.values())) {
+            try {
+                current.watch(file);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Could not watch " + file + " for configuration changes: " + e.getMessage());
+            }
+        }
+    }
+
+    private synchronized Object loadLazily(Class<?> componentClass) {
+        Snapshot current = snapshot;
+        Object component = current.components().get(componentClass);
+        if (component != null || failed.contains(componentClass)) return component;
+
+        String file = files.get(componentClass);
+        Map<String, Configuration> configs = current.configs();
+        if (!holdsBoundPaths(configs.get(file), file)) {
+            configs = new HashMap<>(configs);
+            configs.putAll(parseAll(Set.of(file)));
+            configs = Map.copyOf(configs);
+        }
+
+        Configuration config = configs.get(file);
+        component = config == null ? null : create(componentClass, config);
+
+        Map<Class<?>, Object> components = current.components();
+        if (component != null) {
+            components = new HashMap<>(components);
+            components.put(componentClass, component);
+            components = Map.copyOf(components);
+        } else {
+            // Already reported; don't parse again under the monitor on every lookup
+            failed.add(componentClass);
+        }
+        snapshot = new Snapshot(components, configs);
+        watchFiles();
+        return component;
+    }
+
+    /**
+     * Whether a loaded file can serve every path now bound from it. A file loaded from its
+     * snapshot holds only the paths bound when it was loaded, so one that a newly found
+     * component binds further paths from has to be read again.
+     */
+    private boolean holdsBoundPaths(Configuration config, String file) {
+        if (config == null) return false;
+        return !(config instanceof SnapshotCache.SnapshotConfiguration snapshotted) || snapshotted.holds(boundPaths(file));
+    }
+
+    /** Create a component and register its listeners, or report why it could not be. */
+    private Object create(Class<?> componentClass, Configuration config) {
+        try {
+            // Create the instance and inject its config values
+            Object instance = processor.create(componentClass, config);
+            listeners.register(componentClass, () -> getComponent(componentClass));
+            return instance;
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to instantiate component: " + componentClass.getName());
+            return null;
+        }
+    }
+
+    /**
+     * Parse files in parallel, one task per file.
+     *
+     * @return the files that parsed; the others are reported and left out
+     */
+    private Map<String, Configuration> parseAll(Collection<String> names) {
+        Map<String, CompletableFuture<Configuration>> parsing = new LinkedHashMap<>();
+        for (String name : names) {
+            parsing.put(name, CompletableFuture.supplyAsync(() -> parse(name), parser));
+        }
+
+        Map<String, Configuration> parsed = new HashMap<>();
+        parsing.forEach((name, future) -> {
+            try {
+                parsed.put(name, future.join());
+            } catch (CompletionException e) {
+                plugin.getLogger().severe("Failed to load " + name + ": " + e.getCause().getMessage());
+            }
+        });
+        return parsed;
+    }
+
+    private Configuration parse(String name) {
+        File file = new File(plugin.getDataFolder(), name);
+        try {
+            byte[] bundled = null;
+            try (InputStream in = plugin.getResource(name)) {
+                if (in != null) {
+                    if (!file.exists()) plugin.saveResource(name, false);
+                    bundled = in.readAllBytes();
+                }
+            }
+            byte[] yaml = file.exists() ? Files.readAllBytes(file.toPath()) : new byte[0];
+
+            SnapshotCache cache = snapshots;
+            Set<String> paths = boundPaths(name);
+            byte[] key = null;
+            if (cache != null) {
+                key = SnapshotCache.key(yaml, bundled, paths);
+                Configuration cached = cache.read(name, key, paths);
+                if (cached != null) return cached;
+            }
+
+            YamlConfiguration config = new YamlConfiguration();
+            if (bundled != null) {
+                config.setDefaults(YamlConfiguration.loadConfiguration(
+                        new InputStreamReader(new ByteArrayInputStream(bundled), StandardCharsets.UTF_8)));
+            }
+            config.loadFromString(new String(yaml, StandardCharsets.UTF_8));
+
+            if (cache != null) cache.write(name, key, config, paths);
+            return config;
+        } catch (IOException | InvalidConfigurationException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * The paths bound by every known component of a file, loaded or not, and those listeners
+     * name for it, in a stable order.
+     */
+    private Set<String> boundPaths(String file) {
+        Set<String> paths = new TreeSet<>(listeners.declaredPaths(file));
+        files.forEach((type, componentFile) -> {
+            paths.addAll(ConfigChangeListeners.declaredPaths(type, file));
+            if (!componentFile.equals(file)) return;
+            for (BindingPlan.Binding binding : BindingPlan.of(type).bindings) {
+                paths.add(binding.path());
+            }
+        });
+        return paths;
+    }
+
+    private Map<String, Set<String>> reloadNow(Set<String> names) {
+        // Lazy components that failed get another attempt at their next lookup
+        failed.clear();
+
+        Map<String, Configuration> parsed = parseAll(names);
+        if (parsed.isEmpty()) return Map.of();
+
+        Map<String, Set<String>> changed = new LinkedHashMap<>();
+        synchronized (this) {
+            Snapshot current = snapshot;
+            Map<Class<?>, Object> components = new HashMap<>(current.components());
+
+            for (Class<?> type : current.components().keySet()) {
+                String file = files.get(type);
+                Configuration config = parsed.get(file);
+                if (config == null) continue;
+
+                Configuration previous = current.configs().get(file);
+                Set<String> paths = new LinkedHashSet<>();
+                for (BindingPlan.Binding binding : BindingPlan.of(type).bindings) {
+                    if (!Objects.equals(valueAt(previous, binding.path()), valueAt(config, binding.path()))) {
+                        paths.add(binding.path());
+                    }
+                }
+                if (paths.isEmpty()) continue;
+
+                changed.computeIfAbsent(file, k -> new LinkedHashSet<>()).addAll(paths);
+                try {
+                    components.put(type, processor.create(type, config));
+                } catch (Exception e) {
+                    plugin.getLogger().severe("Failed to reload component " + type.getName() + "; keeping the previous values");
+                }
+            }
+
+            // Paths listeners watch that no component binds
+            parsed.forEach((file, config) -> {
+                Configuration previous = current.configs().get(file);
+                if (previous == null) return;
+                for (String path : listeners.declaredPaths(file)) {
+                    // A snapshot loaded before the listener was registered does not hold its paths
+                    boolean unknown = previous instanceof SnapshotCache.SnapshotConfiguration snapshotted
+                            && !snapshotted.holds(Set.of(path));
+                    if (!unknown && !Objects.equals(valueAt(previous, path), valueAt(config, path))) {
+                        changed.computeIfAbsent(file, k -> new LinkedHashSet<>()).add(path);
+                    }
+                }
+            });
+
+            Map<String, Configuration> configs = new HashMap<>(current.configs());
+            configs.putAll(parsed);
+            snapshot = new Snapshot(Map.copyOf(components), Map.copyOf(configs));
+        }
+
+        if (!changed.isEmpty()) {
+            changed.forEach((file, paths) ->
+                    plugin.getLogger().info("Reloaded " + file + "; changed: " + String.join(", ", paths)));
+            Map<String, Set<String>> published = Collections.unmodifiableMap(changed);
+            plugin.getServer().getScheduler().runTask(plugin, () -> published.forEach(listeners::notify));
+        }
+        return changed;
+    }
+
+    /** A comparable view of the value at a path: sections compare by their leaf values. */
+    private static Object valueAt(ConfigurationSection config, String path) {
+        Object value = config.get(path);
+        if (!(value instanceof ConfigurationSection section)) return value;
+
+        Map<String, Object> leaves = new HashMap<>();
+        section.getValues(true).forEach((key, leaf) -> {
+            if (!(leaf instanceof ConfigurationSection)) leaves.put(key, leaf);
+        });
+        return leaves;
+    }
+
+    private record Snapshot(Map<Class<?>, Object> components, Map<String, Configuration> configs) {
     }
 }
@@ -1,97 +1,139 @@
 package io.paradaux.hibernia.framework.configurator;
 
-import io.paradaux.hibernia.framework.configurator.annotations.ConfigurationValue;
-import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.plugin.Plugin;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.util.Arrays;
-import java.util.List;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ConfigurationProcessor {
 
     private final Plugin plugin;
 
+    /** Types whose binding plan warnings have been reported; plans are built once, so are they. */
+    private final Set<Class<?>> reported = ConcurrentHashMap.newKeySet();
+
     public ConfigurationProcessor(Plugin plugin) {
         this.plugin = plugin;
     }
 
     /**
-     * Process all annotated fields in the target object
+     * Process all annotated fields in the target object, including those declared by its
+     * superclasses, from {@code plugin.getConfig()}. A {@link ConfigurationLoader} reload does
+     * not update that; pass {@link ConfigurationLoader#getConfiguration} to read the reloaded
+     * values.
      *
      * @param target The object to inject configuration values into
      */
     public void process(Object target) {
-        Class<?> clazz = target.getClass();
-        FileConfiguration config = plugin.getConfig();
-
-        // Get all declared fields (including private ones)
-        Field[] fields = clazz.getDeclaredFields();
-
-        Arrays.stream(fields)
-                .filter(field -> field.isAnnotationPresent(ConfigurationValue.class))
-                .forEach(field -> {
-                    ConfigurationValue annotation = field.getAnnotation(ConfigurationValue.class);
-                    String path = annotation.path();
-                    String defaultValue = annotation.defaultValue();
-
-                    try {
-                        // Make field accessible - this works in Java 9+ including Java 17
-                        boolean accessible = field.trySetAccessible();
-                        if (!accessible) {
-                            plugin.getLogger().warning("Cannot access field: " + field.getName() + " - skipping");
-                            return;
-                        }
-
-                        // Skip final fields
-                        if (Modifier.isFinal(field.getModifiers())) {
-                            plugin.getLogger().warning("Cannot inject config into final field: " + field.getName());
-                            return;
-                        }
-
-                        // Get value from config with appropriate type conversion
-                        Object value = getConfigValue(config, path, defaultValue, field.getType());
-                        if (value != null) {
-                            field.set(target, value);
-                        }
-
-                        // No need to restore accessibility
-                    } catch (IllegalAccessException e) {
-                        plugin.getLogger().warning("Failed to inject config value for path: " + path);
-                    }
-                });
+        process(target, plugin.getConfig());
     }
 
     /**
-     * Get value from config with type conversion
+     * Process all annotated fields in the target object from the given configuration
+     *
+     * @param target The object to inject configuration values into
+     * @param config The configuration to read
+     */
+    public void process(Object target, ConfigurationSection config) {
+        if (target.getClass().isRecord()) {
+            plugin.getLogger().warning("Cannot inject config into record " + target.getClass().getName() + "; use create()");
+            return;
+        }
+
+        BindingPlan plan = plan(target.getClass());
+        for (BindingPlan.Binding binding : plan.bindings) {
+            Object value = getConfigValue(config, binding);
+            if (value == null) continue;
+
+            try {
+                binding.setter().invokeExact(target, value);
+            } catch (Throwable e) {
+                plugin.getLogger().warning("Failed to inject config value for path: " + binding.path()
+                        + " into " + binding.name() + " (" + e + ")");
+            }
+        }
+    }
+
+    /**
+     * Create a configured instance of a component. Records are constructed from their
+     * annotated components; other classes are created with their no-argument constructor and
+     * then {@link #process processed}. Reads {@code plugin.getConfig()}, which a
+     * {@link ConfigurationLoader} reload does not update.
+     *
+     * @param type The component class
+     * @return The configured instance
+     * @throws ReflectiveOperationException if the instance could not be created
+     */
+    public <T> T create(Class<T> type) throws ReflectiveOperationException {
+        return create(type, plugin.getConfig());
+    }
+
+    /**
+     * Create a configured instance of a component from the given configuration.
+     *
+     * @param type The component class
+     * @param config The configuration to read
+     * @return The configured instance
+     * @throws ReflectiveOperationException if the instance could not be created
      */
-    @SuppressWarnings("unchecked")
-    private Object getConfigValue(FileConfiguration config, String path, String defaultValue, Class<?> type) {
-        if (!config.contains(path) && defaultValue.isEmpty()) {
-            plugin.getLogger().warning("Configuration path not found: " + path);
-            return null;
+    public <T> T create(Class<T> type, ConfigurationSection config) throws ReflectiveOperationException {
+        if (!type.isRecord()) {
+            Constructor<T> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            T instance = constructor.newInstance();
+            process(instance, config);
+            return instance;
+        }
+
+        BindingPlan plan = plan(type);
+        if (plan.constructor == null) {
+            throw new IllegalAccessException("Cannot access the canonical constructor of " + type.getName());
+        }
+
+        Object[] arguments = plan.unbound.clone();
+        for (BindingPlan.Binding binding : plan.bindings) {
+            Object value = getConfigValue(config, binding);
+            if (value != null) {
+                arguments[binding.component()] = value;
+            }
+        }
+
+        try {
+            return type.cast(plan.constructor.invokeExact(arguments));
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e, "Failed to construct record " + type.getName());
         }
+    }
+
+    /** The binding plan of a type, reporting what it skipped the first time it is used. */
+    private BindingPlan plan(Class<?> type) {
+        BindingPlan plan = BindingPlan.of(type);
+        if (!plan.warnings.isEmpty() && reported.add(type)) {
+            plan.warnings.forEach(plugin.getLogger()::warning);
+        }
+        return plan;
+    }
 
-        // Handle different types
-        if (type == String.class) {
-            return config.getString(path, defaultValue);
-        } else if (type == int.class || type == Integer.class) {
-            return config.contains(path) ? config.getInt(path) : Integer.parseInt(defaultValue);
-        } else if (type == boolean.class || type == Boolean.class) {
-            return config.contains(path) ? config.getBoolean(path) : Boolean.parseBoolean(defaultValue);
-        } else if (type == double.class || type == Double.class) {
-            return config.contains(path) ? config.getDouble(path) : Double.parseDouble(defaultValue);
-        } else if (type == long.class || type == Long.class) {
-            return config.contains(path) ? config.getLong(path) : Long.parseLong(defaultValue);
-        } else if (type == List.class) {
-            return config.getStringList(path);
-        } else if (type.isEnum()) {
-            String value = config.getString(path, defaultValue);
-            return Enum.valueOf((Class<Enum>) type, value);
+    /**
+     * Get value from config with type conversion
+     */
+    private Object getConfigValue(ConfigurationSection config, BindingPlan.Binding binding) {
+        String path = binding.path();
+        if (!config.contains(path)) {
+            if (!binding.hasDefault()) {
+                plugin.getLogger().warning("Configuration path not found: " + path);
+            }
+            return binding.defaultValue();
         }
 
-        // For complex types, return the object directly
-        return config.get(path);
+        try {
+            return binding.reader().read(config, path);
+        } catch (RuntimeException e) {
+            plugin.getLogger().warning("Invalid configuration value at " + path + " for " + binding.name() + ": " + e.getMessage());
+            return binding.defaultValue();
+        }
     }
 }
@@ -0,0 +1,413 @@
+package io.paradaux.hibernia.framework.configurator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binary snapshots of the bound values of a configuration file, so an unchanged file does not
+ * have to be parsed as YAML again on the next start.
+ *
+ * <p>A snapshot holds the value at every bound path, defaults applied, including the defaults
+ * of keys a section leaves out, and is keyed by a
+ * SHA-256 of the file's bytes, the bundled defaults and the bound paths; any change to one of
+ * them misses the cache and the file is parsed normally. Snapshots are read through a memory
+ * mapping and decoded straight from it. Values are the types YAML produces (strings, numbers,
+ * booleans, lists and sections); a file binding anything else, such as a
+ * ConfigurationSerializable, is never snapshotted.</p>
+ *
+ * <p>Layout, big-endian: magic, version, the 32-byte key, the entry count, then per entry the
+ * path and a tagged value.</p>
+ */
+@Slf4j
+final class SnapshotCache {
+
+    private static final int MAGIC = 0x48424353; // "HBCS"
+    private static final int VERSION = 1;
+    private static final int KEY_LENGTH = 32;
+
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte LIST = 6;
+    private static final byte MAP = 7;
+    private static final byte FLOAT = 8;
+    private static final byte BIG_INTEGER = 9;
+
+    // The smallest encodings of a value (its tag) and of a path or map entry (length and tag)
+    private static final int VALUE_MIN_BYTES = 1;
+    private static final int ENTRY_MIN_BYTES = 5;
+
+    // Releases a mapping immediately; null where the JDK does not allow it
+    private static final MethodHandle UNMAPPER = unmapper();
+
+    private final Path directory;
+
+    SnapshotCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * The cache key for a file.
+     *
+     * @param yaml the file's bytes
+     * @param defaults the bundled defaults' bytes, or null if there are none
+     * @param paths the bound paths, in a stable order
+     */
+    static byte[] key(byte[] yaml, byte[] defaults, Collection<String> paths) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        digest.update(yaml);
+        digest.update((byte) 0);
+        if (defaults != null) digest.update(defaults);
+        digest.update((byte) 0);
+        for (String path : paths) {
+            digest.update(path.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Load the snapshot of a file.
+     *
+     * @param paths the bound paths the key was computed from
+     * @return the snapshot as a configuration holding the bound paths, or null if there is no
+     *         snapshot for this key or it cannot be read or decoded
+     */
+    SnapshotConfiguration read(String file, byte[] key, Collection<String> paths) {
+        Map<String, Object> values = readValues(file, key);
+        if (values == null) return null;
+
+        SnapshotConfiguration config = new SnapshotConfiguration(paths);
+        try {
+            values.forEach((path, value) -> {
+                if (value instanceof Map<?, ?> section) {
+                    config.createSection(path, section);
+                } else {
+                    config.set(path, value);
+                }
+            });
+        } catch (RuntimeException e) {
+            // A path no YAML file could have produced
+            log.warn("Ignoring unreadable configuration snapshot for {}: {}", file, e.toString());
+            return null;
+        }
+        return config;
+    }
+
+    /**
+     * Snapshot the bound paths of a parsed file. Failures are logged; the file is simply parsed
+     * again next time.
+     */
+    void write(String file, byte[] key, ConfigurationSection config, Collection<String> paths) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String path : paths) {
+            Object value = plain(config.get(path));
+            if (value != null) values.put(path, value);
+        }
+
+        byte[] encoded;
+        try {
+            encoded = encode(key, values);
+        } catch (IllegalArgumentException e) {
+            log.debug("Not snapshotting {}: {}", file, e.getMessage());
+            return;
+        }
+
+        try {
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, "snapshot", ".tmp");
+            try {
+                Files.write(temporary, encoded);
+                Files.move(temporary, snapshotPath(file), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException | RuntimeException e) {
+            // The cache must never fail a load
+            log.warn("Failed to write configuration snapshot for {}: {}", file, e.toString());
+        }
+    }
+
+    /** The snapshotted values of a file, or null on a miss. */
+    Map<String, Object> readValues(String file, byte[] key) {
+        try (FileChannel channel = FileChannel.open(snapshotPath(file), StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                return decode(mapped, key);
+            } finally {
+                // Decoding copies everything out, so the mapping can go now rather than at the next GC,
+                // which would otherwise block replacing the snapshot on Windows
+                unmap(mapped);
+            }
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable configuration snapshot for {}: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    /** One flat file per configuration file: nested names such as {@code shops/items.yml} are escaped. */
+    private Path snapshotPath(String file) {
+        String flat = file.replace("%", "%25").replace("/", "%2F").replace("\\", "%5C");
+        return directory.resolve(flat + ".snapshot");
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (UNMAPPER == null) return;
+        try {
+            UNMAPPER.invokeExact(buffer);
+        } catch (Throwable t) {
+            log.debug("Could not release snapshot mapping: {}", t.toString());
+        }
+    }
+
+    private static MethodHandle unmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null))
+                    .asType(MethodType.methodType(void.class, MappedByteBuffer.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("Snapshot mappings will be released by the garbage collector: {}", e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Sections become maps, recursively; everything else is kept as it is. A section's own keys
+     * are merged over its defaults, as lookups in it would see them.
+     */
+    private static Object plain(Object value) {
+        if (!(value instanceof ConfigurationSection section)) return value;
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        ConfigurationSection defaults = section.getDefaultSection();
+        if (defaults != null) {
+            defaults.getValues(false).forEach((key, child) -> map.put(key, plain(child)));
+        }
+        section.getValues(false).forEach((key, child) -> map.put(key, plain(child)));
+        return map;
+    }
+
+    /**
+     * Encode values by path.
+     *
+     * @throws IllegalArgumentException if a value has a type snapshots do not support
+     */
+    static byte[] encode(byte[] key, Map<String, ?> values) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.write(key);
+            out.writeInt(values.size());
+            for (Map.Entry<String, ?> entry : values.entrySet()) {
+                writeString(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // In-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode values by path. Sizes are checked against the bytes left before anything is
+     * allocated, so a corrupt or partly written snapshot cannot exhaust the heap.
+     *
+     * @return the values, or null if the buffer is not a snapshot for the key
+     * @throws IllegalStateException if the snapshot is for the key but corrupt
+     */
+    static Map<String, Object> decode(ByteBuffer buffer, byte[] key) {
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return null;
+            byte[] stored = new byte[KEY_LENGTH];
+            buffer.get(stored);
+            if (!Arrays.equals(stored, key)) return null;
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+
+        try {
+            int count = size(buffer, ENTRY_MIN_BYTES);
+            Map<String, Object> values = new LinkedHashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                values.put(readString(buffer), readValue(buffer));
+            }
+            return values;
+        } catch (RuntimeException e) {
+            // Underflow, a bad tag or size, or a value its constructor rejects
+            throw new IllegalStateException("Corrupt snapshot: " + (e.getMessage() != null ? e.getMessage() : e), e);
+        }
+    }
+
+    /**
+     * Read a count of things each at least {@code minBytes} long.
+     *
+     * @throws IllegalStateException if it is negative or more than the bytes left could hold
+     */
+    private static int size(ByteBuffer buffer, int minBytes) {
+        int size = buffer.getInt();
+        if (size < 0 || size > buffer.remaining() / minBytes) {
+            throw new IllegalStateException("size " + size + " with " + buffer.remaining() + " bytes left");
+        }
+        return size;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof String s) {
+            out.writeByte(STRING);
+            writeString(out, s);
+        } else if (value instanceof Integer i) {
+            out.writeByte(INT);
+            out.writeInt(i);
+        } else if (value instanceof Long l) {
+            out.writeByte(LONG);
+            out.writeLong(l);
+        } else if (value instanceof Double d) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(d);
+        } else if (value instanceof Float f) {
+            out.writeByte(FLOAT);
+            out.writeFloat(f);
+        } else if (value instanceof Boolean b) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof BigInteger big) {
+            out.writeByte(BIG_INTEGER);
+            byte[] magnitude = big.toByteArray();
+            out.writeInt(magnitude.length);
+            out.write(magnitude);
+        } else if (value instanceof List<?> list) {
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+            for (Object element : list) writeValue(out, element);
+        } else if (value instanceof Map<?, ?> map) {
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String name)) {
+                    throw new IllegalArgumentException("non-string key " + entry.getKey());
+                }
+                writeString(out, name);
+                writeValue(out, entry.getValue());
+            }
+        } else {
+            throw new IllegalArgumentException("unsupported value type "
+                    + (value == null ? "null" : value.getClass().getName()));
+        }
+    }
+
+    private static Object readValue(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        switch (tag) {
+            case STRING:
+                return readString(buffer);
+            case INT:
+                return buffer.getInt();
+            case LONG:
+                return buffer.getLong();
+            case DOUBLE:
+                return buffer.getDouble();
+            case FLOAT:
+                return buffer.getFloat();
+            case BOOLEAN:
+                return buffer.get() != 0;
+            case BIG_INTEGER: {
+                byte[] magnitude = new byte[size(buffer, 1)];
+                buffer.get(magnitude);
+                return new BigInteger(magnitude);
+            }
+            case LIST: {
+                int size = size(buffer, VALUE_MIN_BYTES);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) list.add(readValue(buffer));
+                return list;
+            }
+            case MAP: {
+                int size = size(buffer, ENTRY_MIN_BYTES);
+                Map<String, Object> map = new LinkedHashMap<>(size * 2);
+                for (int i = 0; i < size; i++) map.put(readString(buffer), readValue(buffer));
+                return map;
+            }
+            default:
+                throw new IllegalStateException("Unknown value tag " + tag);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = size(buffer, 1);
+        if (buffer.hasArray()) {
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] utf8 = new byte[length];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A configuration loaded from a snapshot. It holds only the paths that were bound when the
+     * snapshot was written, so a path bound later has to be read from the file again.
+     */
+    static final class SnapshotConfiguration extends MemoryConfiguration {
+
+        private final Set<String> paths;
+
+        SnapshotConfiguration(Collection<String> paths) {
+            this.paths = Set.copyOf(paths);
+        }
+
+        /** Whether every one of these paths was bound when the snapshot was written. */
+        boolean holds(Collection<String> paths) {
+            return this.paths.containsAll(paths);
+        }
+    }
+}
@@ -8,4 +8,14 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.TYPE)
 public @interface ConfigurationComponent {
+    /**
+     * The file in the plugin's data folder to bind from. A file of the same name in the plugin
+     * jar is copied out if missing and supplies the defaults.
+     */
+    String file() default "config.yml";
+
+    /**
+     * Load the file and create the component on the first lookup instead of at startup
+     */
+    boolean lazy() default false;
 }
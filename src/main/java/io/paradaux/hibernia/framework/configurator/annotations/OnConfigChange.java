@@ -0,0 +1,26 @@
+package io.paradaux.hibernia.framework.configurator.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method to call on the main thread after a configuration reload changed one of the
+ * given paths in the given file. The method takes no parameters, or a {@code Set<String>} of the changed paths
+ * it is interested in.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface OnConfigChange {
+    /**
+     * The paths to listen to; a path also covers everything below it. Empty means any path
+     * bound by a component.
+     */
+    String[] value() default {};
+
+    /**
+     * The file the paths are in.
+     */
+    String file() default "config.yml";
+}
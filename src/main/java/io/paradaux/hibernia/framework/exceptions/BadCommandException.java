@@ -1,6 +1,7 @@
 package io.paradaux.hibernia.framework.exceptions;
 
-public class BadCommandException extends RuntimeException {
+@MessageKey("errors.bad-command")
+public class BadCommandException extends HiberniaException {
     public BadCommandException(String message) {
         super(message);
     }
@@ -1,6 +1,7 @@
 package io.paradaux.hibernia.framework.exceptions;
 
-public class ConflictException extends RuntimeException {
+@MessageKey("errors.conflict")
+public class ConflictException extends HiberniaException {
     public ConflictException(String message) {
         super(message);
     }
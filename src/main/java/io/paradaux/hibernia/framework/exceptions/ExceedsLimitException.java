@@ -1,6 +1,7 @@
 package io.paradaux.hibernia.framework.exceptions;
 
-public class ExceedsLimitException extends RuntimeException {
+@MessageKey("errors.exceeds-limit")
+public class ExceedsLimitException extends HiberniaException {
     public ExceedsLimitException(String message) {
         super(message);
     }
@@ -0,0 +1,39 @@
+package io.paradaux.hibernia.framework.exceptions;
+
+/**
+ * Base class of the framework's exceptions.
+ *
+ * <p>These describe expected outcomes (bad input, missing entities, conflicts) rather than
+ * bugs, so they are stackless: constructing one costs an allocation, not a stack walk. When a
+ * command route throws one, or argument resolution fails with one, the CommandManager sends
+ * the sender the {@code messages.properties} entry named by the type's {@link MessageKey}
+ * (falling back to the exception message if that key is not defined) instead of logging it.</p>
+ */
+public class HiberniaException extends RuntimeException {
+
+    public HiberniaException(String message) {
+        super(message, null, false, false);
+    }
+
+    public HiberniaException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+
+    /**
+     * The message key for this particular failure, overriding the type's {@link MessageKey}.
+     *
+     * @return the key, or null to use the type's
+     */
+    public String messageKey() {
+        return null;
+    }
+
+    /**
+     * Placeholders for the feedback message, as alternating names and values.
+     *
+     * @return at least {@code message}
+     */
+    public Object[] placeholders() {
+        return new Object[] {"message", getMessage()};
+    }
+}
@@ -0,0 +1,52 @@
+package io.paradaux.hibernia.framework.exceptions;
+
+/**
+ * A command argument that could not be resolved to its parameter type.
+ *
+ * <p>The message is only built if it is asked for, so rejecting input costs a single
+ * allocation. Placeholders: {@code {argument}}, {@code {input}} and {@code {message}}.</p>
+ */
+@MessageKey("errors.invalid-argument")
+public class InvalidArgumentException extends BadCommandException {
+
+    private final String argument;
+    private final String input;
+    private final String messageKey;
+
+    public InvalidArgumentException(String argument, String input) {
+        this(argument, input, null);
+    }
+
+    /**
+     * @param messageKey key of a more specific message than {@code errors.invalid-argument}, or null
+     */
+    public InvalidArgumentException(String argument, String input, String messageKey) {
+        super(null);
+        this.argument = argument;
+        this.input = input;
+        this.messageKey = messageKey;
+    }
+
+    public String getArgument() {
+        return argument;
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Invalid " + argument + ": " + input;
+    }
+
+    @Override
+    public String messageKey() {
+        return messageKey;
+    }
+
+    @Override
+    public Object[] placeholders() {
+        return new Object[] {"argument", argument, "input", input, "message", getMessage()};
+    }
+}
@@ -0,0 +1,23 @@
+package io.paradaux.hibernia.framework.exceptions;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Names the {@code messages.properties} key sent to a command sender when a route fails with
+ * this exception type.
+ *
+ * <p>Inherited by subclasses that don't declare their own. The message receives the
+ * {@link HiberniaException#placeholders()} of the exception, or {@code {message}} for other
+ * exception types. Types outside your control can be mapped with
+ * {@code CommandManager#mapException}.</p>
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface MessageKey {
+    String value();
+}
@@ -1,6 +1,7 @@
 package io.paradaux.hibernia.framework.exceptions;
 
-public class NoPermissionException extends RuntimeException {
+@MessageKey("errors.no-permission")
+public class NoPermissionException extends HiberniaException {
     public NoPermissionException(String message) {
         super(message);
     }
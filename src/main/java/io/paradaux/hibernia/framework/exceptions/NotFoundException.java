@@ -1,6 +1,7 @@
 package io.paradaux.hibernia.framework.exceptions;
 
-public class NotFoundException extends RuntimeException {
+@MessageKey("errors.not-found")
+public class NotFoundException extends HiberniaException {
     public NotFoundException(String message) {
         super(message);
     }
@@ -3,6 +3,8 @@ package io.paradaux.hibernia.framework.i18n;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.paradaux.hibernia.framework.models.HiberniaPlayer;
+import io.paradaux.hibernia.framework.players.PlayerNameIndex;
+import io.paradaux.hibernia.framework.scheduling.MainThreadOutbox;
 import lombok.extern.slf4j.Slf4j;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
@@ -29,6 +31,8 @@ public final class Message {
     private static final int MAX_EXPANSION_DEPTH = 8;
 
     private final JavaPlugin plugin;
+    private final PlayerNameIndex playerNames;
+    private final MainThreadOutbox outbox;
     private final Path file;
     private final Properties props = new Properties();
     private final MiniMessage mm = MiniMessage.miniMessage();
@@ -38,13 +42,30 @@ public final class Message {
     private Map<String, Map<String,String>> nsPh = Map.of();
 
     @Inject
-    public Message(JavaPlugin plugin) {
+    public Message(JavaPlugin plugin, PlayerNameIndex playerNames, MainThreadOutbox outbox) {
         this.plugin = Objects.requireNonNull(plugin);
+        this.playerNames = Objects.requireNonNull(playerNames);
+        this.outbox = Objects.requireNonNull(outbox);
         this.file = plugin.getDataFolder().toPath().resolve("messages.properties");
         ensureDefaultFile();
         reload();
     }
 
+    /**
+     * @deprecated Inject the Message instead. This creates its own {@link PlayerNameIndex} and
+     *             starts its own {@link MainThreadOutbox} rather than sharing the plugin's.
+     */
+    @Deprecated
+    public Message(JavaPlugin plugin) {
+        this(plugin, new PlayerNameIndex(plugin), startedOutbox(plugin));
+    }
+
+    private static MainThreadOutbox startedOutbox(JavaPlugin plugin) {
+        MainThreadOutbox outbox = new MainThreadOutbox(plugin);
+        outbox.start();
+        return outbox;
+    }
+
     public String format(String key, Object... kvPairs) {
         return format(key, kvToMap(kvPairs));
     }
@@ -57,12 +78,20 @@ public final class Message {
         return mm.deserialize(format(key, values));
     }
 
+    /**
+     * Send a message. Safe to call from any thread: the message is formatted on the calling
+     * thread and delivered on the main thread, via the {@link MainThreadOutbox} if necessary.
+     */
     public void send(CommandSender to, String key, Object... kvPairs) {
-        to.sendMessage(component(key, kvPairs));
+        outbox.send(to, component(key, kvPairs));
     }
 
     public void send(HiberniaPlayer to, String key, Object... kvPairs) {
-        Player player = Bukkit.getPlayer(to.getCurrentName());
+        Player player = playerNames.getExact(to.getCurrentName());
+        if (player == null || !player.getUniqueId().equals(to.getUniqueId())) {
+            // Renamed since the name was stored
+            player = Bukkit.getPlayer(to.getUniqueId());
+        }
         if (player != null) {
             send(player, key, kvPairs);
         }
@@ -77,13 +106,17 @@ public final class Message {
 
     public void send(Collection<? extends CommandSender> recipients, String key, Object... kvPairs) {
         Component msg = component(key, kvPairs);
-        for (CommandSender s : recipients) s.sendMessage(msg);
+        outbox.run(() -> {
+            for (CommandSender s : recipients) s.sendMessage(msg);
+        });
     }
 
     public void broadcast(String key, Object... kvPairs) {
         Component msg = component(key, kvPairs);
-        Bukkit.getOnlinePlayers().forEach(p -> p.sendMessage(msg));
-        Bukkit.getConsoleSender().sendMessage(msg);
+        outbox.run(() -> {
+            Bukkit.getOnlinePlayers().forEach(p -> p.sendMessage(msg));
+            Bukkit.getConsoleSender().sendMessage(msg);
+        });
     }
 
     @SuppressWarnings("ignored")
@@ -145,6 +178,13 @@ public final class Message {
         return out;
     }
 
+    /**
+     * @return whether {@code messages.properties} defines the key
+     */
+    public boolean has(String key) {
+        return props.containsKey(key);
+    }
+
     private String raw(String key) {
         return props.getProperty(key, key);
     }
@@ -0,0 +1,218 @@
+package io.paradaux.hibernia.framework.players;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * On-disk tier of the {@link PlayerIdentityCache}.
+ *
+ * <p>The file holds fixed-width records twice: once sorted by lower-cased name and once by UUID.
+ * It is read into a direct buffer and binary searched in place, so lookups cost O(log n) and the
+ * tier takes no Java heap regardless of how many players it knows. Updates are merged in by
+ * rewriting the file to a temporary sibling and atomically moving it over the old one. The file
+ * is deliberately not memory-mapped: a mapping keeps the file open until it is garbage
+ * collected, and on Windows the move over a mapped file fails.</p>
+ *
+ * <p>Layout: {@code int magic, int nameCount, int idCount}, then the name-sorted records, then
+ * the id-sorted records. Each record is a 16-byte zero-padded ASCII name, the UUID's two longs
+ * and the last-seen timestamp.</p>
+ */
+final class IdentityStore {
+
+    private static final int MAGIC = 0x48494431; // "HID1"
+    private static final int HEADER = 12;
+    private static final int NAME_BYTES = 16;
+    private static final int RECORD = NAME_BYTES + 8 + 8 + 8;
+
+    private final Path path;
+    private volatile Contents contents = Contents.EMPTY;
+
+    IdentityStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Load the file if it exists; otherwise start empty.
+     *
+     * @throws IOException if the file can't be read or is not a well-formed store
+     */
+    void open() throws IOException {
+        if (!Files.exists(path)) return;
+
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Identity store too large: " + path);
+            buffer = ByteBuffer.allocateDirect((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Read the whole file
+            }
+            buffer.flip();
+        }
+        use(buffer);
+    }
+
+    private void use(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an identity store: " + path);
+        }
+        int names = buffer.getInt(4);
+        int ids = buffer.getInt(8);
+        if (buffer.capacity() != HEADER + (long) (names + ids) * RECORD) {
+            throw new IOException("Truncated identity store: " + path);
+        }
+        contents = new Contents(buffer, names, ids);
+    }
+
+    int size() {
+        return contents.ids;
+    }
+
+    Optional<PlayerIdentity> findByName(String name) {
+        Contents m = contents;
+        String lower = name.toLowerCase(Locale.ROOT);
+        int lo = 0;
+        int hi = m.names - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int offset = HEADER + mid * RECORD;
+            int cmp = compareName(m.buffer, offset, lower);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return Optional.of(read(m.buffer, offset));
+        }
+        return Optional.empty();
+    }
+
+    Optional<PlayerIdentity> findById(UUID id) {
+        Contents m = contents;
+        int base = HEADER + m.names * RECORD;
+        int lo = 0;
+        int hi = m.ids - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int offset = base + mid * RECORD;
+            UUID candidate = new UUID(m.buffer.getLong(offset + NAME_BYTES), m.buffer.getLong(offset + NAME_BYTES + 8));
+            int cmp = candidate.compareTo(id);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return Optional.of(read(m.buffer, offset));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Merge updates into the file. For each player, and for each name, the most recently seen
+     * mapping wins. A player's older names are dropped, including when their newest name can't
+     * be written, so no name leads to a player who has since been seen under another.
+     *
+     * @param updates mappings learnt since the last merge
+     * @throws IOException if the file can't be written
+     */
+    synchronized void merge(Collection<PlayerIdentity> updates) throws IOException {
+        Contents m = contents;
+        Map<UUID, PlayerIdentity> byId = new HashMap<>(m.ids + updates.size());
+        int base = HEADER + m.names * RECORD;
+        for (int i = 0; i < m.ids; i++) {
+            PlayerIdentity identity = read(m.buffer, base + i * RECORD);
+            byId.put(identity.id(), identity);
+        }
+        for (PlayerIdentity update : updates) {
+            byId.merge(update.id(), update, IdentityStore::newest);
+        }
+        // Newest names that can't be written keep their player out of the file, stale name and all
+        byId.values().removeIf(identity -> !persistable(identity.name()));
+
+        // Built from each player's newest mapping only, so superseded names are left out
+        Map<String, PlayerIdentity> byName = new HashMap<>(byId.size());
+        for (PlayerIdentity identity : byId.values()) {
+            byName.merge(identity.name().toLowerCase(Locale.ROOT), identity, IdentityStore::newest);
+        }
+
+        List<PlayerIdentity> nameOrder = new ArrayList<>(byName.values());
+        nameOrder.sort(Comparator.comparing(i -> i.name().toLowerCase(Locale.ROOT)));
+        List<PlayerIdentity> idOrder = new ArrayList<>(byId.values());
+        idOrder.sort(Comparator.comparing(PlayerIdentity::id));
+
+        ByteBuffer out = ByteBuffer.allocateDirect(HEADER + (nameOrder.size() + idOrder.size()) * RECORD);
+        out.putInt(MAGIC).putInt(nameOrder.size()).putInt(idOrder.size());
+        nameOrder.forEach(i -> write(out, i));
+        idOrder.forEach(i -> write(out, i));
+        out.flip();
+
+        Files.createDirectories(path.getParent());
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) channel.write(out);
+            channel.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        use(out.clear());
+    }
+
+    /** Only names that fit a record and are printable ASCII are written; others stay memory-only. */
+    static boolean persistable(String name) {
+        if (name == null || name.isEmpty() || name.length() > NAME_BYTES) return false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c <= ' ' || c >= 0x7F) return false;
+        }
+        return true;
+    }
+
+    private static PlayerIdentity newest(PlayerIdentity a, PlayerIdentity b) {
+        return a.lastSeen() >= b.lastSeen() ? a : b;
+    }
+
+    /** Compare the record's name, lower-cased, against an already lower-cased key. */
+    private static int compareName(ByteBuffer buffer, int offset, String lower) {
+        for (int i = 0; i < NAME_BYTES; i++) {
+            int b = buffer.get(offset + i);
+            if (b == 0) {
+                return i == lower.length() ? 0 : -1;
+            }
+            if (i == lower.length()) return 1;
+            if (b >= 'A' && b <= 'Z') b += 'a' - 'A';
+            int cmp = b - lower.charAt(i);
+            if (cmp != 0) return cmp;
+        }
+        return lower.length() > NAME_BYTES ? -1 : 0;
+    }
+
+    private static PlayerIdentity read(ByteBuffer buffer, int offset) {
+        int length = 0;
+        while (length < NAME_BYTES && buffer.get(offset + length) != 0) length++;
+        byte[] name = new byte[length];
+        buffer.get(offset, name, 0, length);
+        UUID id = new UUID(buffer.getLong(offset + NAME_BYTES), buffer.getLong(offset + NAME_BYTES + 8));
+        return new PlayerIdentity(id, new String(name, StandardCharsets.US_ASCII), buffer.getLong(offset + NAME_BYTES + 16));
+    }
+
+    private static void write(ByteBuffer out, PlayerIdentity identity) {
+        byte[] name = identity.name().getBytes(StandardCharsets.US_ASCII);
+        out.put(name).put(new byte[NAME_BYTES - name.length]);
+        out.putLong(identity.id().getMostSignificantBits());
+        out.putLong(identity.id().getLeastSignificantBits());
+        out.putLong(identity.lastSeen());
+    }
+
+    private record Contents(ByteBuffer buffer, int names, int ids) {
+        static final Contents EMPTY = new Contents(ByteBuffer.allocate(0), 0, 0);
+    }
+}
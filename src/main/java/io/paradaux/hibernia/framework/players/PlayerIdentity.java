@@ -0,0 +1,12 @@
+package io.paradaux.hibernia.framework.players;
+
+import java.util.UUID;
+
+/**
+ * A player's unique id together with the name they were last seen with.
+ *
+ * @param id the player's UUID
+ * @param name the last known name
+ * @param lastSeen epoch millis at which this mapping was last confirmed
+ */
+public record PlayerIdentity(UUID id, String name, long lastSeen) {}
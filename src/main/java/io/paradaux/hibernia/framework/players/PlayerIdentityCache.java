@@ -0,0 +1,259 @@
+package io.paradaux.hibernia.framework.players;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Name-to-UUID (and back) cache for players who may not be online or in Bukkit's user cache.
+ *
+ * <p>Lookups go through three tiers:
+ * - a bounded in-memory tier of recently used identities,
+ * - a persistent tier ({@code identities.bin} in the plugin data folder), held off-heap and
+ *   binary searched in place,
+ * - the {@link PlayerIdentityLoader}, asynchronously, for names neither tier knows.</p>
+ *
+ * <p>Concurrent loads of the same name share one future, and names the loader found no player
+ * for are remembered for a couple of minutes rather than looked up again. Players are remembered as they join,
+ * and new mappings are merged into the file periodically off the main thread and on
+ * {@link #flush()}.</p>
+ */
+@Slf4j
+@Singleton
+public final class PlayerIdentityCache implements Listener {
+
+    private static final int MEMORY_ENTRIES = 10_000;
+    private static final long FLUSH_PERIOD_TICKS = 20L * 60 * 5;
+    private static final long NOT_FOUND_TTL_MINUTES = 2;
+
+    private final PlayerIdentityLoader loader;
+    private final IdentityStore store;
+
+    private final Cache<String, PlayerIdentity> byName = CacheBuilder.newBuilder().maximumSize(MEMORY_ENTRIES).build();
+    private final Cache<UUID, PlayerIdentity> byId = CacheBuilder.newBuilder().maximumSize(MEMORY_ENTRIES).build();
+    // Names the loader found no player for, so mistyped names do not each cost a remote lookup
+    private final Cache<String, Boolean> notFound = CacheBuilder.newBuilder()
+            .maximumSize(MEMORY_ENTRIES)
+            .expireAfterWrite(NOT_FOUND_TTL_MINUTES, TimeUnit.MINUTES)
+            .build();
+    private final Map<String, CompletableFuture<Optional<PlayerIdentity>>> loading = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<PlayerIdentity> unsaved = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder storeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    @Inject
+    public PlayerIdentityCache(JavaPlugin plugin, PlayerIdentityLoader loader) {
+        this(loader, new IdentityStore(plugin.getDataFolder().toPath().resolve("identities.bin")));
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, this::flush, FLUSH_PERIOD_TICKS, FLUSH_PERIOD_TICKS);
+    }
+
+    PlayerIdentityCache(PlayerIdentityLoader loader, IdentityStore store) {
+        this.loader = loader;
+        this.store = store;
+        try {
+            store.open();
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable identity store: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Find a player's identity by name without loading. Never blocks.
+     *
+     * @param name the player name, any case
+     * @return the identity, if the memory or file tier knows it
+     */
+    public Optional<PlayerIdentity> getIfCached(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        PlayerIdentity cached = byName.getIfPresent(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return Optional.of(cached);
+        }
+
+        // The file may still map the name to a player who has since been seen under another
+        Optional<PlayerIdentity> stored = store.findByName(key).filter(this::isCurrent);
+        stored.ifPresent(identity -> {
+            storeHits.increment();
+            promote(identity);
+        });
+        return stored;
+    }
+
+    /**
+     * Find a player's identity by UUID without loading. Never blocks.
+     *
+     * @param id the player's UUID
+     * @return the identity, if the memory or file tier knows it
+     */
+    public Optional<PlayerIdentity> getIfCached(UUID id) {
+        PlayerIdentity cached = byId.getIfPresent(id);
+        if (cached != null) {
+            memoryHits.increment();
+            return Optional.of(cached);
+        }
+
+        Optional<PlayerIdentity> stored = store.findById(id);
+        stored.ifPresent(identity -> {
+            storeHits.increment();
+            promote(identity);
+        });
+        return stored;
+    }
+
+    /**
+     * Find a player's identity by name, loading it through the {@link PlayerIdentityLoader} if
+     * neither tier knows it.
+     *
+     * @param name the player name, any case
+     * @return a future of the identity, empty if no such player exists
+     */
+    public CompletableFuture<Optional<PlayerIdentity>> lookup(String name) {
+        Optional<PlayerIdentity> cached = getIfCached(name);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        String key = name.toLowerCase(Locale.ROOT);
+        if (notFound.getIfPresent(key) != null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        misses.increment();
+        CompletableFuture<Optional<PlayerIdentity>> result = new CompletableFuture<>();
+        CompletableFuture<Optional<PlayerIdentity>> existing = loading.putIfAbsent(key, result);
+        if (existing != null) {
+            return existing;
+        }
+
+        // Load outside the map operation: the loader may complete synchronously
+        long start = System.nanoTime();
+        CompletableFuture<Optional<PlayerIdentity>> load;
+        try {
+            load = loader.load(name);
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+        load.whenComplete((identity, error) -> {
+            loadNanos.add(System.nanoTime() - start);
+            if (error != null) {
+                loadFailures.increment();
+            } else if (identity.isPresent()) {
+                remember(identity.get());
+            } else {
+                notFound.put(key, Boolean.TRUE);
+            }
+
+            loading.remove(key, result);
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(identity);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Record a confirmed mapping in memory; it is written to the file on the next flush.
+     *
+     * @param identity the mapping
+     */
+    public void remember(PlayerIdentity identity) {
+        promote(identity);
+        unsaved.add(identity);
+    }
+
+    /**
+     * Merge mappings learnt since the last flush into the file. Blocking; call off the main
+     * thread, or from {@code onDisable}.
+     */
+    public void flush() {
+        List<PlayerIdentity> batch = new ArrayList<>();
+        for (PlayerIdentity identity; (identity = unsaved.poll()) != null; ) {
+            batch.add(identity);
+        }
+        if (batch.isEmpty()) return;
+
+        try {
+            store.merge(batch);
+        } catch (IOException e) {
+            log.warn("Failed to save player identities: {}", e.getMessage());
+            unsaved.addAll(batch);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(memoryHits.sum(), storeHits.sum(), misses.sum(), loadFailures.sum(),
+                loadNanos.sum(), byId.size(), store.size());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        remember(new PlayerIdentity(player.getUniqueId(), player.getName(), System.currentTimeMillis()));
+    }
+
+    private void promote(PlayerIdentity identity) {
+        PlayerIdentity known = byId.getIfPresent(identity.id());
+        if (known != null && known.lastSeen() > identity.lastSeen()) return;
+
+        String key = identity.name().toLowerCase(Locale.ROOT);
+        if (known != null) {
+            String previous = known.name().toLowerCase(Locale.ROOT);
+            if (!previous.equals(key)) {
+                // Renamed: the old name no longer leads to this player, though another may have taken it
+                byName.asMap().computeIfPresent(previous, (name, mapped) -> mapped.id().equals(identity.id()) ? null : mapped);
+            }
+        }
+        notFound.invalidate(key);
+        byName.put(key, identity);
+        byId.put(identity.id(), identity);
+    }
+
+    /** Whether no newer mapping for the same player is held in memory. */
+    private boolean isCurrent(PlayerIdentity identity) {
+        PlayerIdentity known = byId.getIfPresent(identity.id());
+        return known == null || known.lastSeen() <= identity.lastSeen();
+    }
+
+    /**
+     * Cache counters since startup.
+     *
+     * @param memoryHits lookups answered by the in-memory tier
+     * @param storeHits lookups answered by the file tier
+     * @param misses lookups that went to the loader
+     * @param loadFailures loader calls that completed exceptionally
+     * @param loadNanos total time spent waiting on the loader
+     * @param memoryEntries identities currently held in memory
+     * @param storedEntries identities in the file tier
+     */
+    public record Stats(long memoryHits, long storeHits, long misses, long loadFailures, long loadNanos,
+                        long memoryEntries, int storedEntries) {}
+}
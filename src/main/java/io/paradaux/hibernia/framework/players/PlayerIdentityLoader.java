@@ -0,0 +1,18 @@
+package io.paradaux.hibernia.framework.players;
+
+import com.google.inject.ImplementedBy;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Source of name-to-UUID mappings for players the {@link PlayerIdentityCache} hasn't seen.
+ *
+ * <p>Implementations must not block the calling thread. Bind your own implementation (for
+ * example one backed by your network's player database) to replace the default, which
+ * completes a Paper profile lookup on a virtual thread.</p>
+ */
+@ImplementedBy(ProfileIdentityLoader.class)
+public interface PlayerIdentityLoader {
+    CompletableFuture<Optional<PlayerIdentity>> load(String name);
+}
@@ -0,0 +1,87 @@
+package io.paradaux.hibernia.framework.players;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Case-insensitive index of online player names.
+ *
+ * <p>Names are kept lower-cased in a concurrent skip list, updated incrementally on join and quit,
+ * so prefix completion is a range scan costing O(log n + matches) instead of a pass over every
+ * online player, and exact lookups are a single O(log n) probe. Safe to read from any thread.</p>
+ *
+ * <p>Shared by the player resolvers in the commander and by
+ * {@link io.paradaux.hibernia.framework.i18n.Message#send(io.paradaux.hibernia.framework.models.HiberniaPlayer, String, Object...)}.</p>
+ */
+@Singleton
+public final class PlayerNameIndex implements Listener {
+
+    private final ConcurrentSkipListMap<String, Player> byName = new ConcurrentSkipListMap<>();
+
+    @Inject
+    public PlayerNameIndex(JavaPlugin plugin) {
+        plugin.getServer().getOnlinePlayers().forEach(this::add);
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Names of online players starting with the given prefix, ignoring case, in alphabetical order.
+     *
+     * @param prefix the typed prefix
+     * @param limit maximum number of names to return
+     * @return matching names in their original case
+     */
+    public List<String> complete(String prefix, int limit) {
+        String from = prefix.toLowerCase(Locale.ROOT);
+        ConcurrentNavigableMap<String, Player> range = byName.subMap(from, true, from + Character.MAX_VALUE, false);
+
+        List<String> names = new ArrayList<>(Math.min(limit, 16));
+        for (Player player : range.values()) {
+            if (names.size() >= limit) break;
+            names.add(player.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Look up an online player by exact name, ignoring case.
+     *
+     * @param name the player name
+     * @return the player, or null if nobody by that name is online
+     */
+    public Player getExact(String name) {
+        return byName.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    public int size() {
+        return byName.size();
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        add(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        byName.remove(player.getName().toLowerCase(Locale.ROOT), player);
+    }
+
+    private void add(Player player) {
+        byName.put(player.getName().toLowerCase(Locale.ROOT), player);
+    }
+}
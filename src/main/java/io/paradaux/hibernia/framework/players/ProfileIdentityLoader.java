@@ -0,0 +1,30 @@
+package io.paradaux.hibernia.framework.players;
+
+import com.destroystokyo.paper.profile.PlayerProfile;
+import org.bukkit.Bukkit;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Default {@link PlayerIdentityLoader}: completes a Paper {@link PlayerProfile} by name, which
+ * consults the server's user cache and then the Mojang profile API, on a virtual thread.
+ */
+public class ProfileIdentityLoader implements PlayerIdentityLoader {
+
+    private static final Executor LOOKUPS = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("hibernia-profile-lookup-", 0).factory());
+
+    @Override
+    public CompletableFuture<Optional<PlayerIdentity>> load(String name) {
+        return CompletableFuture.supplyAsync(() -> {
+            PlayerProfile profile = Bukkit.createProfile(name);
+            if (!profile.complete(false) || profile.getId() == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new PlayerIdentity(profile.getId(), profile.getName(), System.currentTimeMillis()));
+        }, LOOKUPS);
+    }
+}
@@ -0,0 +1,118 @@
+package io.paradaux.hibernia.framework.scheduling;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Server;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Hands work from other threads to the main thread in per-tick batches.
+ *
+ * <p>Instead of one scheduler task per message or callback, producers append to a lock-free
+ * queue that a single repeating task drains once per tick. Each drain stops after the
+ * configured budget of tasks or time, leaving the rest for the next tick, so a burst of
+ * feedback from async commands is spread out instead of stalling one tick.</p>
+ *
+ * <p>Tasks run in the order they were submitted. A task that throws is logged and does not
+ * affect the others. Nothing is drained until {@link #start()} is called from the plugin's
+ * enable hook; {@code CommandManager.registerAll()} does so.</p>
+ */
+@Slf4j
+@Singleton
+public final class MainThreadOutbox implements Executor {
+
+    private final JavaPlugin plugin;
+    private final Server server;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+
+    private volatile int maxTasksPerTick = 1_000;
+    private volatile long maxNanosPerTick = Duration.ofMillis(2).toNanos();
+    private BukkitTask drainTask;
+
+    @Inject
+    public MainThreadOutbox(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.server = plugin.getServer();
+    }
+
+    /**
+     * Start draining, from the next tick on. Call from {@code onEnable}, since scheduling needs
+     * an enabled plugin; calling it again does nothing.
+     */
+    public synchronized void start() {
+        if (drainTask == null) {
+            drainTask = server.getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+        }
+    }
+
+    /**
+     * Limit how much queued work runs per tick. Whichever limit is reached first ends the drain;
+     * at least one task runs per tick regardless.
+     *
+     * @param maxTasks tasks per tick
+     * @param maxTime time per tick
+     */
+    public void setDrainBudget(int maxTasks, Duration maxTime) {
+        if (maxTasks < 1) throw new IllegalArgumentException("maxTasks must be at least 1");
+        this.maxTasksPerTick = maxTasks;
+        this.maxNanosPerTick = maxTime.toNanos();
+    }
+
+    /**
+     * Queue a task for the main thread, even if called from it.
+     *
+     * @param task the task
+     */
+    @Override
+    public void execute(Runnable task) {
+        queue.add(task);
+    }
+
+    /**
+     * Run a task on the main thread: immediately if already on it, otherwise on the next drain.
+     *
+     * @param task the task
+     */
+    public void run(Runnable task) {
+        if (server.isPrimaryThread()) {
+            task.run();
+        } else {
+            queue.add(task);
+        }
+    }
+
+    public void send(CommandSender recipient, String message) {
+        run(() -> recipient.sendMessage(message));
+    }
+
+    public void send(CommandSender recipient, Component message) {
+        run(() -> recipient.sendMessage(message));
+    }
+
+    private void drain() {
+        int budget = maxTasksPerTick;
+        long deadline = System.nanoTime() + maxNanosPerTick;
+
+        for (int ran = 0; ran < budget; ran++) {
+            Runnable task = queue.poll();
+            if (task == null) return;
+
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.error("Main thread task failed", t);
+            }
+
+            if (System.nanoTime() - deadline > 0) return;
+        }
+    }
+}
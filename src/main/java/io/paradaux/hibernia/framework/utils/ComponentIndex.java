@@ -0,0 +1,130 @@
+package io.paradaux.hibernia.framework.utils;
+
+import io.paradaux.hibernia.framework.commander.annotations.Command;
+import io.paradaux.hibernia.framework.configurator.annotations.ConfigurationComponent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The framework-annotated types recorded at compile time by the hibernia-framework-processor
+ * in {@code META-INF/hibernia/components.idx}.
+ *
+ * <p>Looking a type up costs one line of the index per component instead of a scan of every
+ * class in the jar. Only the index of the jar being looked up is read.</p>
+ *
+ * <p>Entries are keyed by role ({@code component}, {@code command}) rather than annotation name,
+ * so the index still matches after a plugin relocates the framework while shading it.</p>
+ */
+@Slf4j
+public final class ComponentIndex {
+
+    public static final String LOCATION = "META-INF/hibernia/components.idx";
+
+    /** The role each annotation is indexed under; kept in step with the ComponentIndexProcessor. */
+    private static final Map<Class<? extends Annotation>, String> ROLES = Map.of(
+            ConfigurationComponent.class, "component",
+            Command.class, "command");
+
+    private final ClassLoader classLoader;
+    private final Map<String, List<String>> types;
+
+    private ComponentIndex(ClassLoader classLoader, Map<String, List<String>> types) {
+        this.classLoader = classLoader;
+        this.types = types;
+    }
+
+    /**
+     * Read the index of the jar (or classes directory) a class was loaded from. Indexes of other
+     * jars visible to its class loader, such as dependencies', are ignored: they say nothing
+     * about whether the owner's own classes were indexed.
+     *
+     * @param owner a class of the code to look up, typically the plugin's main class
+     * @return the index, or empty if the owner's jar has none (it was compiled without the
+     *         processor) or it could not be read
+     */
+    public static Optional<ComponentIndex> load(Class<?> owner) {
+        CodeSource source = owner.getProtectionDomain().getCodeSource();
+        if (source == null || source.getLocation() == null) return Optional.empty();
+
+        String root = source.getLocation().toExternalForm();
+        Set<String> own = Set.of("jar:" + root + "!/" + LOCATION, root + (root.endsWith("/") ? "" : "/") + LOCATION);
+
+        ClassLoader classLoader = owner.getClassLoader();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(LOCATION);
+            while (resources.hasMoreElements()) {
+                URL url = resources.nextElement();
+                if (own.contains(url.toExternalForm())) {
+                    return Optional.of(new ComponentIndex(classLoader, read(url)));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read {}", LOCATION, e);
+        }
+        return Optional.empty();
+    }
+
+    private static Map<String, List<String>> read(URL url) throws IOException {
+        Map<String, List<String>> types = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                int space = line.indexOf(' ');
+                if (space <= 0) {
+                    log.warn("Ignoring malformed line in {}: {}", url, line);
+                    continue;
+                }
+                types.computeIfAbsent(line.substring(0, space), k -> new ArrayList<>())
+                        .add(line.substring(space + 1).trim());
+            }
+        }
+        return types;
+    }
+
+    /**
+     * The indexed types carrying an annotation, in the given package or its subpackages. Types
+     * are loaded but not initialised; entries whose class no longer exists are skipped.
+     *
+     * @return the types, or empty if the index records none under the annotation's role, e.g.
+     *         because it was written by an older processor; scan the classpath instead then
+     * @throws IllegalArgumentException if the annotation is not one the processor indexes
+     */
+    public Optional<Set<Class<?>>> getTypesAnnotatedWith(Class<? extends Annotation> annotation, String packageName) {
+        String role = ROLES.get(annotation);
+        if (role == null) {
+            throw new IllegalArgumentException("@" + annotation.getSimpleName() + " is not indexed");
+        }
+        List<String> names = types.get(role);
+        if (names == null) return Optional.empty();
+
+        String prefix = packageName.isEmpty() ? "" : packageName + ".";
+
+        Set<Class<?>> result = new LinkedHashSet<>();
+        for (String name : names) {
+            if (!name.startsWith(prefix)) continue;
+            try {
+                result.add(Class.forName(name, false, classLoader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                log.warn("Indexed component {} could not be loaded; is {} stale?", name, LOCATION);
+            }
+        }
+        return Optional.of(result);
+    }
+}
@@ -0,0 +1,91 @@
+package io.paradaux.hibernia.framework.commander;
+
+import io.paradaux.hibernia.framework.commander.annotations.Async;
+import io.paradaux.hibernia.framework.commander.spi.GeneratedRoute.AsyncSettings;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncRouteGateTest {
+
+    private final List<Runnable> submitted = new ArrayList<>();
+    private final List<String> rejections = new ArrayList<>();
+    private boolean shutDown;
+    private final Executor executor = task -> {
+        if (shutDown) throw new RejectedExecutionException("shut down");
+        submitted.add(task);
+    };
+
+    @Test
+    void overflowIsQueuedAndRunWhenASlotFrees() {
+        AsyncRouteGate gate = new AsyncRouteGate("test", async(), executor);
+        CompletableFuture<Void> first = new CompletableFuture<>();
+
+        assertTrue(gate.submit("alice", () -> first, rejected("alice")));
+        assertTrue(gate.submit("bob", CompletableFuture::new, rejected("bob")));
+        submitted.get(0).run();
+        assertEquals(1, submitted.size());
+        assertEquals(1, gate.stats().queued());
+
+        first.complete(null);
+        assertEquals(2, submitted.size());
+        assertEquals(0, gate.stats().queued());
+        assertEquals(1, gate.stats().completed());
+    }
+
+    @Test
+    void senderLimitAndQueueLimitReject() {
+        AsyncRouteGate gate = new AsyncRouteGate("test", async(), executor);
+
+        assertTrue(gate.submit("alice", CompletableFuture::new, rejected("alice")));
+        assertFalse(gate.submit("alice", CompletableFuture::new, rejected("alice")));
+        assertTrue(gate.submit("bob", CompletableFuture::new, rejected("bob")));
+        assertFalse(gate.submit("carol", CompletableFuture::new, rejected("carol")));
+        assertEquals(2, gate.stats().rejected());
+        // Rejected up front, so the caller tells them
+        assertTrue(rejections.isEmpty());
+    }
+
+    @Test
+    void queuedTaskRejectedByTheExecutorReleasesAndNotifiesItsSender() {
+        AsyncRouteGate gate = new AsyncRouteGate("test", async(), executor);
+        CompletableFuture<Void> first = new CompletableFuture<>();
+
+        assertTrue(gate.submit("alice", () -> first, rejected("alice")));
+        assertTrue(gate.submit("bob", CompletableFuture::new, rejected("bob")));
+        submitted.get(0).run();
+
+        // bob's queued task is dispatched, and rejected, when alice's finishes
+        shutDown = true;
+        first.complete(null);
+        assertEquals(1, gate.stats().rejected());
+        assertEquals(0, gate.stats().active());
+        assertEquals(List.of("bob"), rejections);
+
+        shutDown = false;
+        assertTrue(gate.submit("bob", CompletableFuture::new, rejected("bob")));
+    }
+
+    private Runnable rejected(String sender) {
+        return () -> rejections.add(sender);
+    }
+
+    private static AsyncSettings async() {
+        try {
+            return AsyncSettings.of(AsyncRouteGateTest.class.getDeclaredMethod("limited").getAnnotation(Async.class));
+        } catch (NoSuchMethodException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Async(maxConcurrent = 1, maxConcurrentPerSender = 1, queueLimit = 1)
+    private static void limited() {}
+}
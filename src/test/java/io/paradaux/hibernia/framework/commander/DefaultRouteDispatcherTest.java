@@ -0,0 +1,350 @@
+package io.paradaux.hibernia.framework.commander;
+
+import io.paradaux.hibernia.framework.commander.annotations.Arg;
+import io.paradaux.hibernia.framework.commander.annotations.Command;
+import io.paradaux.hibernia.framework.commander.annotations.Cooldown;
+import io.paradaux.hibernia.framework.commander.annotations.OptionalArg;
+import io.paradaux.hibernia.framework.commander.annotations.Permission;
+import io.paradaux.hibernia.framework.commander.annotations.Route;
+import io.paradaux.hibernia.framework.commander.annotations.Sender;
+import io.paradaux.hibernia.framework.commander.spi.AsyncParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.CommandHandler;
+import io.paradaux.hibernia.framework.commander.spi.GeneratedRoute;
+import io.paradaux.hibernia.framework.commander.spi.GeneratedRoutes;
+import io.paradaux.hibernia.framework.exceptions.InvalidArgumentException;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefaultRouteDispatcherTest {
+
+    private final List<String> messages = new ArrayList<>();
+    private final Accounts accounts = new Accounts();
+    private final Shop shop = new Shop();
+    private DefaultRouteDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new DefaultRouteDispatcher(List.of(accounts), Runnable::run, () -> TestSenders.console(messages),
+                "test", () -> { throw new IllegalStateException("No messages in tests"); });
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void extractsTypedArguments() throws Exception {
+        CommandSender sender = TestSenders.console(messages);
+        Object[] args = extract("buy", Map.of("tier", "silver", "amount", "3"), sender);
+        assertArrayEquals(new Object[] {sender, Tier.SILVER, 3}, args);
+    }
+
+    @Test
+    void nativeValuesArePassedThrough() throws Exception {
+        Object[] args = extract("buy", Map.of("tier", Tier.BRONZE, "amount", 7), TestSenders.console(messages));
+        assertEquals(Tier.BRONZE, args[1]);
+        assertEquals(7, args[2]);
+    }
+
+    @Test
+    void invalidArgumentIsRejected() {
+        assertThrows(InvalidArgumentException.class,
+                () -> extract("buy", Map.of("tier", "gold", "amount", "3"), TestSenders.console(messages)));
+        assertThrows(InvalidArgumentException.class,
+                () -> extract("buy", Map.of("tier", "bronze", "amount", "three"), TestSenders.console(messages)));
+    }
+
+    @Test
+    void missingOptionalArgumentTakesItsDefault() throws Exception {
+        Object[] args = extract("list", Map.of(), TestSenders.console(messages));
+        assertEquals(1, args[1]);
+    }
+
+    @Test
+    void collectionArgumentIsSplitAndDeduplicatedForSets() throws Exception {
+        Object[] args = extract("gift", Map.of("names", "alice,bob alice"), TestSenders.console(messages));
+        assertEquals(Set.of("alice", "bob"), args[1]);
+        assertEquals(List.of("alice", "bob"), new ArrayList<>((Set<?>) args[1]));
+    }
+
+    @Test
+    void executesTheRoute() {
+        Player player = TestSenders.player("alice", messages);
+        assertEquals(1, dispatcher.execute(route("buy"), player, Map.of("tier", "bronze", "amount", "2")::get));
+        assertEquals(List.of("buy BRONZE 2"), shop.calls);
+    }
+
+    @Test
+    void cooldownRejectsRepeatedUse() {
+        Player alice = TestSenders.player("alice", messages);
+        Player bob = TestSenders.player("bob", messages);
+        BoundRoute daily = route("daily");
+
+        assertEquals(1, dispatcher.execute(daily, alice, name -> null));
+        assertEquals(0, dispatcher.execute(daily, alice, name -> null));
+        assertTrue(messages.get(messages.size() - 1).contains("wait"), messages.toString());
+        assertEquals(1, dispatcher.execute(daily, bob, name -> null));
+        assertEquals(2, shop.calls.size());
+    }
+
+    @Test
+    void rebindingKeepsTheLimiters() {
+        Player alice = TestSenders.player("alice", messages);
+        BoundRoute first = route("daily");
+        assertEquals(1, dispatcher.execute(first, alice, name -> null));
+
+        // As the COMMANDS lifecycle event does on every reload
+        BoundRoute rebound = route("daily");
+        assertEquals(0, dispatcher.execute(rebound, alice, name -> null));
+    }
+
+    @Test
+    void permissionIsCheckedOnEveryExecution() {
+        Player member = TestSenders.player("alice", messages, Set.of());
+        assertEquals(0, dispatcher.execute(route("restock"), member, name -> null));
+        assertEquals(List.of("§cYou don't have permission."), messages);
+        assertTrue(shop.calls.isEmpty());
+
+        Player admin = TestSenders.player("bob", messages, Set.of("shop.admin"));
+        assertEquals(1, dispatcher.execute(route("restock"), admin, name -> null));
+    }
+
+    @Test
+    void asynchronousArgumentIsResolvedBeforeInvoking() {
+        Player player = TestSenders.player("alice", messages);
+        assertEquals(1, dispatcher.execute(route("balance"), player, Map.of("account", "savings")::get));
+        assertTrue(shop.calls.isEmpty());
+
+        accounts.complete("savings");
+        assertEquals(List.of("balance savings"), shop.calls);
+    }
+
+    @Test
+    void asynchronousDefaultIsNotResolvedWhileBinding() {
+        route("statement");
+        assertEquals(0, accounts.lookups.get());
+
+        Player player = TestSenders.player("alice", messages);
+        assertEquals(1, dispatcher.execute(route("statement"), player, name -> {
+            throw new IllegalArgumentException("No such argument '" + name + "'");
+        }));
+        accounts.complete("current");
+        assertEquals(List.of("statement current"), shop.calls);
+    }
+
+    @Test
+    void cancellingResolutionCancelsTheLookup() throws Exception {
+        BoundRoute balance = route("balance");
+        CompletableFuture<?> resolution = dispatcher.extractArgumentsAsync(Map.of("account", "savings")::get, balance,
+                TestSenders.player("alice", messages));
+        resolution.cancel(true);
+        assertTrue(accounts.pending.get("savings").isCancelled());
+    }
+
+    @Test
+    void quittingCancelsTheFutureTheRouteReturned() {
+        Player player = TestSenders.player("alice", messages);
+        assertEquals(1, dispatcher.execute(route("withdraw"), player, name -> null));
+        CompletableFuture<String> withdrawal = shop.withdrawals.get(0);
+
+        dispatcher.inFlight().cancel(player.getUniqueId());
+        assertTrue(withdrawal.isCancelled());
+        assertTrue(messages.isEmpty(), messages.toString());
+    }
+
+    @Test
+    void collectionArgumentMustEndItsRoute() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> dispatcher.bind(CollectionNotLast.class, CollectionNotLast::new));
+        assertTrue(e.getMessage().contains("last segment"), e.getMessage());
+    }
+
+    @Test
+    void collectionOfAsynchronousTypeIsRejected() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> dispatcher.bind(AsyncCollection.class, AsyncCollection::new));
+        assertTrue(e.getMessage().contains("BulkParameterResolver"), e.getMessage());
+    }
+
+    @Test
+    void defaultWithoutAResolverIsRejected() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> dispatcher.bind(UnresolvableDefault.class, UnresolvableDefault::new));
+        assertTrue(e.getMessage().contains("no resolver"), e.getMessage());
+    }
+
+    @Test
+    void generatedTableIsBoundWithoutReadingTheAnnotations() {
+        Kiosk kiosk = new Kiosk();
+        List<BoundRoute> routes = dispatcher.bind(Kiosk.class, () -> kiosk);
+        assertEquals(1, routes.size());
+        BoundRoute sell = routes.get(0);
+        assertEquals("kiosk sell <amount>", sell.label());
+
+        Player member = TestSenders.player("alice", messages, Set.of());
+        assertEquals(0, dispatcher.execute(sell, member, Map.of("amount", "4")::get));
+        Player clerk = TestSenders.player("bob", messages, Set.of("kiosk.sell"));
+        assertEquals(1, dispatcher.execute(sell, clerk, Map.of("amount", "4")::get));
+        assertEquals(List.of("sell 4"), kiosk.calls);
+    }
+
+    private Object[] extract(String method, Map<String, Object> arguments, CommandSender sender) throws Exception {
+        return dispatcher.extractArguments(name -> {
+            Object value = arguments.get(name);
+            if (value == null) throw new IllegalArgumentException("No such argument '" + name + "'");
+            return value;
+        }, route(method), sender);
+    }
+
+    private BoundRoute route(String method) {
+        for (BoundRoute route : dispatcher.bind(Shop.class, () -> shop)) {
+            if (route.method().getName().equals(method)) return route;
+        }
+        throw new AssertionError("No route " + method);
+    }
+
+    enum Tier { BRONZE, SILVER }
+
+    record Account(String name) {}
+
+    /** Has no resolver. */
+    record Receipt(String id) {}
+
+    /** Resolves accounts only when the test completes their lookup. */
+    static final class Accounts implements AsyncParameterResolver<Account> {
+        final Map<String, CompletableFuture<Optional<Account>>> pending = new ConcurrentHashMap<>();
+        final AtomicInteger lookups = new AtomicInteger();
+
+        @Override
+        public Class<Account> type() {
+            return Account.class;
+        }
+
+        @Override
+        public CompletableFuture<Optional<Account>> resolveAsync(String token, CommandSender sender) {
+            lookups.incrementAndGet();
+            return pending.computeIfAbsent(token, k -> new CompletableFuture<>());
+        }
+
+        void complete(String name) {
+            CompletableFuture<Optional<Account>> lookup = pending.get(name);
+            assertNotNull(lookup, "No lookup for " + name);
+            lookup.complete(Optional.of(new Account(name)));
+        }
+    }
+
+    @Command("shop")
+    public static class Shop implements CommandHandler {
+        final List<String> calls = new ArrayList<>();
+        final List<CompletableFuture<String>> withdrawals = new ArrayList<>();
+
+        @Route("buy <tier> <amount>")
+        public void buy(@Sender CommandSender sender, @Arg("tier") Tier tier, @Arg("amount") int amount) {
+            calls.add("buy " + tier + " " + amount);
+        }
+
+        @Route("list")
+        public void list(@Sender CommandSender sender, @OptionalArg(value = "page", defaultValue = "1") int page) {
+            calls.add("list " + page);
+        }
+
+        @Route("gift <names>")
+        public void gift(@Sender CommandSender sender, @Arg("names") Set<String> names) {
+            calls.add("gift " + names);
+        }
+
+        @Route("daily")
+        @Cooldown(value = 1, unit = TimeUnit.HOURS)
+        public void daily(@Sender Player sender) {
+            calls.add("daily " + sender.getName());
+        }
+
+        @Route("restock")
+        @Permission("shop.admin")
+        public void restock(@Sender CommandSender sender) {
+            calls.add("restock");
+        }
+
+        @Route("withdraw")
+        public CompletableFuture<String> withdraw(@Sender Player sender) {
+            CompletableFuture<String> withdrawal = new CompletableFuture<>();
+            withdrawals.add(withdrawal);
+            return withdrawal;
+        }
+
+        @Route("balance <account>")
+        public void balance(@Sender CommandSender sender, @Arg("account") Account account) {
+            calls.add("balance " + account.name());
+        }
+
+        @Route("statement")
+        public void statement(@Sender CommandSender sender,
+                              @OptionalArg(value = "account", defaultValue = "current") Account account) {
+            calls.add("statement " + account.name());
+        }
+    }
+
+    @Command("shop")
+    public static class CollectionNotLast implements CommandHandler {
+        @Route("gift <names> <note>")
+        public void gift(@Sender CommandSender sender, @Arg("names") List<String> names, @Arg("note") String note) {}
+    }
+
+    @Command("shop")
+    public static class AsyncCollection implements CommandHandler {
+        @Route("merge <accounts>")
+        public void merge(@Sender CommandSender sender, @Arg("accounts") List<Account> accounts) {}
+    }
+
+    @Command("shop")
+    public static class UnresolvableDefault implements CommandHandler {
+        @Route("open")
+        public void open(@Sender CommandSender sender, @OptionalArg(value = "since", defaultValue = "today") Receipt since) {}
+    }
+
+    /** Bound from its table: sell has no {@code @Route}, so reading annotations would find nothing. */
+    @Command("kiosk")
+    public static class Kiosk implements CommandHandler {
+        final List<String> calls = new ArrayList<>();
+
+        public void sell(CommandSender sender, int amount) {
+            calls.add("sell " + amount);
+        }
+    }
+
+    /** As the processor would generate it. */
+    public static final class Kiosk_HiberniaRoutes implements GeneratedRoutes {
+        @Override
+        public List<GeneratedRoute> routes() {
+            return List.of(new GeneratedRoute("sell", List.of(CommandSender.class, int.class),
+                    (instance, args) -> {
+                        ((Kiosk) instance).sell((CommandSender) args[0], (Integer) args[1]);
+                        return null;
+                    },
+                    List.of(BoundRoute.Segment.literal("sell"), BoundRoute.Segment.arg("amount")),
+                    List.of(BoundRoute.Param.sender(CommandSender.class),
+                            BoundRoute.Param.required(int.class, null, "amount", -Double.MAX_VALUE, Double.MAX_VALUE)),
+                    "kiosk.sell", "", null, null, null));
+        }
+    }
+}
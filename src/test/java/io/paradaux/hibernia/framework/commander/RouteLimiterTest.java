@@ -0,0 +1,112 @@
+package io.paradaux.hibernia.framework.commander;
+
+import io.paradaux.hibernia.framework.commander.annotations.Cooldown;
+import io.paradaux.hibernia.framework.commander.annotations.RateLimit;
+import io.paradaux.hibernia.framework.commander.spi.GeneratedRoute.Limit;
+import org.bukkit.command.CommandSender;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final List<String> messages = new ArrayList<>();
+    private final CommandSender alice = TestSenders.player("alice", messages);
+    private final CommandSender bob = TestSenders.player("bob", messages);
+
+    @Test
+    void cooldownAllowsOneUsePerPeriod() {
+        RouteLimiter limiter = RouteLimiter.perPlayer(Limit.of(annotation(Cooldown.class)));
+
+        assertEquals(0, limiter.tryAcquire(alice, 0));
+        assertEquals(9 * SECOND, limiter.tryAcquire(alice, SECOND));
+        assertEquals(0, limiter.tryAcquire(alice, 10 * SECOND));
+    }
+
+    @Test
+    void rateLimitAllowsABurstOfPermits() {
+        RouteLimiter limiter = RouteLimiter.perPlayer(Limit.of(annotation(RateLimit.class)));
+
+        assertEquals(0, limiter.tryAcquire(alice, 0));
+        assertEquals(0, limiter.tryAcquire(alice, 0));
+        assertTrue(limiter.tryAcquire(alice, 0) > 0);
+        // One permit is back after half the period
+        assertEquals(0, limiter.tryAcquire(alice, SECOND / 2));
+    }
+
+    @Test
+    void playersHaveSeparateBuckets() {
+        RouteLimiter limiter = RouteLimiter.perPlayer(Limit.of(annotation(Cooldown.class)));
+
+        assertEquals(0, limiter.tryAcquire(alice, 0));
+        assertEquals(0, limiter.tryAcquire(bob, 0));
+        assertTrue(limiter.tryAcquire(alice, 0) > 0);
+    }
+
+    @Test
+    void globalLimitIsShared() {
+        RouteLimiter limiter = RouteLimiter.global(Limit.of(annotation(RateLimit.class)));
+
+        assertEquals(0, limiter.tryAcquire(alice, 0));
+        assertEquals(0, limiter.tryAcquire(bob, 0));
+        assertEquals(0, limiter.tryAcquire(alice, 0));
+        assertTrue(limiter.tryAcquire(bob, 0) > 0);
+    }
+
+    @Test
+    void nonPlayersAreNotLimitedPerPlayer() {
+        RouteLimiter limiter = RouteLimiter.perPlayer(Limit.of(annotation(Cooldown.class)));
+        CommandSender console = TestSenders.console(messages);
+
+        assertEquals(0, limiter.tryAcquire(console, 0));
+        assertEquals(0, limiter.tryAcquire(console, 0));
+    }
+
+    @Test
+    void releaseGivesThePermitBack() {
+        RouteLimiter limiter = RouteLimiter.perPlayer(Limit.of(annotation(Cooldown.class)));
+
+        assertEquals(0, limiter.tryAcquire(alice, 0));
+        limiter.release(alice);
+        assertEquals(0, limiter.tryAcquire(alice, 0));
+    }
+
+    @Test
+    void expiredBucketsStartFull() {
+        RouteLimiter limiter = RouteLimiter.perPlayer(Limit.of(annotation(Cooldown.class)));
+
+        assertEquals(0, limiter.tryAcquire(alice, 0));
+        limiter.expire(10 * SECOND);
+        assertEquals(0, limiter.tryAcquire(alice, 10 * SECOND));
+        assertTrue(limiter.tryAcquire(alice, 10 * SECOND) > 0);
+    }
+
+    @Test
+    void messageShowsTheRemainingTime() {
+        RouteLimiter limiter = RouteLimiter.perPlayer(Limit.of(annotation(Cooldown.class)));
+
+        assertEquals("wait 1m 30s", limiter.message(90 * SECOND));
+        assertEquals("wait 1s", limiter.message(1));
+    }
+
+    private static <A extends java.lang.annotation.Annotation> A annotation(Class<A> type) {
+        try {
+            return Limited.class.getDeclaredMethod("limited").getAnnotation(type);
+        } catch (NoSuchMethodException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    static final class Limited {
+        @Cooldown(value = 10, message = "wait {remaining}")
+        @RateLimit(permits = 2, globalPermits = 3)
+        void limited() {}
+    }
+}
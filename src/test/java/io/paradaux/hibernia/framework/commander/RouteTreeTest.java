@@ -0,0 +1,125 @@
+package io.paradaux.hibernia.framework.commander;
+
+import io.paradaux.hibernia.framework.commander.annotations.Arg;
+import io.paradaux.hibernia.framework.commander.annotations.Command;
+import io.paradaux.hibernia.framework.commander.annotations.Route;
+import io.paradaux.hibernia.framework.commander.annotations.Sender;
+import io.paradaux.hibernia.framework.commander.spi.CommandHandler;
+import org.bukkit.command.CommandSender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RouteTreeTest {
+
+    private DefaultRouteDispatcher dispatcher;
+    private RouteTree tree;
+
+    @BeforeEach
+    void setUp() {
+        List<String> messages = new ArrayList<>();
+        dispatcher = new DefaultRouteDispatcher(List.of(), Runnable::run, () -> TestSenders.console(messages), "test",
+                () -> { throw new IllegalStateException("No messages in tests"); });
+        tree = new RouteTree("eco");
+        dispatcher.bind(Eco.class, Eco::new).forEach(tree::insert);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void literalIsTriedBeforeArgument() {
+        assertEquals("top", route("top"));
+        assertEquals("top", route("TOP"));
+        assertEquals("lookup", route("alice"));
+    }
+
+    @Test
+    void argumentsArePassedAsTyped() {
+        RouteTree.Match match = tree.match("pay alice 10");
+        assertNotNull(match);
+        assertEquals("pay", match.route().method().getName());
+        assertEquals("alice", match.arguments().get("player"));
+        assertEquals("10", match.arguments().get("amount"));
+    }
+
+    @Test
+    void sharedPrefixesReachEveryRoute() {
+        assertEquals("balance", route("balance"));
+        assertEquals("balanceOf", route("balance alice"));
+    }
+
+    @Test
+    void collectionTakesTheRestOfTheInput() {
+        RouteTree.Match match = tree.match("give alice, bob carol");
+        assertNotNull(match);
+        assertEquals("alice, bob carol", match.arguments().get("players"));
+    }
+
+    @Test
+    void incompleteOrExtraInputDoesNotMatch() {
+        assertNull(tree.match("pay alice"));
+        assertNull(tree.match("balance alice bob"));
+    }
+
+    @Test
+    void missingArgumentIsReported() {
+        RouteTree.Match match = tree.match("balance alice");
+        assertNotNull(match);
+        assertThrows(IllegalArgumentException.class, () -> match.arguments().get("amount"));
+    }
+
+    @Test
+    void conflictingArgumentIsRejectedWithoutChangingTheTree() {
+        List<BoundRoute> conflicting = dispatcher.bind(Conflicting.class, Conflicting::new);
+        assertThrows(IllegalStateException.class, () -> tree.insert(conflicting.get(0)));
+
+        assertNull(tree.match("pay alice 10 thanks"));
+        assertEquals("pay", route("pay alice 10"));
+    }
+
+    private String route(String input) {
+        RouteTree.Match match = tree.match(input);
+        assertNotNull(match, "No route for '" + input + "'");
+        return match.route().method().getName();
+    }
+
+    @Command("eco")
+    public static class Eco implements CommandHandler {
+        @Route("balance")
+        public void balance(@Sender CommandSender sender) {}
+
+        @Route("balance <player>")
+        public void balanceOf(@Sender CommandSender sender, @Arg("player") String player) {}
+
+        @Route("pay <player> <amount>")
+        public void pay(@Sender CommandSender sender, @Arg("player") String player, @Arg("amount") int amount) {}
+
+        @Route("give <players>")
+        public void give(@Sender CommandSender sender, @Arg("players") List<String> players) {}
+
+        @Route("top")
+        public void top(@Sender CommandSender sender) {}
+
+        @Route("<player>")
+        public void lookup(@Sender CommandSender sender, @Arg("player") String player) {}
+    }
+
+    @Command("eco")
+    public static class Conflicting implements CommandHandler {
+        /** Declares {@code <amount>} as a String, where {@link Eco} has an int. */
+        @Route("pay <player> <amount> <note>")
+        public void payWithNote(@Sender CommandSender sender, @Arg("player") String player,
+                                @Arg("amount") String amount, @Arg("note") String note) {}
+    }
+}
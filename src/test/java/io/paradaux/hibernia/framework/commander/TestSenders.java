@@ -0,0 +1,63 @@
+package io.paradaux.hibernia.framework.commander;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Command senders for driving the dispatcher without a server. Messages sent to them are
+ * recorded, and they hold only the permissions they are given.
+ */
+final class TestSenders {
+
+    private TestSenders() {}
+
+    static CommandSender console(List<String> messages) {
+        return proxy(CommandSender.class, "CONSOLE", null, messages, null);
+    }
+
+    /** A player with every permission. */
+    static Player player(String name, List<String> messages) {
+        return player(name, messages, null);
+    }
+
+    /** A player holding only the given permissions. */
+    static Player player(String name, List<String> messages, Set<String> permissions) {
+        UUID id = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8));
+        return proxy(Player.class, name, id, messages, permissions);
+    }
+
+    private static <T extends CommandSender> T proxy(Class<T> type, String name, UUID id, List<String> messages,
+                                                      Set<String> permissions) {
+        Object proxy = Proxy.newProxyInstance(TestSenders.class.getClassLoader(), new Class<?>[] {type},
+                (self, method, args) -> switch (method.getName()) {
+                    case "getName" -> name;
+                    case "getUniqueId" -> id;
+                    case "hasPermission" -> permissions == null || permissions.contains(String.valueOf(args[0]));
+                    case "isOp" -> permissions == null;
+                    case "sendMessage" -> {
+                        if (args.length == 1 && args[0] instanceof String message) messages.add(message);
+                        yield null;
+                    }
+                    case "equals" -> self == args[0];
+                    case "hashCode" -> System.identityHashCode(self);
+                    case "toString" -> "TestSender[" + name + "]";
+                    default -> defaultValue(method.getReturnType());
+                });
+        return type.cast(proxy);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0d;
+        if (type == float.class) return 0f;
+        return null;
+    }
+}
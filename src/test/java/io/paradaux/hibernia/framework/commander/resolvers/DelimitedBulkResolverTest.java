@@ -0,0 +1,73 @@
+package io.paradaux.hibernia.framework.commander.resolvers;
+
+import io.paradaux.hibernia.framework.commander.spi.ParameterResolver;
+import io.paradaux.hibernia.framework.commander.spi.Resolution;
+import org.bukkit.command.CommandSender;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DelimitedBulkResolverTest {
+
+    private final DelimitedBulkResolver<Integer> resolver = new DelimitedBulkResolver<>(new IntegerResolver());
+
+    @Test
+    void splitsOnCommasAndSpaces() throws Exception {
+        assertEquals(List.of(1, 2, 3), resolver.resolveAll("1,2 3", null).value());
+        assertEquals(List.of(1, 2), resolver.resolveAll("1, 2,", null).value());
+    }
+
+    @Test
+    void dropsDuplicatesKeepingOrder() throws Exception {
+        assertEquals(List.of(3, 1), resolver.resolveAll("3,1,3", null).value());
+    }
+
+    @Test
+    void failsIfAnyEntryDoes() throws Exception {
+        Resolution<List<Integer>> resolution = resolver.resolveAll("1,two,3", null);
+        assertFalse(resolution.isValid());
+        assertNull(resolution.messageKey());
+    }
+
+    @Test
+    void keepsTheElementsFailureMessage() throws Exception {
+        DelimitedBulkResolver<String> names = new DelimitedBulkResolver<>(new ParameterResolver<>() {
+            @Override
+            public Class<String> type() {
+                return String.class;
+            }
+
+            @Override
+            public Optional<String> resolve(String token, CommandSender sender) {
+                return Optional.of(token);
+            }
+
+            @Override
+            public Resolution<String> tryResolve(String token, CommandSender sender) {
+                return token.startsWith("@") ? Resolution.invalid("errors.no-selectors") : Resolution.of(token);
+            }
+        });
+        assertEquals("errors.no-selectors", names.resolveAll("alice,@a", null).messageKey());
+    }
+
+    @Test
+    void emptyListIsInvalid() throws Exception {
+        assertFalse(resolver.resolveAll(" , ", null).isValid());
+    }
+
+    @Test
+    void suggestionsKeepEarlierEntries() {
+        DelimitedBulkResolver<String> names = new DelimitedBulkResolver<>(new StringResolver() {
+            @Override
+            public List<String> suggestions(String prefix, CommandSender sender) {
+                return List.of(prefix + "lice", prefix + "nna");
+            }
+        });
+        assertEquals(List.of("bob,alice", "bob,anna"), names.suggestions("bob,a", null));
+    }
+}
@@ -0,0 +1,33 @@
+package io.paradaux.hibernia.framework.commander.resolvers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class IntegerResolverTest {
+
+    private final IntegerResolver resolver = new IntegerResolver();
+
+    @Test
+    void parsesIntegers() {
+        assertEquals(42, resolver.tryResolve("42", null).value());
+        assertEquals(-7, resolver.tryResolve("-7", null).value());
+    }
+
+    @Test
+    void acceptsAnExplicitPlusSign() {
+        assertEquals(5, resolver.tryResolve("+5", null).value());
+        assertFalse(resolver.tryResolve("+-5", null).isValid());
+        assertFalse(resolver.tryResolve("++5", null).isValid());
+        assertFalse(resolver.tryResolve("+", null).isValid());
+    }
+
+    @Test
+    void rejectsInvalidInputWithoutThrowing() {
+        assertFalse(resolver.tryResolve("forty", null).isValid());
+        assertFalse(resolver.tryResolve("", null).isValid());
+        assertFalse(resolver.tryResolve("1.5", null).isValid());
+        assertFalse(resolver.tryResolve("2147483648", null).isValid());
+    }
+}
@@ -0,0 +1,41 @@
+package io.paradaux.hibernia.framework.commander.spi;
+
+import org.bukkit.command.CommandSender;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncParameterResolverTest {
+
+    @Test
+    void synchronousResolutionAnswersFromACompletedLookup() throws Exception {
+        Lookup resolver = new Lookup(CompletableFuture.completedFuture(Optional.of("cached")));
+        assertEquals(Optional.of("cached"), resolver.resolve("token", null));
+    }
+
+    @Test
+    void synchronousResolutionNeverWaits() {
+        CompletableFuture<Optional<String>> pending = new CompletableFuture<>();
+        Lookup resolver = new Lookup(pending);
+
+        assertThrows(IllegalStateException.class, () -> resolver.resolve("token", null));
+        assertTrue(pending.isCancelled());
+    }
+
+    private record Lookup(CompletableFuture<Optional<String>> future) implements AsyncParameterResolver<String> {
+        @Override
+        public Class<String> type() {
+            return String.class;
+        }
+
+        @Override
+        public CompletableFuture<Optional<String>> resolveAsync(String token, CommandSender sender) {
+            return future;
+        }
+    }
+}
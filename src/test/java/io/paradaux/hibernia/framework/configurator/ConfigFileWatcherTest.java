@@ -0,0 +1,66 @@
+package io.paradaux.hibernia.framework.configurator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConfigFileWatcherTest {
+
+    @TempDir
+    Path folder;
+
+    private final BlockingQueue<Set<String>> written = new LinkedBlockingQueue<>();
+    private ConfigFileWatcher watcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(folder.resolve("shops"));
+        Files.writeString(folder.resolve("config.yml"), "enabled: true\n");
+        Files.writeString(folder.resolve("shops/items.yml"), "price: 1\n");
+
+        watcher = new ConfigFileWatcher(folder, Duration.ofMillis(50), "test-config-watcher", written::add);
+        watcher.watch("config.yml");
+        watcher.watch("shops/items.yml");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        watcher.close();
+    }
+
+    @Test
+    void reportsAWriteToAFileInTheFolder() throws Exception {
+        Files.writeString(folder.resolve("config.yml"), "enabled: false\n");
+        assertEquals(Set.of("config.yml"), next());
+    }
+
+    @Test
+    void reportsAWriteToAFileInASubdirectory() throws Exception {
+        Files.writeString(folder.resolve("shops/items.yml"), "price: 2\n");
+        assertEquals(Set.of("shops/items.yml"), next());
+    }
+
+    @Test
+    void ignoresFilesItDoesNotWatch() throws Exception {
+        Files.writeString(folder.resolve("other.yml"), "a: 1\n");
+        Files.writeString(folder.resolve("shops/other.yml"), "a: 1\n");
+        Files.writeString(folder.resolve("config.yml"), "enabled: false\n");
+        assertEquals(Set.of("config.yml"), next());
+    }
+
+    private Set<String> next() throws InterruptedException {
+        return written.poll(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,120 @@
+package io.paradaux.hibernia.framework.configurator;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotCacheTest {
+
+    private static final byte[] KEY = SnapshotCache.key("items: [a, b]".getBytes(), null, List.of("items"));
+    private static final byte[] ENCODED = SnapshotCache.encode(KEY, Map.of("items", List.of("a", "b")));
+
+    // Offsets into ENCODED: magic, version and key, then the entry count, the path "items" and the list's tag
+    private static final int COUNT = 40;
+    private static final int PATH_LENGTH = 44;
+    private static final int LIST_SIZE = 54;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackWhatWasWritten() throws Exception {
+        assertEquals(Map.of("items", List.of("a", "b")), read(ENCODED, KEY));
+    }
+
+    @Test
+    void otherKeyMisses() throws Exception {
+        assertNull(read(ENCODED, new byte[32]));
+    }
+
+    @Test
+    void truncatedSnapshotMisses() throws Exception {
+        assertNull(read(Arrays.copyOf(ENCODED, ENCODED.length - 1), KEY));
+    }
+
+    @Test
+    void sizesLargerThanTheSnapshotMiss() throws Exception {
+        assertNull(read(withInt(LIST_SIZE, Integer.MAX_VALUE), KEY));
+        assertNull(read(withInt(COUNT, Integer.MAX_VALUE), KEY));
+    }
+
+    @Test
+    void negativeSizesMiss() throws Exception {
+        assertNull(read(withInt(PATH_LENGTH, -1), KEY));
+        assertNull(read(withInt(COUNT, -5), KEY));
+    }
+
+    @Test
+    void unknownTagMisses() throws Exception {
+        byte[] bytes = ENCODED.clone();
+        bytes[LIST_SIZE - 1] = 99;
+        assertNull(read(bytes, KEY));
+    }
+
+    @Test
+    void loadingAgainWithMorePathsBoundReadsTheFile() throws Exception {
+        String file = "price: 5\nname: shop\n";
+        YamlConfiguration parsed = new YamlConfiguration();
+        parsed.loadFromString(file);
+        SnapshotCache cache = new SnapshotCache(directory);
+
+        List<String> first = List.of("price");
+        cache.write("config.yml", key(file, first), parsed, first);
+        SnapshotCache.SnapshotConfiguration loaded = cache.read("config.yml", key(file, first), first);
+        assertEquals(5, loaded.getInt("price"));
+        assertNull(loaded.get("name"));
+        assertFalse(loaded.holds(List.of("name", "price")));
+
+        // Binding another path changes the key, so the first snapshot is not used for it
+        List<String> second = List.of("name", "price");
+        assertNull(cache.read("config.yml", key(file, second), second));
+        cache.write("config.yml", key(file, second), parsed, second);
+        loaded = cache.read("config.yml", key(file, second), second);
+        assertEquals("shop", loaded.getString("name"));
+        assertTrue(loaded.holds(second));
+    }
+
+    @Test
+    void sectionsKeepTheDefaultsOfKeysTheyLeaveOut() throws Exception {
+        String file = "shop:\n  price: 8\n";
+        YamlConfiguration parsed = new YamlConfiguration();
+        parsed.setDefaults(YamlConfiguration.loadConfiguration(new StringReader("shop:\n  price: 5\n  currency: gold\n")));
+        parsed.loadFromString(file);
+        SnapshotCache cache = new SnapshotCache(directory);
+
+        List<String> paths = List.of("shop");
+        cache.write("config.yml", key(file, paths), parsed, paths);
+        SnapshotCache.SnapshotConfiguration loaded = cache.read("config.yml", key(file, paths), paths);
+        assertEquals(8, loaded.getInt("shop.price"));
+        assertEquals("gold", loaded.getString("shop.currency"));
+    }
+
+    private static byte[] key(String file, List<String> paths) {
+        return SnapshotCache.key(file.getBytes(StandardCharsets.UTF_8), null, paths);
+    }
+
+    private Map<String, Object> read(byte[] snapshot, byte[] key) throws Exception {
+        Files.write(directory.resolve("config.yml.snapshot"), snapshot);
+        return new SnapshotCache(directory).readValues("config.yml", key);
+    }
+
+    private static byte[] withInt(int offset, int value) {
+        byte[] bytes = ENCODED.clone();
+        ByteBuffer.wrap(bytes).putInt(offset, value);
+        return bytes;
+    }
+}
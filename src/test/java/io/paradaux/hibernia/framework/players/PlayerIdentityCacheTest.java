@@ -0,0 +1,93 @@
+package io.paradaux.hibernia.framework.players;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerIdentityCacheTest {
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-00000000a11c");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-000000000b0b");
+
+    @TempDir
+    Path directory;
+
+    private IdentityStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdentityStore(directory.resolve("identities.bin"));
+    }
+
+    @Test
+    void renameForgetsTheOldName() {
+        PlayerIdentityCache cache = cache();
+        cache.remember(new PlayerIdentity(ALICE, "alice", 100));
+        cache.remember(new PlayerIdentity(ALICE, "Alicia", 200));
+
+        assertTrue(cache.getIfCached("alice").isEmpty());
+        assertEquals(Optional.of(new PlayerIdentity(ALICE, "Alicia", 200)), cache.getIfCached("alicia"));
+        assertEquals("Alicia", cache.getIfCached(ALICE).orElseThrow().name());
+    }
+
+    @Test
+    void renameKeepsTheOldNameIfAnotherPlayerTookIt() {
+        PlayerIdentityCache cache = cache();
+        cache.remember(new PlayerIdentity(ALICE, "alice", 100));
+        cache.remember(new PlayerIdentity(BOB, "alice", 150));
+        cache.remember(new PlayerIdentity(ALICE, "Alicia", 200));
+
+        assertEquals(BOB, cache.getIfCached("alice").orElseThrow().id());
+    }
+
+    @Test
+    void storedNameIsIgnoredOnceThePlayerIsSeenUnderAnother() throws Exception {
+        store.merge(List.of(new PlayerIdentity(ALICE, "alice", 100)));
+        PlayerIdentityCache cache = cache();
+        cache.remember(new PlayerIdentity(ALICE, "Alicia", 200));
+
+        assertTrue(cache.getIfCached("alice").isEmpty());
+        assertEquals("Alicia", cache.getIfCached(ALICE).orElseThrow().name());
+    }
+
+    @Test
+    void mergeDropsNamesSupersededByANewerOne() throws Exception {
+        store.merge(List.of(new PlayerIdentity(ALICE, "alice", 100)));
+        store.merge(List.of(new PlayerIdentity(ALICE, "Alicia", 200)));
+
+        assertTrue(store.findByName("alice").isEmpty());
+        assertEquals(Optional.of(new PlayerIdentity(ALICE, "Alicia", 200)), store.findByName("alicia"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void mergeDropsNamesSupersededByOneThatCannotBeWritten() throws Exception {
+        store.merge(List.of(new PlayerIdentity(ALICE, "alice", 100)));
+        store.merge(List.of(new PlayerIdentity(ALICE, "Alice From Bedrock", 200)));
+
+        assertTrue(store.findByName("alice").isEmpty());
+        assertTrue(store.findById(ALICE).isEmpty());
+    }
+
+    @Test
+    void mergeKeepsTheNewestWhenAnOlderMappingArrivesLate() throws Exception {
+        store.merge(List.of(new PlayerIdentity(ALICE, "Alicia", 200)));
+        store.merge(List.of(new PlayerIdentity(ALICE, "alice", 100)));
+
+        assertTrue(store.findByName("alice").isEmpty());
+        assertEquals("Alicia", store.findById(ALICE).orElseThrow().name());
+    }
+
+    private PlayerIdentityCache cache() {
+        return new PlayerIdentityCache(name -> CompletableFuture.completedFuture(Optional.empty()), store);
+    }
+}